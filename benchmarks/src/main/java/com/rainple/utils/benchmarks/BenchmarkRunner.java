@@ -0,0 +1,40 @@
+package com.rainple.utils.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @description: 基准测试入口，接受 JMH 的全部命令行参数。没有指定时默认开启 GC 分析器（分配速率），
+ * 并把结果以 JSON 写入 target/jmh-result.json，作为之后比较的基线
+ * @author: rainple
+ * @create: 2026-10-18 10:43
+ **/
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            //列表和帮助交给 JMH 自己的入口处理
+            try {
+                org.openjdk.jmh.Main.main(args);
+            } catch (Exception e) {
+                throw new RunnerException(e);
+            }
+            return;
+        }
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+        if (cmd.getProfilers().isEmpty())
+            builder.addProfiler(GCProfiler.class);
+        if (!cmd.getResultFormat().hasValue())
+            builder.resultFormat(ResultFormatType.JSON);
+        if (!cmd.getResult().hasValue())
+            builder.result("target/jmh-result.json");
+        new Runner(builder.build()).run();
+    }
+}
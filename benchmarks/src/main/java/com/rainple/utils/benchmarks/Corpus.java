@@ -0,0 +1,83 @@
+package com.rainple.utils.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * @description: 基准测试语料，按类型和大小生成UTF-8文件并缓存在临时目录中，同样的参数总是生成同样的内容
+ * @author: rainple
+ * @create: 2026-10-18 10:43
+ **/
+final class Corpus {
+
+    /**
+     * 英文语料中的单词，包含基准测试查找的 hello
+     */
+    private static final String[] WORDS = {"hello", "world", "the", "quick", "brown", "fox", "jumps", "over",
+            "lazy", "dog", "lorem", "ipsum", "dolor", "sit", "amet", "benchmark", "utils", "file", "channel", "buffer"};
+
+    /**
+     * 搜索的单词，在所有语料中都会出现
+     */
+    static final String WORD = "hello";
+
+    private static final File DIR = new File(System.getProperty("java.io.tmpdir"), "rainple-utils-bench");
+
+    private Corpus() {
+    }
+
+    /**
+     * 获取语料文件，不存在时生成
+     * @param kind ascii | cjk | mixed
+     * @param size 文件大小（字节，近似值）
+     * @return 文件
+     * @throws IOException 异常
+     */
+    static synchronized File file(String kind, long size) throws IOException {
+        File file = new File(DIR, kind + "-" + size + ".txt");
+        if (file.isFile())
+            return file;
+        if (!DIR.isDirectory() && !DIR.mkdirs())
+            throw new IOException("can not create directory: " + DIR);
+        File tmp = new File(DIR, file.getName() + ".tmp");
+        Random random = new Random(size * 31 + kind.hashCode());
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8), 1 << 16)) {
+            long written = 0;
+            int line = 0;
+            while (written < size) {
+                boolean cjk = "cjk".equals(kind) || ("mixed".equals(kind) && random.nextBoolean());
+                if (cjk) {
+                    //中文字符UTF-8编码为3个字节，偶尔插入查找的单词
+                    if (random.nextInt(50) == 0) {
+                        writer.write(WORD);
+                        written += WORD.length();
+                    } else {
+                        writer.write((char) ('一' + random.nextInt('龥' - '一' + 1)));
+                        written += 3;
+                    }
+                } else {
+                    String word = WORDS[random.nextInt(WORDS.length)];
+                    writer.write(word);
+                    written += word.length();
+                }
+                if (++line % 16 == 0) {
+                    writer.write('\n');
+                } else if (!cjk) {
+                    writer.write(' ');
+                } else {
+                    continue;
+                }
+                written++;
+            }
+        }
+        if (!tmp.renameTo(file))
+            throw new IOException("can not create corpus: " + file);
+        return file;
+    }
+}
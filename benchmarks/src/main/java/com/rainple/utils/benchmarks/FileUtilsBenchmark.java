@@ -0,0 +1,97 @@
+package com.rainple.utils.benchmarks;
+
+import com.rainple.utils.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: FileUtils 热点方法的基准测试，覆盖英文、中文和混合语料的多种大小
+ * @author: rainple
+ * @create: 2026-10-18 10:43
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileUtilsBenchmark {
+
+    private static final String CHARSET = "utf-8";
+
+    @Param({"ascii", "cjk", "mixed"})
+    public String corpus;
+
+    /**
+     * 64K、4M、64M
+     */
+    @Param({"65536", "4194304", "67108864"})
+    public long size;
+
+    private String path;
+    private File copyTarget;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = Corpus.file(corpus, size).getPath();
+        copyTarget = File.createTempFile("copy-", ".txt");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (copyTarget != null && !copyTarget.delete())
+            copyTarget.deleteOnExit();
+    }
+
+    @Benchmark
+    public String read() throws IOException {
+        return FileUtils.read(path, CHARSET);
+    }
+
+    @Benchmark
+    public boolean copy() throws IOException {
+        return FileUtils.copy(path, copyTarget.getPath());
+    }
+
+    @Benchmark
+    public long getTotalChar() {
+        return FileUtils.getTotalChar(path, CHARSET);
+    }
+
+    @Benchmark
+    public List<Map.Entry<Character, Long>> countChar() {
+        return FileUtils.countChar(path, CHARSET, FileUtils.DESC);
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Long>> countEnglishWord() throws IOException {
+        return FileUtils.countEnglishWord(path, CHARSET);
+    }
+
+    @Benchmark
+    public int findWordCountPresent() {
+        return FileUtils.findWordCountPresent(path, Corpus.WORD, CHARSET);
+    }
+
+    @Benchmark
+    public boolean isPresent() {
+        return FileUtils.isPresent(path, Corpus.WORD, CHARSET);
+    }
+}
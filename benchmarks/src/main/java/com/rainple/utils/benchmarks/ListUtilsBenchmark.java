@@ -0,0 +1,109 @@
+package com.rainple.utils.benchmarks;
+
+import com.rainple.utils.ListUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: ListUtils 排序和分组的基准测试，集合大小从1千到1千万。排序会修改集合，每次调用先复制一份，
+ * 复制的开销也计入结果
+ * @author: rainple
+ * @create: 2026-10-18 10:43
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ListUtilsBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(size);
+        employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            employees.add(new Employee(i, "dept" + random.nextInt(64), random.nextDouble() * 100000, random.nextLong()));
+    }
+
+    @Benchmark
+    public List<Employee> sortByInt() {
+        List<Employee> list = new ArrayList<>(employees);
+        ListUtils.sort(list, "ASC", "id");
+        return list;
+    }
+
+    @Benchmark
+    public List<Employee> sortByDouble() {
+        List<Employee> list = new ArrayList<>(employees);
+        ListUtils.sort(list, "DESC", "salary");
+        return list;
+    }
+
+    @Benchmark
+    public List<Employee> sortByString() {
+        List<Employee> list = new ArrayList<>(employees);
+        ListUtils.sort(list, "ASC", "dept");
+        return list;
+    }
+
+    @Benchmark
+    public List<Employee> sortByMultipleKeys() {
+        List<Employee> list = new ArrayList<>(employees);
+        ListUtils.sort(list, "dept ASC, salary DESC");
+        return list;
+    }
+
+    @Benchmark
+    public List<List> split() {
+        return ListUtils.split(employees, 100, employees.size());
+    }
+
+    @Benchmark
+    public List<List> splitWithGroup() {
+        return ListUtils.splitWithGroup(employees, 16, employees.size());
+    }
+
+    /**
+     * 排序使用的对象
+     */
+    public static class Employee {
+
+        private final int id;
+        private final String dept;
+        private final double salary;
+        private final long joined;
+
+        Employee(int id, String dept, double salary, long joined) {
+            this.id = id;
+            this.dept = dept;
+            this.salary = salary;
+            this.joined = joined;
+        }
+
+        @Override
+        public String toString() {
+            return "Employee{id=" + id + ", dept=" + dept + ", salary=" + salary + ", joined=" + joined + '}';
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.rainple.utils;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * @description: 目录批量分析，遍历目录下匹配 glob 或过滤器的文件，在一次扫描中同时计算 TextAnalyzer 的指标和关键词出现次数，
+ * 返回每个文件的结果和合并后的结果。运行在支持虚拟线程的JDK上时每个任务使用一个虚拟线程，否则使用固定大小的线程池；
+ * 同时打开的文件数量受上限控制。小文件按总字节数分批，一个任务依次处理一批，复用计数器和缓冲区。
+ * 结果按相对路径排序，与线程调度无关
+ * @author: rainple
+ * @create: 2026-10-18 10:40
+ **/
+public class BatchAnalyzer {
+
+    /**
+     * 默认同时打开的文件数量上限
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+
+    /**
+     * 一批小文件的总字节数
+     */
+    private static final long BATCH_BYTES = 4L * 1024 * 1024;
+
+    /**
+     * 一批最多的文件数量
+     */
+    private static final int BATCH_FILES = 256;
+
+    /**
+     * 超过这个大小的文件交给 FileScanner 映射扫描
+     */
+    private static final long MAPPED_SIZE = 1024 * 1024;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final TextAnalyzer analyzer;
+    private final KeywordMatcher keywords;
+    private final int maxOpenFiles;
+
+    /**
+     * 不匹配关键词，使用默认的打开文件数量上限
+     * @param analyzer 分析器，决定编码格式和统计的指标
+     */
+    public BatchAnalyzer(TextAnalyzer analyzer) {
+        this(analyzer, null, DEFAULT_MAX_OPEN_FILES);
+    }
+
+    /**
+     * @param analyzer 分析器，决定编码格式和统计的指标
+     * @param keywords 需要统计出现次数的关键词，可以为null
+     * @param maxOpenFiles 同时打开的文件数量上限，也是同时执行的任务数量上限
+     */
+    public BatchAnalyzer(TextAnalyzer analyzer, KeywordMatcher keywords, int maxOpenFiles) {
+        if (maxOpenFiles <= 0)
+            throw new IllegalArgumentException("max open files must be positive: " + maxOpenFiles);
+        this.analyzer = analyzer;
+        this.keywords = keywords;
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    /**
+     * 分析目录下匹配 glob 的文件
+     * @param root 根目录
+     * @param glob 相对于根目录的 glob，如 "**.log"，为null时分析所有文件
+     * @return 结果
+     * @throws IOException 任意文件分析失败时抛出第一个异常，其余异常附加为 suppressed
+     */
+    public Result analyze(File root, String glob) throws IOException {
+        final PathMatcher matcher = glob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        final Path rootPath = root.toPath();
+        return analyze(root, new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return matcher == null || matcher.matches(rootPath.relativize(file.toPath()));
+            }
+        });
+    }
+
+    /**
+     * 分析目录下被过滤器接受的文件
+     * @param root 根目录
+     * @param filter 文件过滤器，为null时分析所有文件
+     * @return 结果
+     * @throws IOException 任意文件分析失败时抛出第一个异常，其余异常附加为 suppressed
+     */
+    public Result analyze(File root, final FileFilter filter) throws IOException {
+        if (!root.isDirectory())
+            throw new IOException("not a directory: " + root);
+        final Path rootPath = root.toPath();
+        final List<Entry> files = new ArrayList<>();
+        Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && (filter == null || filter.accept(file.toFile())))
+                    files.add(new Entry(rootPath.relativize(file).toString(), file, attrs.size()));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(files, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry o1, Entry o2) {
+                return o1.name.compareTo(o2.name);
+            }
+        });
+        return run(batches(files));
+    }
+
+    /**
+     * 按文件顺序切分批次，大文件单独成为一批
+     */
+    private static List<List<Entry>> batches(List<Entry> files) {
+        List<List<Entry>> batches = new ArrayList<>();
+        List<Entry> batch = new ArrayList<>();
+        long bytes = 0;
+        for (Entry file : files) {
+            if (!batch.isEmpty() && (bytes + file.size > BATCH_BYTES || batch.size() >= BATCH_FILES)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                bytes = 0;
+            }
+            batch.add(file);
+            bytes += file.size;
+        }
+        if (!batch.isEmpty())
+            batches.add(batch);
+        return batches;
+    }
+
+    private Result run(List<List<Entry>> batches) throws IOException {
+        //分析是计算密集的，平台线程不超过CPU数的两倍
+        ExecutorService executor = BatchExecutor.newExecutor(Math.min(maxOpenFiles, Runtime.getRuntime().availableProcessors() * 2));
+        //限制同时执行的任务数量，也就限制了同时打开的文件和计数器占用的内存
+        final Semaphore permits = new Semaphore(maxOpenFiles);
+        List<Future<BatchOutput>> futures = new ArrayList<>(batches.size());
+        try {
+            for (final List<Entry> batch : batches) {
+                permits.acquireUninterruptibly();
+                try {
+                    futures.add(executor.submit(new Callable<BatchOutput>() {
+                        @Override
+                        public BatchOutput call() {
+                            try {
+                                return new Worker().process(batch);
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+            TextCounter merged = analyzer.newCounter();
+            long[] keywordCounts = keywords == null ? null : new long[keywords.size()];
+            Map<String, TextStats> fileStats = new LinkedHashMap<>();
+            Map<String, Map<String, Long>> fileKeywords = new LinkedHashMap<>();
+            IOException error = null;
+            for (Future<BatchOutput> future : futures) {
+                BatchOutput output;
+                try {
+                    output = future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException)
+                        throw (IOException) e.getCause();
+                    if (e.getCause() instanceof RuntimeException)
+                        throw (RuntimeException) e.getCause();
+                    throw new IOException(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while analyzing files", e);
+                }
+                merged.merge(output.total);
+                for (int i = 0; i < output.names.size(); i++) {
+                    fileStats.put(output.names.get(i), output.stats.get(i));
+                    if (keywordCounts != null) {
+                        KeywordMatcher.Result result = output.keywords.get(i);
+                        for (int k = 0; k < keywordCounts.length; k++)
+                            keywordCounts[k] += result.count(k);
+                        fileKeywords.put(output.names.get(i), result.counts());
+                    }
+                }
+                for (IOException e : output.errors) {
+                    if (error == null)
+                        error = e;
+                    else
+                        error.addSuppressed(e);
+                }
+            }
+            if (error != null)
+                throw error;
+            Map<String, Long> mergedKeywords = new LinkedHashMap<>();
+            if (keywordCounts != null) {
+                for (int k = 0; k < keywordCounts.length; k++)
+                    mergedKeywords.put(keywords.keyword(k), keywordCounts[k]);
+            }
+            return new Result(fileStats, merged.toStats(), fileKeywords, mergedKeywords);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 处理一批文件，计数器、解码器和读缓冲区在批内复用
+     */
+    private final class Worker implements FileScanner.CharHandler {
+
+        private final TextCounter counter = analyzer.newCounter();
+        private final FileScanner.Decoder decoder = new FileScanner.Decoder(analyzer.getCharset(), this);
+        private KeywordMatcher.Session session;
+
+        @Override
+        public boolean handle(CharBuffer buffer) {
+            counter.handle(buffer);
+            if (session != null) {
+                int offset = buffer.arrayOffset();
+                session.feed(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+            }
+            return true;
+        }
+
+        BatchOutput process(List<Entry> batch) {
+            BatchOutput output = new BatchOutput(analyzer.newCounter());
+            ByteBuffer buffer = null;
+            for (Entry file : batch) {
+                counter.reset();
+                decoder.reset();
+                session = keywords == null ? null : keywords.newSession();
+                try (FileChannel channel = FileChannel.open(file.path, StandardOpenOption.READ)) {
+                    if (channel.size() > MAPPED_SIZE) {
+                        FileScanner.scan(channel, decoder);
+                    } else {
+                        if (buffer == null)
+                            buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+                        buffer.clear();
+                        while (channel.read(buffer) > 0) {
+                            buffer.flip();
+                            decoder.handle(buffer);
+                            buffer.clear();
+                        }
+                    }
+                    decoder.finish();
+                } catch (IOException e) {
+                    output.errors.add(new IOException(file.name + ": " + e.getMessage(), e));
+                    continue;
+                }
+                counter.finish();
+                output.total.merge(counter);
+                output.names.add(file.name);
+                output.stats.add(counter.toStats());
+                if (session != null)
+                    output.keywords.add(session.result());
+            }
+            return output;
+        }
+    }
+
+    private static final class Entry {
+
+        final String name;
+        final Path path;
+        final long size;
+
+        Entry(String name, Path path, long size) {
+            this.name = name;
+            this.path = path;
+            this.size = size;
+        }
+    }
+
+    private static final class BatchOutput {
+
+        final TextCounter total;
+        final List<String> names = new ArrayList<>();
+        final List<TextStats> stats = new ArrayList<>();
+        final List<KeywordMatcher.Result> keywords = new ArrayList<>();
+        final List<IOException> errors = new ArrayList<>();
+
+        BatchOutput(TextCounter total) {
+            this.total = total;
+        }
+    }
+
+    /**
+     * 批量分析结果，文件按相对路径排序
+     */
+    public static final class Result {
+
+        private final Map<String, TextStats> fileStats;
+        private final TextStats merged;
+        private final Map<String, Map<String, Long>> fileKeywords;
+        private final Map<String, Long> mergedKeywords;
+
+        private Result(Map<String, TextStats> fileStats, TextStats merged,
+                       Map<String, Map<String, Long>> fileKeywords, Map<String, Long> mergedKeywords) {
+            this.fileStats = Collections.unmodifiableMap(fileStats);
+            this.merged = merged;
+            this.fileKeywords = Collections.unmodifiableMap(fileKeywords);
+            this.mergedKeywords = Collections.unmodifiableMap(mergedKeywords);
+        }
+
+        /**
+         * @return 分析的文件数量
+         */
+        public int getFileCount() {
+            return fileStats.size();
+        }
+
+        /**
+         * @return 相对路径及每个文件的统计结果
+         */
+        public Map<String, TextStats> getFileStats() {
+            return fileStats;
+        }
+
+        /**
+         * @return 所有文件合并后的统计结果
+         */
+        public TextStats getMerged() {
+            return merged;
+        }
+
+        /**
+         * @return 相对路径及每个文件中各关键词的出现次数，没有关键词时为空
+         */
+        public Map<String, Map<String, Long>> getFileKeywordCounts() {
+            return fileKeywords;
+        }
+
+        /**
+         * @return 各关键词在所有文件中的出现次数，没有关键词时为空
+         */
+        public Map<String, Long> getKeywordCounts() {
+            return mergedKeywords;
+        }
+
+        @Override
+        public String toString() {
+            return "BatchAnalyzer.Result{files=" + fileStats.size() + ", merged=" + merged + '}';
+        }
+    }
+}
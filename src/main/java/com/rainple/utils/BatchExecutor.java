@@ -0,0 +1,233 @@
+package com.rainple.utils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * @description: 分批并行执行器，对每个分区执行同一个函数，结果按分区顺序返回。同时执行的分区数量有上限，
+ * 前面的分区完成后才提交后面的分区，分区视图也在提交时才创建，不会一次性占用所有分区的内存。
+ * 出错时可以立即停止（FAIL_FAST），也可以执行完所有分区后汇总错误（COLLECT_ERRORS）。
+ * 没有指定线程池时，JDK 21 及以上使用虚拟线程，否则使用固定大小的线程池，执行结束后关闭
+ * @author: rainple
+ * @create: 2026-10-18 11:00
+ **/
+public class BatchExecutor {
+
+    /**
+     * 出错时的处理方式
+     */
+    public enum ErrorMode {
+        /**
+         * 第一个分区出错后不再提交新的分区，取消正在执行的分区并抛出异常
+         */
+        FAIL_FAST,
+        /**
+         * 执行完所有分区，最后抛出包含所有错误和成功结果的异常
+         */
+        COLLECT_ERRORS
+    }
+
+    /**
+     * 处理一个分区的函数
+     * @param <T> 元素类型
+     * @param <R> 结果类型
+     */
+    public interface BatchFunction<T, R> {
+        /**
+         * @param batch 分区
+         * @return 结果
+         * @throws Exception 异常
+         */
+        R apply(List<T> batch) throws Exception;
+    }
+
+    private final int maxConcurrency;
+    private final ExecutorService executor;
+    private final ErrorMode errorMode;
+
+    /**
+     * 使用虚拟线程或内部线程池，出错时立即停止
+     * @param maxConcurrency 同时执行的分区数量上限
+     */
+    public BatchExecutor(int maxConcurrency) {
+        this(maxConcurrency, null, ErrorMode.FAIL_FAST);
+    }
+
+    /**
+     * @param maxConcurrency 同时执行的分区数量上限
+     * @param executor 执行分区的线程池，由调用者负责关闭，为null时使用虚拟线程或内部线程池
+     * @param errorMode 出错时的处理方式
+     */
+    public BatchExecutor(int maxConcurrency, ExecutorService executor, ErrorMode errorMode) {
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("max concurrency must be positive: " + maxConcurrency);
+        if (errorMode == null)
+            throw new IllegalArgumentException("error mode is null");
+        this.maxConcurrency = maxConcurrency;
+        this.executor = executor;
+        this.errorMode = errorMode;
+    }
+
+    /**
+     * 把集合按固定大小分区后执行
+     * @param items 元素
+     * @param batchSize 每个分区的元素数量
+     * @param function 处理分区的函数
+     * @return 各分区的结果，与分区顺序相同
+     * @throws BatchException 有分区执行失败
+     * @throws InterruptedException 等待时被中断，已提交的分区会被取消
+     */
+    public <T, R> List<R> execute(List<T> items, int batchSize, BatchFunction<T, R> function)
+            throws BatchException, InterruptedException {
+        return execute(ListUtils.partition(items, batchSize), function);
+    }
+
+    /**
+     * 对每个分区执行函数
+     * @param batches 分区，通常是 ListUtils.partition 返回的视图
+     * @param function 处理分区的函数
+     * @return 各分区的结果，与分区顺序相同
+     * @throws BatchException 有分区执行失败
+     * @throws InterruptedException 等待时被中断，已提交的分区会被取消
+     */
+    public <T, R> List<R> execute(List<List<T>> batches, final BatchFunction<T, R> function)
+            throws BatchException, InterruptedException {
+        final int total = batches.size();
+        final Object[] results = new Object[total];
+        final Throwable[] errors = new Throwable[total];
+        //分区完成后把下标放入队列，调用线程据此提交下一个分区
+        final BlockingQueue<Integer> done = new LinkedBlockingQueue<>();
+        List<Future<?>> futures = new ArrayList<>(Math.min(total, 1024));
+        ExecutorService service = executor == null ? newExecutor(maxConcurrency) : executor;
+        boolean finished = false;
+        try {
+            int submitted = 0;
+            int completed = 0;
+            int failures = 0;
+            while (completed < total) {
+                while (submitted < total && submitted - completed < maxConcurrency) {
+                    final int index = submitted;
+                    final List<T> batch = batches.get(index);
+                    futures.add(service.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                results[index] = function.apply(batch);
+                            } catch (Throwable e) {
+                                errors[index] = e;
+                            } finally {
+                                done.add(index);
+                            }
+                        }
+                    }));
+                    submitted++;
+                }
+                int index = done.take();
+                completed++;
+                if (errors[index] != null) {
+                    failures++;
+                    if (errorMode == ErrorMode.FAIL_FAST)
+                        throw new BatchException("batch " + index + " of " + total + " failed",
+                                errors[index], resultList(results), errorMap(errors));
+                }
+            }
+            finished = true;
+            if (failures > 0)
+                throw new BatchException(failures + " of " + total + " batches failed",
+                        errors[firstError(errors)], resultList(results), errorMap(errors));
+            return resultList(results);
+        } finally {
+            if (!finished) {
+                for (Future<?> future : futures)
+                    future.cancel(true);
+            }
+            if (service != executor)
+                service.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> List<R> resultList(Object[] results) {
+        return Collections.unmodifiableList(Arrays.asList((R[]) results.clone()));
+    }
+
+    private static Map<Integer, Throwable> errorMap(Throwable[] errors) {
+        Map<Integer, Throwable> map = new LinkedHashMap<>();
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null)
+                map.put(i, errors[i]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static int firstError(Throwable[] errors) {
+        int i = 0;
+        while (errors[i] == null)
+            i++;
+        return i;
+    }
+
+    /**
+     * JDK 21 及以上使用虚拟线程，否则使用固定大小的线程池
+     * @param threads 不支持虚拟线程时的线程数
+     */
+    static ExecutorService newExecutor(int threads) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BatchExecutor{maxConcurrency=" + maxConcurrency + ", errorMode=" + errorMode
+                + ", executor=" + (executor == null ? "default" : executor) + '}';
+    }
+
+    /**
+     * 分区执行失败，cause 为最先出错（FAIL_FAST）或下标最小（COLLECT_ERRORS）的分区的异常
+     */
+    public static class BatchException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<?> results;
+        private final transient Map<Integer, Throwable> errors;
+
+        BatchException(String message, Throwable cause, List<?> results, Map<Integer, Throwable> errors) {
+            super(message, cause);
+            this.results = results;
+            this.errors = errors;
+            for (Throwable error : errors.values()) {
+                if (error != cause)
+                    addSuppressed(error);
+            }
+        }
+
+        /**
+         * @return 各分区的结果，失败或没有执行的分区为null
+         */
+        public List<?> getResults() {
+            return results;
+        }
+
+        /**
+         * @return 失败的分区下标及异常，按下标排列
+         */
+        public Map<Integer, Throwable> getErrors() {
+            return errors;
+        }
+    }
+}
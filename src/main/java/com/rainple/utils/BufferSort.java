@@ -0,0 +1,135 @@
+package com.rainple.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @description: 直接缓冲区中 long 和 double 元素的原地排序，用于堆外存储的列表，不需要把数据复制到堆中。
+ * 使用三数取中的快速排序，递归过深时改用堆排序，保证 O(n log n)
+ * @author: rainple
+ * @create: 2026-10-18 11:05
+ **/
+final class BufferSort {
+
+    private static final int INSERTION_THRESHOLD = 32;
+
+    private BufferSort() {
+    }
+
+    /**
+     * 升序排列 [from, to) 范围的 long 元素
+     */
+    static void sortLongs(ByteBuffer buffer, int from, int to) {
+        if (to - from < 2)
+            return;
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+        introSort(buffer, from, to - 1, depth);
+    }
+
+    /**
+     * 升序排列 [from, to) 范围的 double 元素，顺序与 Arrays.sort(double[]) 相同，NaN 统一为 Double.NaN 排在最后
+     */
+    static void sortDoubles(ByteBuffer buffer, int from, int to) {
+        //转换成按 long 比较与 Double.compare 一致的位模式，排序后再转换回来
+        for (int i = from; i < to; i++) {
+            long bits = Double.doubleToLongBits(buffer.getDouble(i << 3));
+            buffer.putLong(i << 3, bits ^ ((bits >> 63) & Long.MAX_VALUE));
+        }
+        sortLongs(buffer, from, to);
+        for (int i = from; i < to; i++) {
+            long bits = buffer.getLong(i << 3);
+            buffer.putLong(i << 3, bits ^ ((bits >> 63) & Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * 反转 [from, to) 范围的8字节元素
+     */
+    static void reverse(ByteBuffer buffer, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            swap(buffer, i, j);
+    }
+
+    private static void introSort(ByteBuffer buffer, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(buffer, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (get(buffer, mid) < get(buffer, lo))
+                swap(buffer, lo, mid);
+            if (get(buffer, hi) < get(buffer, lo))
+                swap(buffer, lo, hi);
+            if (get(buffer, hi) < get(buffer, mid))
+                swap(buffer, mid, hi);
+            long pivot = get(buffer, mid);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (get(buffer, i) < pivot)
+                    i++;
+                while (get(buffer, j) > pivot)
+                    j--;
+                if (i <= j)
+                    swap(buffer, i++, j--);
+            }
+            //递归处理较短的一侧，栈深度不超过 log n
+            if (j - lo < hi - i) {
+                introSort(buffer, lo, j, depth);
+                lo = i;
+            } else {
+                introSort(buffer, i, hi, depth);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            long value = get(buffer, i);
+            int j = i - 1;
+            while (j >= lo && get(buffer, j) > value) {
+                put(buffer, j + 1, get(buffer, j));
+                j--;
+            }
+            put(buffer, j + 1, value);
+        }
+    }
+
+    private static void heapSort(ByteBuffer buffer, int lo, int hi) {
+        int n = hi - lo + 1;
+        for (int i = n / 2 - 1; i >= 0; i--)
+            siftDown(buffer, lo, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(buffer, lo, lo + end);
+            siftDown(buffer, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(ByteBuffer buffer, int lo, int i, int n) {
+        long value = get(buffer, lo + i);
+        for (;;) {
+            int child = 2 * i + 1;
+            if (child >= n)
+                break;
+            if (child + 1 < n && get(buffer, lo + child + 1) > get(buffer, lo + child))
+                child++;
+            if (get(buffer, lo + child) <= value)
+                break;
+            put(buffer, lo + i, get(buffer, lo + child));
+            i = child;
+        }
+        put(buffer, lo + i, value);
+    }
+
+    private static long get(ByteBuffer buffer, int index) {
+        return buffer.getLong(index << 3);
+    }
+
+    private static void put(ByteBuffer buffer, int index, long value) {
+        buffer.putLong(index << 3, value);
+    }
+
+    private static void swap(ByteBuffer buffer, int i, int j) {
+        long value = get(buffer, i);
+        put(buffer, i, get(buffer, j));
+        put(buffer, j, value);
+    }
+}
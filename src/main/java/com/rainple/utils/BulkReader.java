@@ -0,0 +1,321 @@
+package com.rainple.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @description: 整个文件一次读入。按 FileChannel.size() 分配结果，不逐块扩容；不超过直接缓冲区大小的文件
+ * 通过当前线程复用的直接缓冲区和字节数组读取，达到 FileScanner 映射阈值的文件映射后一次复制或直接解码。
+ * 结果可以是字节数组、String、只读的 CharBuffer 或只读的映射缓冲区
+ * @author: rainple
+ * @create: 2026-10-18 11:21
+ **/
+public final class BulkReader {
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 当前线程复用的字节数组，只用于不超过直接缓冲区大小的文件
+     */
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<>();
+
+    private BulkReader() {
+    }
+
+    public static byte[] readBytes(File file) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            return readBytes(inputStream.getChannel());
+        }
+    }
+
+    /**
+     * 从通道当前位置读到文件末尾，读取结束后通道位置移动到已读取的末尾
+     * @param channel 文件通道
+     * @return 文件内容
+     * @throws IOException 异常，文件超过2G时也会抛出
+     */
+    public static byte[] readBytes(FileChannel channel) throws IOException {
+        long position = channel.position();
+        int size = remaining(channel, position);
+        if (size == 0)
+            return readUnsized(channel);
+        byte[] bytes = new byte[size];
+        ByteBuffer mapped = size > FileScanner.getBufferSize() ? map(channel, position, size) : null;
+        int n;
+        if (mapped != null) {
+            mapped.get(bytes);
+            n = size;
+        } else {
+            n = read(channel, position, bytes, size);
+        }
+        channel.position(position + n);
+        return n == size ? bytes : Arrays.copyOf(bytes, n);
+    }
+
+    public static String readString(File file, Charset charset) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            return readString(inputStream.getChannel(), charset);
+        }
+    }
+
+    /**
+     * 从通道当前位置读到文件末尾并一次解码，非法字节按 FileScanner 的处理方式处理
+     * @param channel 文件通道
+     * @param charset 字符集
+     * @return 文件内容
+     * @throws IOException 异常
+     */
+    public static String readString(FileChannel channel, Charset charset) throws IOException {
+        long position = channel.position();
+        int size = remaining(channel, position);
+        if (size == 0 || size > FileScanner.getBufferSize()) {
+            byte[] bytes = readBytes(channel);
+            return toString(bytes, bytes.length, charset);
+        }
+        byte[] scratch = scratch(size);
+        int n = read(channel, position, scratch, size);
+        channel.position(position + n);
+        return toString(scratch, n, charset);
+    }
+
+    public static CharBuffer readChars(File file, Charset charset) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            return readChars(inputStream.getChannel(), charset);
+        }
+    }
+
+    /**
+     * 从通道当前位置读到文件末尾并解码到只读的 CharBuffer，大文件直接从映射窗口解码，不复制字节
+     * @param channel 文件通道
+     * @param charset 字符集
+     * @return 文件内容，数据范围为 position 到 limit
+     * @throws IOException 异常
+     */
+    public static CharBuffer readChars(FileChannel channel, Charset charset) throws IOException {
+        long position = channel.position();
+        int size = remaining(channel, position);
+        ByteBuffer bytes = null;
+        if (size > FileScanner.getBufferSize()) {
+            bytes = map(channel, position, size);
+            if (bytes != null)
+                channel.position(position + size);
+        }
+        if (bytes == null) {
+            if (size == 0 || size > FileScanner.getBufferSize()) {
+                bytes = ByteBuffer.wrap(readBytes(channel));
+            } else {
+                byte[] scratch = scratch(size);
+                int n = read(channel, position, scratch, size);
+                channel.position(position + n);
+                bytes = ByteBuffer.wrap(scratch, 0, n);
+            }
+        }
+        return decode(bytes, charset).asReadOnlyBuffer();
+    }
+
+    /**
+     * 只读映射整个文件，映射在文件关闭后仍然有效，不受 FileScanner.setMappingEnabled 影响
+     * @param file 文件
+     * @return 映射缓冲区
+     * @throws IOException 异常，文件超过2G时也会抛出
+     */
+    public static ByteBuffer map(File file) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            FileChannel channel = inputStream.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("file too large to map: " + size + " bytes");
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * 并行读取多个文件，适合大量小文件，每个线程复用自己的直接缓冲区、字节数组和解码器
+     * @param paths 文件路径
+     * @param charset 字符集
+     * @param parallelism 同时读取的文件数量
+     * @return 文件路径及内容，与 paths 的顺序相同
+     * @throws IOException 任意文件读取失败时抛出第一个异常，其余异常附加为 suppressed；
+     * 读取时抛出的 RuntimeException 原样抛出
+     */
+    public static Map<String, String> readAll(Collection<String> paths, final Charset charset, int parallelism) throws IOException {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, paths.size())));
+        List<Future<String>> futures = new ArrayList<>(paths.size());
+        try {
+            for (final String path : paths) {
+                futures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws IOException {
+                        return readString(new File(path), charset);
+                    }
+                }));
+            }
+            Map<String, String> contents = new LinkedHashMap<>();
+            IOException error = null;
+            int i = 0;
+            for (String path : paths) {
+                try {
+                    contents.put(path, futures.get(i++).get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException)
+                        throw (RuntimeException) e.getCause();
+                    IOException cause = e.getCause() instanceof IOException
+                            ? (IOException) e.getCause() : new IOException(e.getCause());
+                    if (error == null)
+                        error = cause;
+                    else
+                        error.addSuppressed(cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while reading files", e);
+                }
+            }
+            if (error != null)
+                throw error;
+            return contents;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 一次解码，输出缓冲区按最大字符数分配，实际字符数不到一半时复制到合适大小的数组
+     */
+    static CharBuffer decode(ByteBuffer in, Charset charset) throws IOException {
+        CharsetDecoder decoder = FileScanner.acquireDecoder(charset);
+        try {
+            long capacity = (long) Math.ceil(in.remaining() * (double) decoder.maxCharsPerByte());
+            CharBuffer out = CharBuffer.allocate((int) Math.min(MAX_ARRAY_SIZE, capacity + 1));
+            boolean flushing = false;
+            for (;;) {
+                CoderResult result = flushing ? decoder.flush(out) : decoder.decode(in, out, true);
+                if (result.isOverflow()) {
+                    if (out.capacity() == MAX_ARRAY_SIZE)
+                        throw new IOException("decoded text too large");
+                    CharBuffer grown = CharBuffer.allocate((int) Math.min(MAX_ARRAY_SIZE, out.capacity() * 2L));
+                    out.flip();
+                    out = grown.put(out);
+                    continue;
+                }
+                if (result.isError())
+                    result.throwException();
+                if (flushing)
+                    break;
+                flushing = true;
+            }
+            out.flip();
+            if (out.limit() < out.capacity() / 2)
+                out = CharBuffer.wrap(Arrays.copyOf(out.array(), out.limit()));
+            return out;
+        } finally {
+            FileScanner.releaseDecoder(decoder);
+        }
+    }
+
+    private static String toString(byte[] bytes, int length, Charset charset) throws IOException {
+        //替换非法字节时 String 的构造方法结果相同，且对纯 ASCII 内容更快
+        if (FileScanner.getMalformedInputAction() == CodingErrorAction.REPLACE)
+            return new String(bytes, 0, length, charset);
+        return decode(ByteBuffer.wrap(bytes, 0, length), charset).toString();
+    }
+
+    private static int remaining(FileChannel channel, long position) throws IOException {
+        long size = Math.max(0, channel.size() - position);
+        if (size > MAX_ARRAY_SIZE)
+            throw new IOException("file too large to read at once: " + size + " bytes");
+        return (int) size;
+    }
+
+    private static byte[] scratch(int size) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch == null || scratch.length < size) {
+            scratch = new byte[Math.max(size, 8192)];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    /**
+     * 映射文件区间，映射被关闭、小于映射阈值或失败时返回null
+     */
+    private static ByteBuffer map(FileChannel channel, long position, int size) {
+        if (!FileScanner.shouldMap(size))
+            return null;
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 通过当前线程的直接缓冲区读取，文件变短时返回实际读到的字节数
+     */
+    private static int read(FileChannel channel, long position, byte[] target, int size) throws IOException {
+        ByteBuffer buffer = FileScanner.acquireBuffer();
+        try {
+            int offset = 0;
+            while (offset < size) {
+                buffer.clear();
+                buffer.limit(Math.min(buffer.capacity(), size - offset));
+                int n = channel.read(buffer, position + offset);
+                if (n < 0)
+                    break;
+                buffer.flip();
+                buffer.get(target, offset, n);
+                offset += n;
+            }
+            return offset;
+        } finally {
+            FileScanner.releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * 读取不报告大小的文件（如管道和 /proc 下的文件），按读到的数据扩容
+     */
+    private static byte[] readUnsized(FileChannel channel) throws IOException {
+        byte[] bytes = new byte[0];
+        int size = 0;
+        ByteBuffer buffer = FileScanner.acquireBuffer();
+        try {
+            for (;;) {
+                buffer.clear();
+                int n = channel.read(buffer);
+                if (n < 0)
+                    break;
+                if (size + (long) n > MAX_ARRAY_SIZE)
+                    throw new IOException("file too large to read at once");
+                if (size + n > bytes.length)
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(MAX_ARRAY_SIZE, Math.max(size + n, bytes.length * 2L)));
+                buffer.flip();
+                buffer.get(bytes, size, n);
+                size += n;
+            }
+        } finally {
+            FileScanner.releaseBuffer(buffer);
+        }
+        return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+    }
+}
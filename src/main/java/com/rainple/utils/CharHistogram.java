@@ -0,0 +1,203 @@
+package com.rainple.utils;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 字符出现次数直方图，以char为下标的long数组计数，排除字符用位图判断，统计过程中不产生任何对象。
+ * 计数单位与 Map&lt;Character,Long&gt; 一致，为UTF-16字符，增补字符按两个代理字符分别计数。
+ * 出现过的字符较少时记录在列表中，合并、清空和输出结果只访问这些字符，不遍历整个数组
+ * @author: rainple
+ * @create: 2026-10-18 10:28
+ **/
+public final class CharHistogram {
+
+    private static final int SIZE = Character.MAX_VALUE + 1;
+
+    private final long[] counts = new long[SIZE];
+    private final long[] excluded = new long[SIZE >>> 6];
+    /**
+     * 出现过的字符，超过容量后 touchedCount 为 -1，改为遍历整个数组
+     */
+    private final char[] touched = new char[1024];
+    private int touchedCount;
+
+    /**
+     * @param excludedChars 不参与统计的字符
+     */
+    public CharHistogram(char... excludedChars) {
+        if (excludedChars != null) {
+            for (char c : excludedChars)
+                excluded[c >>> 6] |= 1L << c;
+        }
+    }
+
+    /**
+     * 统计一个字符
+     * @param c 字符
+     */
+    public void add(char c) {
+        if ((excluded[c >>> 6] & (1L << c)) == 0 && counts[c]++ == 0)
+            touch(c);
+    }
+
+    /**
+     * 统计字符数组中的一段
+     * @param chars 字符数组
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     */
+    public void add(char[] chars, int from, int to) {
+        long[] counts = this.counts;
+        long[] excluded = this.excluded;
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            if ((excluded[c >>> 6] & (1L << c)) == 0 && counts[c]++ == 0)
+                touch(c);
+        }
+    }
+
+    /**
+     * 合并另一个直方图的计数
+     * @param other 直方图
+     */
+    public void merge(CharHistogram other) {
+        for (char c : other.present()) {
+            if (counts[c] == 0)
+                touch(c);
+            counts[c] += other.counts[c];
+        }
+    }
+
+    /**
+     * 清空所有计数，排除的字符不变
+     */
+    public void clear() {
+        if (touchedCount < 0) {
+            Arrays.fill(counts, 0);
+        } else {
+            for (int i = 0; i < touchedCount; i++)
+                counts[touched[i]] = 0;
+        }
+        touchedCount = 0;
+    }
+
+    /**
+     * 字符出现的次数
+     * @param c 字符
+     * @return 次数
+     */
+    public long count(char c) {
+        return counts[c];
+    }
+
+    /**
+     * @return 出现过的不同字符数量
+     */
+    public int distinct() {
+        if (touchedCount >= 0)
+            return touchedCount;
+        int n = 0;
+        for (long count : counts) {
+            if (count > 0)
+                n++;
+        }
+        return n;
+    }
+
+    /**
+     * 出现最多的字符，次数相同时取编码最小的字符，不排序
+     * @return 字符及次数，没有字符时返回null
+     */
+    public Map.Entry<Character, Long> max() {
+        int found = -1;
+        for (char c : present()) {
+            if (found < 0 || counts[c] > counts[found])
+                found = c;
+        }
+        return entry(found);
+    }
+
+    /**
+     * 出现最少的字符，次数相同时取编码最小的字符，不排序
+     * @return 字符及次数，没有字符时返回null
+     */
+    public Map.Entry<Character, Long> min() {
+        int found = -1;
+        for (char c : present()) {
+            if (found < 0 || counts[c] < counts[found])
+                found = c;
+        }
+        return entry(found);
+    }
+
+    /**
+     * 转换为按出现次数排序的结果集，次数相同的按字符编码升序
+     * @param sort 排序 FileUtils.ASC | FileUtils.DESC
+     * @return 结果集
+     */
+    public List<Map.Entry<Character, Long>> toSortedList(final String sort) {
+        char[] present = present();
+        List<Map.Entry<Character, Long>> list = new ArrayList<>(present.length);
+        for (char c : present)
+            list.add(new AbstractMap.SimpleImmutableEntry<>(c, counts[c]));
+        Collections.sort(list, new Comparator<Map.Entry<Character, Long>>() {
+            @Override
+            public int compare(Map.Entry<Character, Long> o1, Map.Entry<Character, Long> o2) {
+                if (FileUtils.ASC.equals(sort))
+                    return o1.getValue().compareTo(o2.getValue());
+                else
+                    return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * @return 出现过的字符及次数
+     */
+    public Map<Character, Long> toMap() {
+        char[] present = present();
+        Map<Character, Long> map = new HashMap<>(present.length * 2);
+        for (char c : present)
+            map.put(c, counts[c]);
+        return map;
+    }
+
+    private void touch(char c) {
+        if (touchedCount < 0)
+            return;
+        if (touchedCount < touched.length)
+            touched[touchedCount++] = c;
+        else
+            touchedCount = -1;
+    }
+
+    /**
+     * @return 出现过的字符，按编码升序
+     */
+    private char[] present() {
+        if (touchedCount >= 0) {
+            char[] present = Arrays.copyOf(touched, touchedCount);
+            Arrays.sort(present);
+            return present;
+        }
+        char[] present = new char[distinct()];
+        int n = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (counts[i] > 0)
+                present[n++] = (char) i;
+        }
+        return present;
+    }
+
+    private Map.Entry<Character, Long> entry(int c) {
+        return c < 0 ? null : new AbstractMap.SimpleImmutableEntry<>((char) c, counts[c]);
+    }
+}
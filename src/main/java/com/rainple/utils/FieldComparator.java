@@ -0,0 +1,432 @@
+package com.rainple.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @description: 按对象字段排序的比较器。字段在每个类上只解析一次，缓存为 MethodHandle，比较时不再反射查找，
+ * 基本类型字段直接按基本类型比较，不装箱。支持多个排序键，如 "dept ASC, salary DESC NULLS FIRST"，
+ * 前一个键相等时再比较下一个键。字段可以声明在父类中，可排序的字段类型为基本类型及实现了 Comparable 的类型。
+ * 元素或字段值为 null 时默认排在最后，不受排序方向影响。线程安全
+ * @author: rainple
+ * @create: 2026-10-18 10:52
+ **/
+public final class FieldComparator implements Comparator<Object> {
+
+    private static final ClassValue<ConcurrentMap<String, Accessor>> ACCESSORS = new ClassValue<ConcurrentMap<String, Accessor>>() {
+        @Override
+        protected ConcurrentMap<String, Accessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(4);
+        }
+    };
+
+    final SortKey[] keys;
+
+    private FieldComparator(SortKey[] keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * 解析排序表达式，多个键用逗号分隔，每个键为 字段名 [ASC|DESC] [NULLS FIRST|NULLS LAST]，
+     * 与SQL相同，不写方向时为升序，不写 NULLS 时 null 排在最后
+     * @param orderBy 排序表达式，如 "dept ASC, salary DESC"
+     * @return 比较器
+     */
+    public static FieldComparator parse(String orderBy) {
+        if (orderBy == null || orderBy.trim().isEmpty())
+            throw new IllegalArgumentException("order by is empty");
+        List<SortKey> keys = new ArrayList<>();
+        for (String part : orderBy.split(",")) {
+            String[] tokens = part.trim().split("\\s+");
+            if (tokens[0].isEmpty())
+                throw new IllegalArgumentException("missing field in order by: " + orderBy);
+            boolean descending = false;
+            boolean nullsFirst = false;
+            int i = 1;
+            if (i < tokens.length && ("ASC".equalsIgnoreCase(tokens[i]) || "DESC".equalsIgnoreCase(tokens[i])))
+                descending = "DESC".equalsIgnoreCase(tokens[i++]);
+            if (i + 1 < tokens.length && "NULLS".equalsIgnoreCase(tokens[i])
+                    && ("FIRST".equalsIgnoreCase(tokens[i + 1]) || "LAST".equalsIgnoreCase(tokens[i + 1]))) {
+                nullsFirst = "FIRST".equalsIgnoreCase(tokens[i + 1]);
+                i += 2;
+            }
+            if (i != tokens.length)
+                throw new IllegalArgumentException("illegal order by: " + part.trim());
+            keys.add(new SortKey(tokens[0], descending, nullsFirst));
+        }
+        return new FieldComparator(keys.toArray(new SortKey[0]));
+    }
+
+    /**
+     * 按单个字段排序，null 排在最后
+     * @param field 字段名
+     * @param descending 是否降序
+     * @return 比较器
+     */
+    public static FieldComparator of(String field, boolean descending) {
+        if (field == null || field.isEmpty())
+            throw new IllegalArgumentException("field is empty");
+        return new FieldComparator(new SortKey[]{new SortKey(field, descending, false)});
+    }
+
+    /**
+     * @throws IllegalArgumentException 元素的类中没有该字段或字段不可排序
+     */
+    @Override
+    public int compare(Object o1, Object o2) {
+        for (SortKey key : keys) {
+            int ret = key.compare(o1, o2);
+            if (ret != 0)
+                return ret;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("FieldComparator{");
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0)
+                builder.append(", ");
+            builder.append(keys[i]);
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * 获取类中字段的访问器，第一次访问时解析并缓存
+     */
+    static Accessor accessor(Class<?> type, String field) {
+        ConcurrentMap<String, Accessor> accessors = ACCESSORS.get(type);
+        Accessor accessor = accessors.get(field);
+        if (accessor == null) {
+            accessor = Accessor.create(type, field);
+            Accessor existing = accessors.putIfAbsent(field, accessor);
+            if (existing != null)
+                accessor = existing;
+        }
+        return accessor;
+    }
+
+    /**
+     * 一个排序键，记住上一次访问的类，同一个集合中的元素通常是同一个类
+     */
+    static final class SortKey {
+
+        final String field;
+        final boolean descending;
+        final boolean nullsFirst;
+        private volatile Accessor last;
+
+        SortKey(String field, boolean descending, boolean nullsFirst) {
+            this.field = field;
+            this.descending = descending;
+            this.nullsFirst = nullsFirst;
+        }
+
+        int compare(Object o1, Object o2) {
+            if (o1 == null || o2 == null)
+                return nulls(o1 == null, o2 == null);
+            Accessor a1 = accessor(o1.getClass());
+            Accessor a2 = o2.getClass() == a1.type ? a1 : accessor(o2.getClass());
+            int ret;
+            if (a1 == a2 && a1 instanceof PrimitiveAccessor) {
+                ret = ((PrimitiveAccessor) a1).compare(o1, o2);
+            } else {
+                Object v1 = a1.get(o1);
+                Object v2 = a2.get(o2);
+                if (v1 == null || v2 == null)
+                    return nulls(v1 == null, v2 == null);
+                ret = compareValues(v1, v2);
+            }
+            return descending ? Integer.compare(0, ret) : ret;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        static int compareValues(Object v1, Object v2) {
+            return ((Comparable) v1).compareTo(v2);
+        }
+
+        int nulls(boolean null1, boolean null2) {
+            if (null1 == null2)
+                return 0;
+            return null1 == nullsFirst ? -1 : 1;
+        }
+
+        Accessor accessor(Class<?> type) {
+            Accessor accessor = last;
+            if (accessor == null || accessor.type != type) {
+                accessor = FieldComparator.accessor(type, field);
+                last = accessor;
+            }
+            return accessor;
+        }
+
+        @Override
+        public String toString() {
+            return field + (descending ? " DESC" : " ASC") + (nullsFirst ? " NULLS FIRST" : " NULLS LAST");
+        }
+    }
+
+    /**
+     * 字段访问器，基本类型字段的访问器为 PrimitiveAccessor，按各自的 compare 比较，引用类型按 Comparable 比较
+     */
+    abstract static class Accessor {
+
+        final Class<?> type;
+        final Class<?> fieldType;
+        /**
+         * (Object)Object，基本类型会被装箱
+         */
+        final MethodHandle boxed;
+
+        Accessor(Class<?> type, MethodHandle getter) {
+            this.type = type;
+            this.fieldType = getter.type().returnType();
+            this.boxed = getter.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        static Accessor create(Class<?> type, String name) {
+            Field field = find(type, name);
+            Class<?> fieldType = field.getType();
+            if (!fieldType.isPrimitive() && !Comparable.class.isAssignableFrom(fieldType))
+                throw new IllegalArgumentException("field is not comparable: " + type.getName() + "." + name);
+            MethodHandle getter;
+            try {
+                field.setAccessible(true);
+                getter = MethodHandles.lookup().unreflectGetter(field);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException("field is not accessible: " + type.getName() + "." + name, e);
+            }
+            if (fieldType == int.class || fieldType == short.class || fieldType == byte.class || fieldType == char.class)
+                return new IntAccessor(type, getter);
+            if (fieldType == long.class)
+                return new LongAccessor(type, getter);
+            if (fieldType == double.class)
+                return new DoubleAccessor(type, getter);
+            if (fieldType == float.class)
+                return new FloatAccessor(type, getter);
+            if (fieldType == boolean.class)
+                return new BooleanAccessor(type, getter);
+            return new ObjectAccessor(type, getter);
+        }
+
+        /**
+         * 在类及其父类中查找实例字段
+         */
+        private static Field find(Class<?> type, String name) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                try {
+                    Field field = c.getDeclaredField(name);
+                    if (!Modifier.isStatic(field.getModifiers()))
+                        return field;
+                } catch (NoSuchFieldException e) {
+                    //继续在父类中查找
+                }
+            }
+            throw new IllegalArgumentException("no such field: " + type.getName() + "." + name);
+        }
+
+        Object get(Object o) {
+            try {
+                return boxed.invokeExact(o);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        static long bits(double value) {
+            long bits = Double.doubleToLongBits(value);
+            //负数除符号位外取反，-0.0 排在 0.0 前面，NaN 排在最后，与 Double.compare 相同
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+
+        static long bits(float value) {
+            int bits = Float.floatToIntBits(value);
+            return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+        }
+
+        static RuntimeException rethrow(Throwable e) {
+            if (e instanceof RuntimeException)
+                throw (RuntimeException) e;
+            if (e instanceof Error)
+                throw (Error) e;
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 基本类型字段的访问器，不装箱
+     */
+    abstract static class PrimitiveAccessor extends Accessor {
+
+        PrimitiveAccessor(Class<?> type, MethodHandle getter) {
+            super(type, getter);
+        }
+
+        /**
+         * 比较同一个类的两个对象的基本类型字段
+         */
+        abstract int compare(Object o1, Object o2);
+
+        /**
+         * 把基本类型字段转换成 long，按 long 比较的顺序与字段的 compare 一致
+         */
+        abstract long bits(Object o);
+    }
+
+    private static final class IntAccessor extends PrimitiveAccessor {
+
+        private final MethodHandle getter;
+
+        IntAccessor(Class<?> type, MethodHandle getter) {
+            super(type, getter);
+            this.getter = getter.asType(MethodType.methodType(int.class, Object.class));
+        }
+
+        @Override
+        int compare(Object o1, Object o2) {
+            try {
+                return Integer.compare((int) getter.invokeExact(o1), (int) getter.invokeExact(o2));
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        long bits(Object o) {
+            try {
+                return (int) getter.invokeExact(o);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class LongAccessor extends PrimitiveAccessor {
+
+        private final MethodHandle getter;
+
+        LongAccessor(Class<?> type, MethodHandle getter) {
+            super(type, getter);
+            this.getter = getter.asType(MethodType.methodType(long.class, Object.class));
+        }
+
+        @Override
+        int compare(Object o1, Object o2) {
+            try {
+                return Long.compare((long) getter.invokeExact(o1), (long) getter.invokeExact(o2));
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        long bits(Object o) {
+            try {
+                return (long) getter.invokeExact(o);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class DoubleAccessor extends PrimitiveAccessor {
+
+        private final MethodHandle getter;
+
+        DoubleAccessor(Class<?> type, MethodHandle getter) {
+            super(type, getter);
+            this.getter = getter.asType(MethodType.methodType(double.class, Object.class));
+        }
+
+        @Override
+        int compare(Object o1, Object o2) {
+            try {
+                return Double.compare((double) getter.invokeExact(o1), (double) getter.invokeExact(o2));
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        long bits(Object o) {
+            try {
+                return bits((double) getter.invokeExact(o));
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class FloatAccessor extends PrimitiveAccessor {
+
+        private final MethodHandle getter;
+
+        FloatAccessor(Class<?> type, MethodHandle getter) {
+            super(type, getter);
+            this.getter = getter.asType(MethodType.methodType(float.class, Object.class));
+        }
+
+        @Override
+        int compare(Object o1, Object o2) {
+            try {
+                return Float.compare((float) getter.invokeExact(o1), (float) getter.invokeExact(o2));
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        long bits(Object o) {
+            try {
+                return bits((float) getter.invokeExact(o));
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class BooleanAccessor extends PrimitiveAccessor {
+
+        private final MethodHandle getter;
+
+        BooleanAccessor(Class<?> type, MethodHandle getter) {
+            super(type, getter);
+            this.getter = getter.asType(MethodType.methodType(boolean.class, Object.class));
+        }
+
+        @Override
+        int compare(Object o1, Object o2) {
+            try {
+                return Boolean.compare((boolean) getter.invokeExact(o1), (boolean) getter.invokeExact(o2));
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        long bits(Object o) {
+            try {
+                return (boolean) getter.invokeExact(o) ? 1 : 0;
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class ObjectAccessor extends Accessor {
+
+        ObjectAccessor(Class<?> type, MethodHandle getter) {
+            super(type, getter);
+        }
+    }
+}
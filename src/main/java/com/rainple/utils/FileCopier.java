@@ -0,0 +1,261 @@
+package com.rainple.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 文件复制引擎，使用 FileChannel.transferTo 由内核直接复制数据，支持目录递归并行复制、
+ * 按大小和修改时间跳过未变化的文件以及复制进度回调
+ * @author: rainple
+ * @create: 2026-10-18 10:32
+ **/
+public class FileCopier {
+
+    /**
+     * 单次 transferTo 的最大字节数，部分平台一次只能传输2G以内的数据，也用于控制进度回调的频率
+     */
+    private static final long TRANSFER_CHUNK = 64L * 1024 * 1024;
+
+    /**
+     * 复制进度回调，可能在多个线程中同时被调用
+     */
+    public interface ProgressListener {
+        /**
+         * @param copiedBytes 已复制的字节数
+         * @param copiedFiles 已完成的文件数
+         * @param bytesPerSecond 从开始到现在的平均速度（字节/秒）
+         */
+        void onProgress(long copiedBytes, long copiedFiles, double bytesPerSecond);
+    }
+
+    private final int threads;
+    private final boolean skipUnchanged;
+    private final ProgressListener listener;
+    private final long chunkSize;
+
+    /**
+     * 单线程，不跳过文件，无进度回调
+     */
+    public FileCopier() {
+        this(1, false, null);
+    }
+
+    /**
+     * @param threads 复制目录时的并行线程数
+     * @param skipUnchanged 目标文件大小和修改时间都与源文件相同时跳过
+     * @param listener 进度回调，可以为null
+     */
+    public FileCopier(int threads, boolean skipUnchanged, ProgressListener listener) {
+        this(threads, skipUnchanged, listener, TRANSFER_CHUNK);
+    }
+
+    /**
+     * @param chunkSize 单次 transferTo 的最大字节数
+     */
+    FileCopier(int threads, boolean skipUnchanged, ProgressListener listener, long chunkSize) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("chunk size must be positive: " + chunkSize);
+        this.threads = threads;
+        this.skipUnchanged = skipUnchanged;
+        this.listener = listener;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 把输入通道当前位置之后的数据全部复制到输出通道，处理 transferTo 只传输部分数据的情况
+     * @param in 输入通道
+     * @param out 输出通道
+     * @return 复制的字节数
+     * @throws IOException 异常
+     */
+    public static long transfer(FileChannel in, FileChannel out) throws IOException {
+        return transfer(in, out, TRANSFER_CHUNK, null);
+    }
+
+    private static long transfer(FileChannel in, FileChannel out, long chunkSize, Progress progress) throws IOException {
+        long position = in.position();
+        long size = in.size();
+        long start = position;
+        while (position < size) {
+            long n = in.transferTo(position, Math.min(chunkSize, size - position), out);
+            if (n <= 0) {
+                //文件在复制过程中被截断
+                if (in.size() <= position)
+                    break;
+                throw new IOException("transfer stalled at position " + position);
+            }
+            position += n;
+            if (progress != null)
+                progress.bytes(n);
+        }
+        in.position(position);
+        return position - start;
+    }
+
+    /**
+     * 复制单个文件
+     * @param src 源文件
+     * @param dest 目标文件，父目录不存在时自动创建
+     * @return 复制的字节数，跳过时返回0
+     * @throws IOException 异常
+     */
+    public long copyFile(File src, File dest) throws IOException {
+        Progress progress = new Progress();
+        long n = copyFile(src, dest, progress);
+        progress.file();
+        return n;
+    }
+
+    private long copyFile(File src, File dest, Progress progress) throws IOException {
+        if (skipUnchanged && dest.isFile() && dest.length() == src.length() && dest.lastModified() == src.lastModified())
+            return 0;
+        File parent = dest.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory())
+            throw new IOException("can not create directory: " + parent);
+        long n;
+        try (FileInputStream in = new FileInputStream(src);
+             FileOutputStream out = new FileOutputStream(dest)) {
+            n = transfer(in.getChannel(), out.getChannel(), chunkSize, progress);
+        }
+        //保留修改时间，下次才能判断文件是否变化
+        if (!dest.setLastModified(src.lastModified()) && skipUnchanged)
+            throw new IOException("can not set last modified time: " + dest);
+        return n;
+    }
+
+    /**
+     * 递归复制目录，文件在线程池中并行复制
+     * @param srcDir 源目录
+     * @param destDir 目标目录，不能是源目录或者在源目录中
+     * @return 复制的字节数
+     * @throws InterruptedIOException 复制过程中被中断，未完成的任务被取消，线程的中断状态保留
+     * @throws IOException 任意文件复制失败时抛出第一个异常，其余异常附加为 suppressed
+     */
+    public long copyDirectory(File srcDir, File destDir) throws IOException {
+        if (!srcDir.isDirectory())
+            throw new IOException("not a directory: " + srcDir);
+        //目标在源目录中时遍历会读到正在写入的副本，按规范路径判断，符号链接和 .. 也能识别
+        if (destDir.getCanonicalFile().toPath().startsWith(srcDir.getCanonicalFile().toPath()))
+            throw new IOException("destination " + destDir + " is inside source " + srcDir);
+        final Path srcRoot = srcDir.toPath();
+        final Path destRoot = destDir.toPath();
+        final Progress progress = new Progress();
+        final List<IOException> errors = new ArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        //限制排队中的任务数量，避免大目录一次性提交几十万个任务
+        final Semaphore permits = new Semaphore(threads * 4);
+        boolean interrupted = false;
+        try {
+            Files.walkFileTree(srcRoot, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(destRoot.resolve(srcRoot.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (!attrs.isRegularFile())
+                        return FileVisitResult.CONTINUE;
+                    final File src = file.toFile();
+                    final File dest = destRoot.resolve(srcRoot.relativize(file).toString()).toFile();
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("interrupted while copying " + file);
+                    }
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                copyFile(src, dest, progress);
+                                progress.file();
+                            } catch (IOException e) {
+                                synchronized (errors) {
+                                    errors.add(e);
+                                }
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                    });
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } finally {
+            executor.shutdown();
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    //等待所有复制任务结束
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            //被取消的任务只复制了部分数据，不能当作完成返回
+            InterruptedIOException e = new InterruptedIOException("interrupted while copying " + srcDir);
+            e.bytesTransferred = (int) Math.min(Integer.MAX_VALUE, progress.bytes.get());
+            synchronized (errors) {
+                for (IOException error : errors)
+                    e.addSuppressed(error);
+            }
+            throw e;
+        }
+        if (!errors.isEmpty()) {
+            IOException first = errors.get(0);
+            for (int i = 1; i < errors.size(); i++)
+                first.addSuppressed(errors.get(i));
+            throw first;
+        }
+        return progress.bytes.get();
+    }
+
+    /**
+     * 一次复制任务的进度
+     */
+    private final class Progress {
+
+        private final long start = System.nanoTime();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong files = new AtomicLong();
+
+        void bytes(long n) {
+            long copied = bytes.addAndGet(n);
+            notifyListener(copied, files.get());
+        }
+
+        void file() {
+            long copied = files.incrementAndGet();
+            notifyListener(bytes.get(), copied);
+        }
+
+        private void notifyListener(long copiedBytes, long copiedFiles) {
+            if (listener == null)
+                return;
+            double seconds = (System.nanoTime() - start) / 1e9;
+            listener.onProgress(copiedBytes, copiedFiles, seconds > 0 ? copiedBytes / seconds : 0);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.rainple.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * @description: 文件操作的 JFR 事件，字段与 OperationMetrics 一致
+ * @author: rainple
+ * @create: 2026-10-18 10:46
+ **/
+@Name("com.rainple.utils.FileOperation")
+@Label("File Operation")
+@Category({"Rainple", "Utils"})
+@Description("Bytes, chars and per-phase time of a FileUtils operation")
+@StackTrace(false)
+class FileOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Chars Decoded")
+    long charsDecoded;
+
+    @Label("Read Time")
+    @Timespan
+    long readNanos;
+
+    @Label("Decode Time")
+    @Timespan
+    long decodeNanos;
+
+    @Label("Analyze Time")
+    @Timespan
+    long analyzeNanos;
+
+    @Label("Sort Time")
+    @Timespan
+    long sortNanos;
+
+    @Label("Elapsed Time")
+    @Timespan
+    long elapsedNanos;
+
+    @Label("Throughput")
+    @DataAmount
+    @Frequency
+    long bytesPerSecond;
+}
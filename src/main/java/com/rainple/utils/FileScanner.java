@@ -0,0 +1,576 @@
+package com.rainple.utils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @description: 文件扫描引擎，大文件使用内存映射按大窗口遍历，小于映射阈值的文件和无法映射的流使用可复用的直接缓冲区读取。
+ * 映射在垃圾回收前不会解除，Windows 下被映射的文件在此之前不能删除或重命名，因此默认只映射 256M 以上的文件。
+ * 解码阶段复用当前线程的 CharsetDecoder 和字符缓冲区，字符集按名称缓存，扫描过程中不按块分配对象
+ * @author: rainple
+ * @create: 2026-10-18 09:12
+ **/
+public final class FileScanner {
+
+    /**
+     * 默认映射窗口大小 64M
+     */
+    public static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * 默认直接缓冲区大小 1M
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * 默认映射阈值 256M，更小的文件使用直接缓冲区读取
+     */
+    public static final long DEFAULT_MAPPING_THRESHOLD = 256L * 1024 * 1024;
+
+    /**
+     * 解码输出缓冲区大小（字符数）
+     */
+    static final int CHAR_BUFFER_SIZE = 64 * 1024;
+
+    private static volatile long windowSize = DEFAULT_WINDOW_SIZE;
+    private static volatile int bufferSize = DEFAULT_BUFFER_SIZE;
+    private static volatile boolean mappingEnabled = true;
+    private static volatile long mappingThreshold = DEFAULT_MAPPING_THRESHOLD;
+    private static volatile CodingErrorAction malformedInputAction = CodingErrorAction.REPLACE;
+
+    private static final ThreadLocal<ByteBuffer> DIRECT_BUFFER = new ThreadLocal<>();
+    private static final ThreadLocal<DecodeCache> DECODE_CACHE = new ThreadLocal<>();
+    private static final ConcurrentMap<String, Charset> CHARSETS = new ConcurrentHashMap<>();
+
+    private FileScanner() {
+    }
+
+    /**
+     * 字节块处理器
+     */
+    public interface ByteHandler {
+        /**
+         * 处理一块字节数据，数据范围为 position 到 limit
+         * @param buffer 字节块，仅在本次回调内有效
+         * @return true 继续扫描 | false 停止扫描
+         * @throws IOException 异常
+         */
+        boolean handle(ByteBuffer buffer) throws IOException;
+    }
+
+    /**
+     * 字符块处理器
+     */
+    public interface CharHandler {
+        /**
+         * 处理一块解码后的字符，数据范围为 position 到 limit，缓冲区一定由数组支持
+         * @param buffer 字符块，仅在本次回调内有效
+         * @return true 继续扫描 | false 停止扫描
+         * @throws IOException 异常
+         */
+        boolean handle(CharBuffer buffer) throws IOException;
+    }
+
+    /**
+     * 设置映射窗口大小
+     * @param size 窗口字节数，不能超过 Integer.MAX_VALUE
+     */
+    public static void setWindowSize(long size) {
+        if (size <= 0 || size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("window size out of range: " + size);
+        windowSize = size;
+    }
+
+    public static long getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * 设置无法映射时使用的直接缓冲区大小
+     * @param size 缓冲区字节数
+     */
+    public static void setBufferSize(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("buffer size out of range: " + size);
+        bufferSize = size;
+    }
+
+    public static int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 是否启用内存映射，关闭后所有文件都走直接缓冲区读取
+     * @param enabled true | false
+     */
+    public static void setMappingEnabled(boolean enabled) {
+        mappingEnabled = enabled;
+    }
+
+    public static boolean isMappingEnabled() {
+        return mappingEnabled;
+    }
+
+    /**
+     * 设置映射阈值，扫描的字节数不小于阈值时才使用内存映射。
+     * 映射在垃圾回收前不会解除，Windows 下文件在此之前不能被删除、重命名或替换
+     * @param threshold 字节数，0 表示总是映射
+     */
+    public static void setMappingThreshold(long threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("mapping threshold out of range: " + threshold);
+        mappingThreshold = threshold;
+    }
+
+    public static long getMappingThreshold() {
+        return mappingThreshold;
+    }
+
+    /**
+     * 读取指定字节数时是否使用内存映射
+     * @param size 字节数
+     * @return 启用了映射且不小于映射阈值
+     */
+    static boolean shouldMap(long size) {
+        return mappingEnabled && size > 0 && size >= mappingThreshold;
+    }
+
+    /**
+     * 设置遇到非法字节序列或无法映射的字符时的处理方式，对之后开始的扫描生效
+     * @param action REPLACE 替换为替换字符（默认）| IGNORE 跳过 | REPORT 抛出 CharacterCodingException
+     */
+    public static void setMalformedInputAction(CodingErrorAction action) {
+        if (action == null)
+            throw new IllegalArgumentException("action is null");
+        malformedInputAction = action;
+    }
+
+    public static CodingErrorAction getMalformedInputAction() {
+        return malformedInputAction;
+    }
+
+    /**
+     * 按名称查找字符集并缓存，避免每次扫描都查找一次
+     * @param charsetName 字符集名称，为null或空字符串时为utf-8
+     * @return 字符集
+     */
+    public static Charset charset(String charsetName) {
+        if (charsetName == null || charsetName.isEmpty())
+            return StandardCharsets.UTF_8;
+        Charset charset = CHARSETS.get(charsetName);
+        if (charset == null) {
+            charset = Charset.forName(charsetName);
+            CHARSETS.putIfAbsent(charsetName, charset);
+        }
+        return charset;
+    }
+
+    /**
+     * 从通道当前位置开始扫描到文件末尾，扫描结束后通道位置移动到已扫描的末尾
+     * @param channel 文件通道
+     * @param handler 字节块处理器
+     * @throws IOException 异常
+     */
+    public static void scan(FileChannel channel, ByteHandler handler) throws IOException {
+        long position = channel.position();
+        long size = -1;
+        if (mappingEnabled) {
+            try {
+                size = channel.size();
+            } catch (IOException e) {
+                size = -1;
+            }
+        }
+        Probe probe = Probe.current();
+        if (size > position && shouldMap(size - position) && scanMapped(channel, position, size, handler, true, probe))
+            return;
+        scanBuffered(channel, handler, probe);
+    }
+
+    /**
+     * 扫描文件中指定的字节区间，不改变通道的位置，可在多个线程中对同一通道并发调用
+     * @param channel 文件通道
+     * @param from 起始位置（包含）
+     * @param to 结束位置（不包含）
+     * @param handler 字节块处理器
+     * @throws IOException 异常
+     */
+    public static void scan(FileChannel channel, long from, long to, ByteHandler handler) throws IOException {
+        if (from < 0 || from > to)
+            throw new IllegalArgumentException("illegal range: [" + from + ", " + to + ")");
+        if (from == to)
+            return;
+        Probe probe = Probe.current();
+        if (shouldMap(to - from) && scanMapped(channel, from, to, handler, false, probe))
+            return;
+        ByteBuffer buffer = acquireBuffer();
+        try {
+            long position = from;
+            while (position < to) {
+                buffer.clear();
+                if (to - position < buffer.capacity())
+                    buffer.limit((int) (to - position));
+                long start = Probe.now(probe);
+                int n = channel.read(buffer, position);
+                if (n <= 0)
+                    break;
+                if (probe != null) {
+                    probe.readNanos += System.nanoTime() - start;
+                    probe.bytesRead += n;
+                }
+                position += n;
+                buffer.flip();
+                if (!handler.handle(buffer))
+                    break;
+            }
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * 扫描并按指定字符集解码，跨窗口的多字节字符会被完整拼接
+     * @param channel 文件通道
+     * @param charset 字符集
+     * @param handler 字符块处理器
+     * @throws IOException 异常
+     */
+    public static void scanChars(FileChannel channel, Charset charset, CharHandler handler) throws IOException {
+        Decoder decoder = Decoder.pooled(charset, handler);
+        try {
+            scan(channel, decoder);
+            decoder.finish();
+        } finally {
+            decoder.release();
+        }
+    }
+
+    /**
+     * 扫描指定字节区间并解码，区间的起止位置需要落在字符边界上
+     * @param channel 文件通道
+     * @param from 起始位置（包含）
+     * @param to 结束位置（不包含）
+     * @param charset 字符集
+     * @param handler 字符块处理器
+     * @throws IOException 异常
+     */
+    public static void scanChars(FileChannel channel, long from, long to, Charset charset, CharHandler handler) throws IOException {
+        Decoder decoder = Decoder.pooled(charset, handler);
+        try {
+            scan(channel, from, to, decoder);
+            decoder.finish();
+        } finally {
+            decoder.release();
+        }
+    }
+
+    /**
+     * 按映射窗口扫描，首个窗口映射失败时返回 false 交由缓冲区方式处理
+     */
+    private static boolean scanMapped(FileChannel channel, long position, long size, ByteHandler handler,
+                                      boolean updatePosition, Probe probe) throws IOException {
+        long window = windowSize;
+        boolean first = true;
+        while (position < size) {
+            long length = Math.min(window, size - position);
+            ByteBuffer mapped;
+            long start = Probe.now(probe);
+            try {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            } catch (IOException | UnsupportedOperationException e) {
+                if (first)
+                    return false;
+                throw e;
+            }
+            first = false;
+            if (probe != null) {
+                probe.readNanos += System.nanoTime() - start;
+                probe.bytesRead += length;
+            }
+            position += length;
+            if (updatePosition)
+                channel.position(position);
+            if (!handler.handle(mapped))
+                break;
+        }
+        return true;
+    }
+
+    private static void scanBuffered(FileChannel channel, ByteHandler handler, Probe probe) throws IOException {
+        ByteBuffer buffer = acquireBuffer();
+        try {
+            for (;;) {
+                long start = Probe.now(probe);
+                int n = channel.read(buffer);
+                if (n <= 0 && buffer.position() == 0)
+                    break;
+                if (probe != null && n > 0) {
+                    probe.readNanos += System.nanoTime() - start;
+                    probe.bytesRead += n;
+                }
+                buffer.flip();
+                if (!handler.handle(buffer))
+                    break;
+                buffer.clear();
+            }
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * 获取当前线程的直接缓冲区，嵌套扫描时临时分配一个新的缓冲区
+     */
+    static ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = DIRECT_BUFFER.get();
+        int size = bufferSize;
+        if (buffer == null || buffer.capacity() != size)
+            buffer = ByteBuffer.allocateDirect(size);
+        DIRECT_BUFFER.remove();
+        buffer.clear();
+        return buffer;
+    }
+
+    static void releaseBuffer(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize)
+            DIRECT_BUFFER.set(buffer);
+    }
+
+    /**
+     * 立即解除映射或释放直接内存，之后再访问该缓冲区（包括它的视图）会导致虚拟机崩溃，调用者必须保证不再使用。
+     * 通过 Unsafe.invokeCleaner 释放
+     * @param buffer 映射得到的或 allocateDirect 分配的缓冲区，不能是切片或复制
+     * @return 是否释放成功，不支持时返回 false，内存在垃圾回收时释放
+     */
+    static boolean unmap(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || Cleaner.INVOKE_CLEANER == null)
+            return false;
+        try {
+            Cleaner.INVOKE_CLEANER.invoke(Cleaner.UNSAFE, buffer);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 第一次释放缓冲区时才解析 Unsafe.invokeCleaner，不可用时为 null
+     */
+    private static final class Cleaner {
+
+        static final Object UNSAFE;
+        static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                unsafe = theUnsafe.get(null);
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                //不支持时不释放，由垃圾回收处理
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+    }
+
+    /**
+     * 当前线程空闲的解码器和字符缓冲区，使用时取出，用完放回，嵌套扫描时取不到就临时分配
+     */
+    private static final class DecodeCache {
+
+        private final Map<Charset, CharsetDecoder> decoders = new HashMap<>(4);
+        private CharBuffer chars;
+    }
+
+    private static DecodeCache decodeCache() {
+        DecodeCache cache = DECODE_CACHE.get();
+        if (cache == null) {
+            cache = new DecodeCache();
+            DECODE_CACHE.set(cache);
+        }
+        return cache;
+    }
+
+    /**
+     * 取出当前线程缓存的解码器，按当前的非法输入处理方式配置，用完调用 releaseDecoder 放回
+     */
+    static CharsetDecoder acquireDecoder(Charset charset) {
+        CharsetDecoder decoder = decodeCache().decoders.remove(charset);
+        if (decoder == null)
+            decoder = charset.newDecoder();
+        else
+            decoder.reset();
+        CodingErrorAction action = malformedInputAction;
+        return decoder.onMalformedInput(action).onUnmappableCharacter(action);
+    }
+
+    static void releaseDecoder(CharsetDecoder decoder) {
+        decodeCache().decoders.put(decoder.charset(), decoder);
+    }
+
+    /**
+     * 字节到字符的流式解码，保留窗口末尾不完整的多字节序列。可以跨多次扫描使用，
+     * 两次扫描之间调用 drain 输出已解码的字符，不完整的字节留到下一次扫描
+     */
+    static final class Decoder implements ByteHandler {
+
+        private final CharsetDecoder decoder;
+        private final CharHandler handler;
+        private final CharBuffer out;
+        private final ByteBuffer carry = ByteBuffer.allocate(32);
+        private final Probe probe = Probe.current();
+        private final boolean pooled;
+        private boolean stopped;
+
+        /**
+         * 独占解码器和缓冲区，用于长期持有的解码器
+         */
+        Decoder(Charset charset, CharHandler handler) {
+            this(charset.newDecoder(), CharBuffer.allocate(CHAR_BUFFER_SIZE), handler, false);
+        }
+
+        private Decoder(CharsetDecoder decoder, CharBuffer out, CharHandler handler, boolean pooled) {
+            CodingErrorAction action = malformedInputAction;
+            this.decoder = decoder.onMalformedInput(action).onUnmappableCharacter(action);
+            this.out = out;
+            this.handler = handler;
+            this.pooled = pooled;
+        }
+
+        /**
+         * 使用当前线程缓存的解码器和缓冲区，用完需要调用 release
+         */
+        static Decoder pooled(Charset charset, CharHandler handler) {
+            CharsetDecoder decoder = acquireDecoder(charset);
+            DecodeCache cache = decodeCache();
+            CharBuffer out = cache.chars;
+            cache.chars = null;
+            if (out == null)
+                out = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+            else
+                out.clear();
+            return new Decoder(decoder, out, handler, true);
+        }
+
+        /**
+         * 把解码器和缓冲区还给当前线程，之后不能再使用
+         */
+        void release() {
+            if (!pooled)
+                return;
+            releaseDecoder(decoder);
+            DecodeCache cache = decodeCache();
+            if (cache.chars == null)
+                cache.chars = out;
+        }
+
+        @Override
+        public boolean handle(ByteBuffer in) throws IOException {
+            if (probe == null)
+                return decodeWindow(in);
+            long start = System.nanoTime();
+            long analyzed = probe.analyzeNanos;
+            try {
+                return decodeWindow(in);
+            } finally {
+                probe.decodeNanos += System.nanoTime() - start - (probe.analyzeNanos - analyzed);
+            }
+        }
+
+        private boolean decodeWindow(ByteBuffer in) throws IOException {
+            //先用新窗口的字节补齐上一个窗口残留的半个字符
+            while (carry.position() > 0 && in.hasRemaining()) {
+                carry.put(in.get());
+                carry.flip();
+                boolean go = decode(carry, false);
+                carry.compact();
+                if (!go)
+                    return false;
+            }
+            if (!decode(in, false))
+                return false;
+            if (in.hasRemaining())
+                carry.put(in);
+            return true;
+        }
+
+        /**
+         * 输出已解码的字符，不结束输入
+         */
+        void drain() throws IOException {
+            if (!stopped && out.position() > 0)
+                emit();
+        }
+
+        /**
+         * 丢弃所有状态，复用解码器解码下一个输入
+         */
+        void reset() {
+            decoder.reset();
+            carry.clear();
+            out.clear();
+            stopped = false;
+        }
+
+        void finish() throws IOException {
+            if (stopped)
+                return;
+            carry.flip();
+            if (!decode(carry, true))
+                return;
+            while (decoder.flush(out).isOverflow()) {
+                if (!emit())
+                    return;
+            }
+            if (out.position() > 0)
+                emit();
+        }
+
+        private boolean decode(ByteBuffer in, boolean endOfInput) throws IOException {
+            for (;;) {
+                CoderResult result = decoder.decode(in, out, endOfInput);
+                if (result.isUnderflow())
+                    return true;
+                if (result.isOverflow()) {
+                    if (!emit())
+                        return false;
+                } else {
+                    result.throwException();
+                }
+            }
+        }
+
+        private boolean emit() throws IOException {
+            out.flip();
+            long start = Probe.now(probe);
+            if (probe != null)
+                probe.charsDecoded += out.remaining();
+            boolean go = handler.handle(out);
+            if (probe != null)
+                probe.analyzeNanos += System.nanoTime() - start;
+            out.clear();
+            if (!go)
+                stopped = true;
+            return go;
+        }
+    }
+
+}
@@ -1,13 +1,11 @@
 package com.rainple.utils;
 
 import java.io.*;
-import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * @description: 文件工具类
@@ -27,9 +25,7 @@ public class FileUtils {
      * @throws IOException 异常
      */
     public static boolean copy(String srcPath,String destPath) throws IOException {
-        FileInputStream in = new FileInputStream(srcPath);
-        FileOutputStream out = new FileOutputStream(destPath);
-        return copy(in,out);
+        return copy(new File(srcPath),new File(destPath));
     }
 
     /**
@@ -40,15 +36,9 @@ public class FileUtils {
      * @throws IOException 异常
       */
     public static boolean copy(FileInputStream inputStream,FileOutputStream outputStream) throws IOException {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
-        FileChannel inChannel = inputStream.getChannel();
-        while (inChannel.read(byteBuffer) > 0) {
-            byteBuffer.flip();
-            outputStream.getChannel().write(byteBuffer);
-            byteBuffer.clear();
-        }
-        outputStream.close();
-        inChannel.close();
+        try (FileInputStream in = inputStream; FileOutputStream out = outputStream) {
+            FileCopier.transfer(in.getChannel(), out.getChannel());
+        }
         return true;
     }
 
@@ -61,10 +51,40 @@ public class FileUtils {
      */
     public static boolean copy(File srcFile,File destFile) throws IOException {
         FileInputStream in = new FileInputStream(srcFile);
-        FileOutputStream out = new FileOutputStream(destFile);
+        FileOutputStream out;
+        try {
+            out = new FileOutputStream(destFile);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
         return copy(in,out);
     }
 
+    /**
+     * 递归复制目录
+     * @param srcDir 源目录
+     * @param destDir 目标目录
+     * @param threads 并行复制的线程数
+     * @param skipUnchanged 是否跳过大小和修改时间都未变化的文件
+     * @return 复制的字节数
+     * @throws IOException 异常
+     */
+    public static long copyDirectory(File srcDir,File destDir,int threads,boolean skipUnchanged) throws IOException {
+        return new FileCopier(threads,skipUnchanged,null).copyDirectory(srcDir,destDir);
+    }
+
+    /**
+     * 递归复制目录，按处理器数量并行复制
+     * @param srcPath 源目录路径
+     * @param destPath 目标目录路径
+     * @return 复制的字节数
+     * @throws IOException 异常
+     */
+    public static long copyDirectory(String srcPath,String destPath) throws IOException {
+        return copyDirectory(new File(srcPath),new File(destPath),Runtime.getRuntime().availableProcessors(),false);
+    }
+
     /**
      * 往文件中写入数据
      * @param path 文件路径
@@ -73,8 +93,55 @@ public class FileUtils {
      * @throws IOException 异常
      */
     public static void write(String path,String content,String charsetName) throws IOException {
-        OutputStream outputStream = new FileOutputStream(path);
-        outputStream.write(content.getBytes(charsetName));
+        try (OutputStream outputStream = new FileOutputStream(path)) {
+            outputStream.write(content.getBytes(charsetName));
+        }
+    }
+
+    /**
+     * 往文件末尾追加数据，文件不存在时创建
+     * @param path 文件路径
+     * @param content 数据
+     * @param charsetName 数据编码格式
+     * @throws IOException 异常
+     */
+    public static void append(String path,String content,String charsetName) throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(path,true)) {
+            outputStream.write(content.getBytes(charsetName));
+        }
+    }
+
+    /**
+     * 追加数据，默认编码格式utf-8
+     * @param path 文件路径
+     * @param content 数据
+     * @throws IOException 异常
+     */
+    public static void append(String path,String content) throws IOException {
+        append(path,content,"utf-8");
+    }
+
+    /**
+     * 打开一个长期持有的记录写入器，适合频繁写入大量小记录，使用完毕需要关闭
+     * @param path 文件路径
+     * @param charsetName 数据编码格式
+     * @param append 是否追加
+     * @return 写入器
+     * @throws IOException 异常
+     */
+    public static RecordWriter openWriter(String path,String charsetName,boolean append) throws IOException {
+        return new RecordWriter(new File(path),charsetName,append);
+    }
+
+    /**
+     * 并行写入多个文件
+     * @param contents 文件路径及内容
+     * @param charsetName 数据编码格式
+     * @param parallelism 同时写入的文件数量
+     * @throws IOException 异常
+     */
+    public static void writeAll(Map<String,String> contents,String charsetName,int parallelism) throws IOException {
+        RecordWriter.writeAll(contents,charsetName,parallelism);
     }
 
     /**
@@ -100,16 +167,12 @@ public class FileUtils {
      * @throws IOException 异常
      */
     private static String read1(String charsetName, FileInputStream inputStream) throws IOException {
-        FileChannel channel = inputStream.getChannel();
-        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
-        StringBuilder stringBuffer = new StringBuilder(byteBuffer.capacity());
-        while (channel.read(byteBuffer) > 0) {
-            byteBuffer.flip();
-            stringBuffer.append(Charset.forName(charsetName).decode(byteBuffer));
-            byteBuffer.clear();
+        //按文件大小一次读入并解码，不逐块扩容复制
+        try (FileChannel channel = inputStream.getChannel()) {
+            return BulkReader.readString(channel, FileScanner.charset(charsetName));
+        } finally {
+            inputStream.close();
         }
-        inputStream.close();
-        return stringBuffer.toString();
     }
 
     /**
@@ -143,13 +206,84 @@ public class FileUtils {
         return read(file,"utf-8");
     }
 
-    private static  ArrayList<Character> specialChar = new ArrayList<>();
-    static {
-        specialChar.add('\n');
-        specialChar.add('\r');
-        specialChar.add(' ');
+    /**
+     * 读取文件的原始字节
+     * @param path 文件路径
+     * @return 文件内容
+     * @throws IOException 异常
+     */
+    public static byte[] readBytes(String path) throws IOException {
+        return BulkReader.readBytes(new File(path));
+    }
+
+    /**
+     * 并行读取多个文件，适合启动时加载大量小配置文件
+     * @param paths 文件路径
+     * @param charsetName 编码格式
+     * @param parallelism 同时读取的文件数量
+     * @return 文件路径及内容，与 paths 的顺序相同
+     * @throws IOException 异常
+     */
+    public static Map<String,String> readAll(Collection<String> paths,String charsetName,int parallelism) throws IOException {
+        return BulkReader.readAll(paths,FileScanner.charset(charsetName),parallelism);
+    }
+
+    /**
+     * 逐行处理文件，不把整个文件读入内存，每一行以复用的视图交给处理器
+     * @param path 文件路径
+     * @param charsetName 编码格式，需要兼容 ASCII
+     * @param handler 行处理器
+     * @return 处理的行数
+     * @throws IOException 异常
+     */
+    public static long forEachLine(String path,String charsetName,LineReader.LineHandler handler) throws IOException {
+        try (LineReader reader = new LineReader(new File(path),charsetName)) {
+            return reader.forEach(handler);
+        }
     }
 
+    /**
+     * 逐行处理文件，默认编码格式utf-8
+     * @param path 文件路径
+     * @param handler 行处理器
+     * @return 处理的行数
+     * @throws IOException 异常
+     */
+    public static long forEachLine(String path,LineReader.LineHandler handler) throws IOException {
+        return forEachLine(path,"utf-8",handler);
+    }
+
+    /**
+     * 文件中各行的流，可以并行处理，关闭流时关闭文件。元素是复用的视图，收集前需要转换成 String
+     * @param path 文件路径
+     * @param charsetName 编码格式，需要兼容 ASCII
+     * @return 流
+     * @throws IOException 异常
+     */
+    public static Stream<LineReader.Line> lines(String path,String charsetName) throws IOException {
+        final LineReader reader = new LineReader(new File(path),charsetName);
+        try {
+            return reader.lines().onClose(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 统计字符出现次数时排除的字符
+     */
+    private static final char[] SPECIAL_CHARS = {'\n', '\r', ' '};
+
     /**
      * 统计文件字符出现的次数
      * @param inputStream 文件流
@@ -158,38 +292,41 @@ public class FileUtils {
      * @return 结果集
      */
     private static List<Map.Entry<Character,Long>> countChar(FileInputStream inputStream,String charSetName,String sort) {
-        Map<Character,Long> data = new HashMap<>();
+        Probe probe = Probe.begin("countChar");
         try {
-            ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
-            FileChannel channel = inputStream.getChannel();
-            while (channel.read(byteBuffer) > 0) {
-                byteBuffer.flip();
-                CharBuffer charBuffer = Charset.forName(charSetName).decode(byteBuffer);
-                char[] charArray = charBuffer.array();
-                for (char c : charArray) {
-                    if (specialChar.contains(c)) continue;
-                    Long num = data.get(c);
-                    if (num == null)
-                        data.put(c,1L);
-                    else
-                        data.put(c,++num);
-                }
-            }
-            List<Map.Entry<Character,Long>> list = new ArrayList<>(data.entrySet());
-            Collections.sort(list, new Comparator<Map.Entry<Character, Long>>() {
+            CharHistogram histogram = charHistogram(inputStream, charSetName);
+            long start = Probe.now(probe);
+            List<Map.Entry<Character,Long>> list = histogram == null ? new ArrayList<Map.Entry<Character,Long>>() : histogram.toSortedList(sort);
+            if (probe != null)
+                probe.sortNanos += System.nanoTime() - start;
+            return list;
+        } finally {
+            Probe.end(probe);
+        }
+    }
+
+    /**
+     * 统计文件字符出现次数的直方图，统计过程不装箱
+     * @param inputStream 文件流
+     * @param charSetName 文件编码格式
+     * @return 直方图，读取失败返回null
+     */
+    private static CharHistogram charHistogram(FileInputStream inputStream,String charSetName) {
+        final CharHistogram histogram = newCharHistogram();
+        try {
+            FileScanner.scanChars(inputStream.getChannel(), FileScanner.charset(charSetName), new FileScanner.CharHandler() {
                 @Override
-                public int compare(Map.Entry<Character, Long> o1, Map.Entry<Character, Long> o2) {
-                    if (ASC.equals(sort))
-                        return o1.getValue().compareTo(o2.getValue());
-                    else
-                        return o2.getValue().compareTo(o1.getValue());
+                public boolean handle(CharBuffer buffer) {
+                    int offset = buffer.arrayOffset();
+                    histogram.add(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+                    return true;
                 }
             });
-            return list;
+            return histogram;
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return new ArrayList<>();
+        return null;
     }
 
     /**
@@ -199,19 +336,26 @@ public class FileUtils {
      * @return 数量
      */
     public static long getTotalChar(FileInputStream fileInputStream,String charsetName) {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(1024 * 1024);
-        long count = 0;
+        final long[] count = {0};
+        Probe probe = Probe.begin("getTotalChar");
         try {
-            while (fileInputStream.getChannel().read(byteBuffer) > 0) {
-                byteBuffer.flip();
-                CharBuffer charBuffer = Charset.forName(charsetName).decode(byteBuffer);
-                count += charBuffer.length();
-                byteBuffer.clear();
-            }
+            Charset charset = FileScanner.charset(charsetName);
+            //UTF-8 直接按字节计数，不需要解码
+            if (Utf8Counter.supports(charset))
+                return Utf8Counter.count(fileInputStream.getChannel()).getTotalChars();
+            FileScanner.scanChars(fileInputStream.getChannel(), charset, new FileScanner.CharHandler() {
+                @Override
+                public boolean handle(CharBuffer buffer) {
+                    count[0] += buffer.remaining();
+                    return true;
+                }
+            });
         }catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            Probe.end(probe);
         }
-        return count;
+        return count[0];
     }
 
     public static long getTotalChar(FileInputStream fileInputStream) {
@@ -256,26 +400,67 @@ public class FileUtils {
         return count;
     }
 
+    /**
+     * 一次读取文件，同时统计多项指标
+     * @param path 文件路径
+     * @param charsetName 文件编码格式
+     * @param metrics 需要统计的指标
+     * @return 统计结果
+     * @throws IOException 异常
+     */
+    public static TextStats analyze(String path,String charsetName,TextAnalyzer.Metric... metrics) throws IOException {
+        return new TextAnalyzer(charsetName,false,metrics).analyze(path);
+    }
+
+    /**
+     * 一次读取文件，同时统计多项指标
+     * @param file 文件
+     * @param charsetName 文件编码格式
+     * @param metrics 需要统计的指标
+     * @return 统计结果
+     * @throws IOException 异常
+     */
+    public static TextStats analyze(File file,String charsetName,TextAnalyzer.Metric... metrics) throws IOException {
+        return new TextAnalyzer(charsetName,false,metrics).analyze(file);
+    }
+
+    /**
+     * 一次读取文件，同时统计多项指标，默认编码格式utf-8
+     * @param path 文件路径
+     * @param metrics 需要统计的指标
+     * @return 统计结果
+     * @throws IOException 异常
+     */
+    public static TextStats analyze(String path,TextAnalyzer.Metric... metrics) throws IOException {
+        return analyze(path,"utf-8",metrics);
+    }
+
     public static long getChineseChars(FileInputStream fileInputStream,String charsetName) {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
         if (charsetName == null || "".equals(charsetName))
             charsetName = "utf-8";
-        long count = 0;
+        final long[] count = {0};
+        Probe probe = Probe.begin("getChineseChars");
         try {
-            while (fileInputStream.getChannel().read(byteBuffer) > 0) {
-                byteBuffer.flip();
-                CharBuffer charBuffer = Charset.forName(charsetName).decode(byteBuffer);
-                char[] chars = charBuffer.array();
-                for (char c : chars) {
-                    if (isChinese(String.valueOf(c)))
-                        count++;
+            Charset charset = FileScanner.charset(charsetName);
+            if (Utf8Counter.supports(charset))
+                return Utf8Counter.count(fileInputStream.getChannel()).getChineseChars();
+            FileScanner.scanChars(fileInputStream.getChannel(), charset, new FileScanner.CharHandler() {
+                @Override
+                public boolean handle(CharBuffer buffer) {
+                    char[] chars = buffer.array();
+                    for (int i = buffer.arrayOffset() + buffer.position(), end = buffer.arrayOffset() + buffer.limit(); i < end; i++) {
+                        if (Tokenizer.isChinese(chars[i]))
+                            count[0]++;
+                    }
+                    return true;
                 }
-                byteBuffer.clear();
-            }
+            });
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            Probe.end(probe);
         }
-        return count;
+        return count[0];
     }
 
     public static long getTotalChar(String path) {
@@ -386,23 +571,24 @@ public class FileUtils {
             map.put(null,0L);
             return map;
         }
-        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
-        FileChannel fileChannel = fileInputStream.getChannel();
-        Long count = 0L;
+        final char target = specifiedChar;
+        final long[] count = {0};
         try {
-            while (fileChannel.read(byteBuffer) > 0) {
-                byteBuffer.flip();
-                CharBuffer charBuffer = Charset.forName(charsetName).decode(byteBuffer);
-                char[] chars = charBuffer.array();
-                for (char c : chars) {
-                    if (c == specifiedChar)
-                        count++;
+            FileScanner.scanChars(fileInputStream.getChannel(), FileScanner.charset(charsetName), new FileScanner.CharHandler() {
+                @Override
+                public boolean handle(CharBuffer buffer) {
+                    char[] chars = buffer.array();
+                    for (int i = buffer.arrayOffset() + buffer.position(), end = buffer.arrayOffset() + buffer.limit(); i < end; i++) {
+                        if (chars[i] == target)
+                            count[0]++;
+                    }
+                    return true;
                 }
-            }
+            });
         } catch (IOException e) {
             e.printStackTrace();
         }
-        map.put(specifiedChar,count);
+        map.put(specifiedChar,count[0]);
         return map;
     }
 
@@ -477,10 +663,10 @@ public class FileUtils {
      * @return 结果集
      */
     public static Map<Character,Long> findMinPresentCharacter(FileInputStream fileInputStream, String charsetName) {
-        List<Map.Entry<Character, Long>> entries = countChar(fileInputStream, charsetName,ASC);
-        if (entries == null || entries.size() == 0)
+        CharHistogram histogram = charHistogram(fileInputStream, charsetName);
+        Map.Entry<Character, Long> entry = histogram == null ? null : histogram.min();
+        if (entry == null)
             return null;
-        Map.Entry<Character, Long> entry = entries.get(0);
         Map<Character,Long> hashMap = new HashMap<>();
         hashMap.put(entry.getKey(),entry.getValue());
         return hashMap;
@@ -528,10 +714,10 @@ public class FileUtils {
      * @return 结果集
      */
     public static Map<Character,Long> findMaxPresentCharacter(FileInputStream fileInputStream, String charsetName) {
-        List<Map.Entry<Character, Long>> entries = countChar(fileInputStream, charsetName);
-        if (entries == null || entries.size() == 0)
+        CharHistogram histogram = charHistogram(fileInputStream, charsetName);
+        Map.Entry<Character, Long> entry = histogram == null ? null : histogram.max();
+        if (entry == null)
             return null;
-        Map.Entry<Character, Long> entry = entries.get(0);
         Map<Character,Long> hashMap = new HashMap<>();
         hashMap.put(entry.getKey(),entry.getValue());
         return hashMap;
@@ -543,13 +729,7 @@ public class FileUtils {
      * @return 结果集
      */
     public static Map<Character,Long> findMaxPresentCharacter(FileInputStream fileInputStream) {
-        List<Map.Entry<Character, Long>> entries = countChar(fileInputStream, "utf-8");
-        if (entries == null || entries.size() == 0)
-            return null;
-        Map.Entry<Character, Long> entry = entries.get(0);
-        Map<Character,Long> hashMap = new HashMap<>();
-        hashMap.put(entry.getKey(),entry.getValue());
-        return hashMap;
+        return findMaxPresentCharacter(fileInputStream, "utf-8");
     }
 
     /**
@@ -605,39 +785,117 @@ public class FileUtils {
      * @throws IOException 异常
      */
     public static List<Map.Entry<String,Long>> countEnglishWord(FileInputStream fileInputStream,String charsetName,String sort,boolean ignoreCase) throws IOException {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
-        FileChannel channel = fileInputStream.getChannel();
-        Map<String,Long> map = new HashMap<>(1024);
-        while (channel.read(byteBuffer) > 0) {
-            byteBuffer.flip();
-            CharBuffer charBuffer = Charset.forName(charsetName).decode(byteBuffer);
-            String s = String.valueOf(charBuffer);
-            String[] split = s.split(" ");
-            for (String str : split) {
-                if (isEnglish(str) && !"".equals(str)) {
-                    record(ignoreCase, map, str);
-                }
-                if (!isChinese(str) && !isEnglish(str)) {
-                    List<String> filter = englishWordFilter(str);
-                    for (String w : filter) {
-                        record(ignoreCase,map,w);
-                    }
+        Probe probe = Probe.begin("countEnglishWord");
+        try {
+            Map<String,Long> map = englishWordCounts(fileInputStream, charsetName, ignoreCase);
+            long start = Probe.now(probe);
+            List<Map.Entry<String,Long>> list = new ArrayList<>(map.size());
+            list.addAll(map.entrySet());
+            Collections.sort(list, new Comparator<Map.Entry<String, Long>>() {
+                @Override
+                public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                    if (ASC.equals(sort))
+                        return o1.getValue().compareTo(o2.getValue());
+                    else
+                        return o2.getValue().compareTo(o1.getValue());
                 }
-            }
-            byteBuffer.clear();
+            });
+            if (probe != null)
+                probe.sortNanos += System.nanoTime() - start;
+            return list;
+        } finally {
+            Probe.end(probe);
         }
-        List<Map.Entry<String,Long>> list = new ArrayList<>(map.size());
-        list.addAll(map.entrySet());
-        Collections.sort(list, new Comparator<Map.Entry<String, Long>>() {
+    }
+
+    /**
+     * 分词并统计英文单词出现的次数，不排序
+     * @param fileInputStream 文件输入流
+     * @param charsetName 字符集
+     * @param ignoreCase 是否忽略大小写
+     * @return 单词及次数
+     * @throws IOException 异常
+     */
+    private static Map<String,Long> englishWordCounts(FileInputStream fileInputStream,String charsetName,boolean ignoreCase) throws IOException {
+        return englishWordCounter(fileInputStream, charsetName, ignoreCase).counts();
+    }
+
+    private static WordCounter englishWordCounter(FileInputStream fileInputStream,String charsetName,boolean ignoreCase) throws IOException {
+        WordCounter counter = new WordCounter(ignoreCase);
+        tokenize(fileInputStream, charsetName, counter);
+        return counter;
+    }
+
+    private static void tokenize(FileInputStream fileInputStream,String charsetName,Tokenizer.TokenHandler handler) throws IOException {
+        final Tokenizer tokenizer = new Tokenizer(handler);
+        FileScanner.scanChars(fileInputStream.getChannel(), FileScanner.charset(charsetName), new FileScanner.CharHandler() {
             @Override
-            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
-                if (ASC.equals(sort))
-                    return o1.getValue().compareTo(o2.getValue());
-                else
-                    return o2.getValue().compareTo(o1.getValue());
+            public boolean handle(CharBuffer buffer) {
+                tokenizer.feed(buffer);
+                return true;
             }
         });
-        return list;
+        tokenizer.finish();
+    }
+
+    /**
+     * 统计文件中出现次数最多的前K个英文单词，结果精确，只对前K项排序
+     * @param fileInputStream 文件输入流
+     * @param charsetName 字符集
+     * @param k 数量
+     * @param ignoreCase 是否忽略大小写
+     * @return 按次数降序排列的结果集
+     * @throws IOException 异常
+     */
+    public static List<Map.Entry<String,Long>> findTopEnglishWords(FileInputStream fileInputStream,String charsetName,int k,boolean ignoreCase) throws IOException {
+        Probe probe = Probe.begin("findTopEnglishWords");
+        try {
+            WordCounter counter = englishWordCounter(fileInputStream, charsetName, ignoreCase);
+            long start = Probe.now(probe);
+            List<Map.Entry<String,Long>> top = counter.top(k);
+            if (probe != null)
+                probe.sortNanos += System.nanoTime() - start;
+            return top;
+        } finally {
+            Probe.end(probe);
+        }
+    }
+
+    public static List<Map.Entry<String,Long>> findTopEnglishWords(String path,int k) throws IOException {
+        try (FileInputStream fileInputStream = new FileInputStream(path)) {
+            return findTopEnglishWords(fileInputStream,"utf-8",k,false);
+        }
+    }
+
+    /**
+     * 近似统计文件中出现次数最多的前K个英文单词，内存占用固定，适合不同单词数量极大的文件
+     * @param fileInputStream 文件输入流
+     * @param charsetName 字符集
+     * @param k 数量
+     * @param capacity 计数器数量，越大越精确，一般取K的10倍以上
+     * @param ignoreCase 是否忽略大小写
+     * @return 按估计次数降序排列的结果集
+     * @throws IOException 异常
+     */
+    public static List<Map.Entry<String,Long>> findTopEnglishWordsApproximately(FileInputStream fileInputStream,String charsetName,int k,int capacity,boolean ignoreCase) throws IOException {
+        Probe probe = Probe.begin("findTopEnglishWordsApproximately");
+        try {
+            SpaceSaving spaceSaving = new SpaceSaving(Math.max(k, capacity), ignoreCase);
+            tokenize(fileInputStream, charsetName, spaceSaving);
+            long start = Probe.now(probe);
+            List<Map.Entry<String,Long>> top = spaceSaving.top(k);
+            if (probe != null)
+                probe.sortNanos += System.nanoTime() - start;
+            return top;
+        } finally {
+            Probe.end(probe);
+        }
+    }
+
+    public static List<Map.Entry<String,Long>> findTopEnglishWordsApproximately(String path,int k,int capacity) throws IOException {
+        try (FileInputStream fileInputStream = new FileInputStream(path)) {
+            return findTopEnglishWordsApproximately(fileInputStream,"utf-8",k,capacity,false);
+        }
     }
 
     public static List<Map.Entry<String,Long>> countEnglishWord(FileInputStream fileInputStream,String charsetName,String sort) throws IOException {
@@ -670,8 +928,8 @@ public class FileUtils {
 
     public static Map.Entry<String,Long> findMaxEnglishWordPresent(FileInputStream fileInputStream,String charsetName) {
         try {
-            List<Map.Entry<String, Long>> list = countEnglishWord(fileInputStream, charsetName);
-            return (list == null || list.size() == 0) ? null : list.get(0);
+            List<Map.Entry<String,Long>> top = englishWordCounter(fileInputStream, charsetName, false).top(1);
+            return top.isEmpty() ? null : top.get(0);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -708,50 +966,17 @@ public class FileUtils {
      * @return 出现的次数
      */
     public static int findWordCountPresent(FileInputStream fileInputStream,String word,String charsetName) {
-        if (word == null)
+        if (word == null || word.isEmpty())
             return 0;
-        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
-        FileChannel channel = fileInputStream.getChannel();
-        int count = 0;
+        Probe probe = Probe.begin("findWordCountPresent");
         try {
-            while (channel.read(byteBuffer) > 0) {
-                byteBuffer.flip();
-                CharBuffer charBuffer = Charset.forName(charsetName).decode(byteBuffer);
-                char[] words = word.toCharArray();
-                char[] chars = charBuffer.array();
-                count += wordCount(words, chars);
-                byteBuffer.clear();
-            }
+            return (int) WordSearcher.compile(word).count(fileInputStream, charsetName);
         }catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            Probe.end(probe);
         }
-        return count;
-    }
-
-    private static int wordCount(char[] words, char[] chars) {
-        int count = 0;
-        int clen = chars.length;
-        int wlen = words.length;
-        for (int i = 0; i < chars.length;) {
-            char f = words[0];
-            boolean match = false;
-            if (f == chars[i]) {
-                int ci = i;
-                int wi = 0;
-                int n = 0;
-                while ( ci < clen && wi < wlen && chars[ci++] == words[wi++])
-                    n++;
-                if (n == wlen) {
-                    match = true;
-                    count++;
-                }
-            }
-            if (match)
-                i += wlen;
-            else
-                i++;
-        }
-        return count;
+        return 0;
     }
 
     public static int findWordCountPresent(FileInputStream fileInputStream,String word) {
@@ -788,28 +1013,45 @@ public class FileUtils {
      */
     public static int findWordCount(String srcStr,String specifiedWord) {
         char[] chars = srcStr.toCharArray();
-        char[] words = specifiedWord.toCharArray();
-        return wordCount(words,chars);
+        return WordSearcher.compile(specifiedWord).count(chars,0,chars.length);
     }
 
     public static int findWordCountPresent(String path,String word) {
         return findWordCountPresent(path, word,"utf-8");
     }
 
+    /**
+     * 一次扫描文件，统计多个字符串各自出现的次数（重叠的出现分别计数）
+     * 需要对多个文件反复查找同一批字符串时，应直接复用 KeywordMatcher.compile 的结果
+     * @param path 文件路径
+     * @param words 查找的字符串
+     * @param charsetName 字符集
+     * @return 字符串及出现的次数
+     * @throws IOException 异常
+     */
+    public static Map<String,Long> findWordsCountPresent(String path,Collection<String> words,String charsetName) throws IOException {
+        Probe probe = Probe.begin("findWordsCountPresent");
+        try {
+            return KeywordMatcher.compile(words).scan(path,charsetName).counts();
+        } finally {
+            Probe.end(probe);
+        }
+    }
+
+    public static Map<String,Long> findWordsCountPresent(String path,Collection<String> words) throws IOException {
+        return findWordsCountPresent(path,words,"utf-8");
+    }
+
     public static boolean isPresent(FileInputStream fileInputStream,String word,String charsetName) {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
-        FileChannel channel = fileInputStream.getChannel();
+        if (word == null || word.isEmpty())
+            return false;
+        Probe probe = Probe.begin("isPresent");
         try {
-            while (channel.read(byteBuffer) > 0) {
-                byteBuffer.flip();
-                CharBuffer charBuffer = Charset.forName(charsetName).decode(byteBuffer);
-                int count = findWordCount(charBuffer.toString(), word);
-                if (count > 0)
-                    return true;
-                byteBuffer.clear();
-            }
+            return WordSearcher.compile(word).isPresent(fileInputStream, charsetName);
         }catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            Probe.end(probe);
         }
        return false;
     }
@@ -844,66 +1086,12 @@ public class FileUtils {
         return isPresent(path,word,"utf-8");
     }
 
-    private static void record(boolean ignoreCase, Map<String, Long> map, String str) {
-        if (ignoreCase)
-            str = str.toLowerCase();
-        Long v = map.get(str);
-        if (v == null)
-            map.put(str,1L);
-        else
-            map.put(str,++v);
-    }
-
-    private static boolean isEnglish(String str) {
-        return str.matches("^[a-zA-Z]*");
-    }
-
-    private static boolean isChinese(String str) {
-        String regEx = "[\\u4e00-\\u9fa5]+";
-        Pattern p = Pattern.compile(regEx);
-        Matcher m = p.matcher(str);
-        if(m.find())
-            return true;
-        else
-            return false;
-    }
-
     /**
-     * 在中英混合的字符串中筛选出英文单词
-     * @param str 被筛选的字符串
-     * @return 英文单词集合
-     */
-    private static List<String> englishWordFilter(String str) {
-        //去掉换行符
-        str = str.replaceAll("\n","").replaceAll("\r","");
-        char[] chars = str.toCharArray();
-        List<String> english = new ArrayList<>();
-        //英文单词的第一个字母
-        int head = 0;
-        for (int i = 0,len = chars.length; i < len; i++) {
-            String value = String.valueOf(chars[i]);
-            if (isEnglish(value)) {
-                if (i == 0) continue;
-                char prevChar = chars[i - 1];
-                if (FileUtils.isChinese(String.valueOf(prevChar))) {
-                    head = i;
-                }
-            }else {
-                if (i == 0) {
-                    head++;
-                    continue;
-                }
-                char prevChar = chars[i - 1];
-                if (isEnglish(String.valueOf(prevChar))) {
-                    english.add(str.substring(head,i));
-                }
-                head = i + 1;
-            }
-            if (i == len -1 && head < i) {
-                english.add(str.substring(head,i + 1));
-            }
-        }
-        return english;
+     * 创建排除了换行和空格的字符直方图
+     * @return 直方图
+     */
+    static CharHistogram newCharHistogram() {
+        return new CharHistogram(SPECIAL_CHARS);
     }
 
 }
@@ -0,0 +1,312 @@
+package com.rainple.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @description: 倒排索引构建器，每个文件只分词一次，生成可以被 InvertedIndex 内存映射加载的索引文件。
+ * 增量更新时大小和修改时间都没有变化的文件直接复用旧索引中的记录，只重新分词变化的文件。
+ * 新索引写入临时文件后替换原索引文件，之前加载的 InvertedIndex 不会看到新内容；
+ * Windows 下被映射的文件不能被替换，重建或更新前需要关闭之前加载的实例。
+ * 构建时所有倒排记录都保存在堆中，生成的索引文件不能超过 2G；文件很多或很大时可以不记录位置，
+ * 每个（词项，文件）对只保存一个次数
+ * @author: rainple
+ * @create: 2026-10-18 10:36
+ **/
+public class IndexBuilder {
+
+    private final Charset charset;
+    private final boolean ignoreCase;
+    private final boolean storeOffsets;
+
+    /**
+     * 记录每次出现的位置
+     * @param charsetName 文件编码格式
+     * @param ignoreCase 英文单词是否忽略大小写
+     */
+    public IndexBuilder(String charsetName, boolean ignoreCase) {
+        this(charsetName, ignoreCase, true);
+    }
+
+    /**
+     * @param charsetName 文件编码格式
+     * @param ignoreCase 英文单词是否忽略大小写
+     * @param storeOffsets 是否记录每次出现的位置，不记录时索引只能查询次数
+     */
+    public IndexBuilder(String charsetName, boolean ignoreCase, boolean storeOffsets) {
+        if (charsetName == null || "".equals(charsetName))
+            charsetName = "utf-8";
+        this.charset = FileScanner.charset(charsetName);
+        this.ignoreCase = ignoreCase;
+        this.storeOffsets = storeOffsets;
+    }
+
+    /**
+     * 为文件集合重新生成索引
+     * @param files 文件
+     * @param indexFile 索引文件
+     * @return 加载好的索引
+     * @throws IOException 异常
+     */
+    public InvertedIndex build(Collection<File> files, File indexFile) throws IOException {
+        return write(files, null, indexFile);
+    }
+
+    /**
+     * 增量更新索引，索引文件不存在、大小写设置或是否记录位置不同时完整重建。集合中没有的文件会从索引中移除。
+     * 旧索引读入堆内存而不映射，替换索引文件时不占用它
+     * @param files 当前的文件集合
+     * @param indexFile 索引文件
+     * @return 加载好的索引
+     * @throws IOException 异常
+     */
+    public InvertedIndex update(Collection<File> files, File indexFile) throws IOException {
+        InvertedIndex old = null;
+        if (indexFile.isFile()) {
+            old = InvertedIndex.read(indexFile);
+            if (old.isIgnoreCase() != ignoreCase || old.hasOffsets() != storeOffsets)
+                old = null;
+        }
+        return write(files, old, indexFile);
+    }
+
+    private InvertedIndex write(Collection<File> files, InvertedIndex old, File indexFile) throws IOException {
+        //去重并确定文件编号
+        Map<String, File> canonical = new LinkedHashMap<>();
+        for (File file : files)
+            canonical.put(file.getCanonicalPath(), file);
+        String[] paths = canonical.keySet().toArray(new String[0]);
+        long[] sizes = new long[paths.length];
+        long[] lastModified = new long[paths.length];
+        final Map<String, List<Posting>> postings = new HashMap<>();
+        final int[] reuse = old == null ? new int[0] : new int[old.fileCount()];
+        Arrays.fill(reuse, -1);
+        for (int id = 0; id < paths.length; id++) {
+            File file = canonical.get(paths[id]);
+            sizes[id] = file.length();
+            lastModified[id] = file.lastModified();
+            Integer oldId = old == null ? null : old.fileId(paths[id]);
+            if (oldId != null && old.size(oldId) == sizes[id] && old.lastModified(oldId) == lastModified[id])
+                reuse[oldId] = id;
+            else
+                tokenize(file, id, postings);
+        }
+        if (old != null) {
+            old.forEachPosting(new InvertedIndex.PostingVisitor() {
+                @Override
+                public void visit(String term, int fileId, int count, long[] offsets) {
+                    if (reuse[fileId] >= 0)
+                        posting(postings, term).add(new Posting(reuse[fileId], offsets, count));
+                }
+            });
+        }
+        File parent = indexFile.getAbsoluteFile().getParentFile();
+        File tmp = File.createTempFile(indexFile.getName(), ".tmp", parent);
+        try {
+            writeIndex(tmp, paths, sizes, lastModified, postings);
+            Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        return InvertedIndex.load(indexFile);
+    }
+
+    private void tokenize(File file, final int fileId, final Map<String, List<Posting>> postings) throws IOException {
+        final Map<String, Posting> terms = new HashMap<>();
+        final Tokenizer tokenizer = new Tokenizer(new Tokenizer.TokenHandler() {
+            @Override
+            public void onWord(char[] chars, int offset, int length, long position) {
+                String word = new String(chars, offset, length);
+                record(ignoreCase ? word.toLowerCase(Locale.ROOT) : word, position);
+            }
+
+            @Override
+            public void onChinese(char c, long position) {
+                record(String.valueOf(c), position);
+            }
+
+            private void record(String term, long position) {
+                Posting posting = terms.get(term);
+                if (posting == null) {
+                    posting = new Posting(fileId, storeOffsets ? new long[4] : null, 0);
+                    terms.put(term, posting);
+                }
+                posting.add(position);
+            }
+        });
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            FileScanner.scanChars(inputStream.getChannel(), charset, new FileScanner.CharHandler() {
+                @Override
+                public boolean handle(CharBuffer buffer) {
+                    tokenizer.feed(buffer);
+                    return true;
+                }
+            });
+        }
+        tokenizer.finish();
+        for (Map.Entry<String, Posting> entry : terms.entrySet())
+            posting(postings, entry.getKey()).add(entry.getValue());
+    }
+
+    private static List<Posting> posting(Map<String, List<Posting>> postings, String term) {
+        List<Posting> list = postings.get(term);
+        if (list == null) {
+            list = new ArrayList<>(2);
+            postings.put(term, list);
+        }
+        return list;
+    }
+
+    private void writeIndex(File file, String[] paths, long[] sizes, long[] lastModified,
+                            Map<String, List<Posting>> postings) throws IOException {
+        //词项按UTF-8字节排序，与查询时的比较方式一致
+        final List<byte[]> terms = new ArrayList<>(postings.size());
+        final Map<byte[], List<Posting>> byBytes = new HashMap<>(postings.size() * 2);
+        for (Map.Entry<String, List<Posting>> entry : postings.entrySet()) {
+            byte[] bytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            terms.add(bytes);
+            byBytes.put(bytes, entry.getValue());
+        }
+        Collections.sort(terms, new Comparator<byte[]>() {
+            @Override
+            public int compare(byte[] o1, byte[] o2) {
+                return InvertedIndex.compareBytes(o1, o2);
+            }
+        });
+        long[] postingPositions = new long[terms.size()];
+        long[] totals = new long[terms.size()];
+        int[] fileCounts = new int[terms.size()];
+        long fileTableOffset = InvertedIndex.HEADER_SIZE;
+        long postingsOffset;
+        long termHeapOffset;
+        long directoryOffset;
+        try (CountingOutput out = new CountingOutput(file)) {
+            out.write(new byte[InvertedIndex.HEADER_SIZE]);
+            for (int i = 0; i < paths.length; i++) {
+                byte[] path = paths[i].getBytes(StandardCharsets.UTF_8);
+                out.writeLong(sizes[i]);
+                out.writeLong(lastModified[i]);
+                out.writeInt(path.length);
+                out.write(path);
+            }
+            postingsOffset = out.position();
+            for (int t = 0; t < terms.size(); t++) {
+                List<Posting> list = byBytes.get(terms.get(t));
+                Collections.sort(list, new Comparator<Posting>() {
+                    @Override
+                    public int compare(Posting o1, Posting o2) {
+                        return Integer.compare(o1.fileId, o2.fileId);
+                    }
+                });
+                postingPositions[t] = out.position();
+                fileCounts[t] = list.size();
+                int lastId = 0;
+                for (Posting posting : list) {
+                    out.writeVarLong(posting.fileId - lastId);
+                    out.writeVarLong(posting.count);
+                    lastId = posting.fileId;
+                    long last = 0;
+                    for (int i = 0; storeOffsets && i < posting.count; i++) {
+                        out.writeVarLong(posting.offsets[i] - last);
+                        last = posting.offsets[i];
+                    }
+                    totals[t] += posting.count;
+                }
+            }
+            termHeapOffset = out.position();
+            for (byte[] term : terms)
+                out.write(term);
+            directoryOffset = out.position();
+            int heapPosition = 0;
+            for (int t = 0; t < terms.size(); t++) {
+                out.writeInt(heapPosition);
+                out.writeInt(terms.get(t).length);
+                out.writeInt(fileCounts[t]);
+                out.writeLong(postingPositions[t]);
+                out.writeLong(totals[t]);
+                heapPosition += terms.get(t).length;
+            }
+            if (out.position() >= Integer.MAX_VALUE)
+                throw new IOException("index file too large, the limit is 2G" + (storeOffsets ? ", build without offsets to shrink it" : ""));
+        }
+        try (RandomAccessFile header = new RandomAccessFile(file, "rw")) {
+            header.writeInt(InvertedIndex.MAGIC);
+            header.writeInt(InvertedIndex.VERSION);
+            header.writeInt((ignoreCase ? InvertedIndex.FLAG_IGNORE_CASE : 0) | (storeOffsets ? 0 : InvertedIndex.FLAG_NO_OFFSETS));
+            header.writeInt(paths.length);
+            header.writeInt(terms.size());
+            header.writeLong(fileTableOffset);
+            header.writeLong(postingsOffset);
+            header.writeLong(termHeapOffset);
+            header.writeLong(directoryOffset);
+        }
+    }
+
+    /**
+     * 一个词项在一个文件中的出现次数和位置，不记录位置时 offsets 为null
+     */
+    private static final class Posting {
+
+        final int fileId;
+        long[] offsets;
+        int count;
+
+        Posting(int fileId, long[] offsets, int count) {
+            this.fileId = fileId;
+            this.offsets = offsets;
+            this.count = count;
+        }
+
+        void add(long offset) {
+            if (offsets == null) {
+                count++;
+                return;
+            }
+            if (count == offsets.length)
+                offsets = Arrays.copyOf(offsets, count << 1);
+            offsets[count++] = offset;
+        }
+    }
+
+    /**
+     * 带 varint 编码的输出流，已写入的字节数即当前位置（超过 int 范围后停在 Integer.MAX_VALUE）
+     */
+    private static final class CountingOutput extends DataOutputStream {
+
+        CountingOutput(File file) throws IOException {
+            super(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+        }
+
+        long position() {
+            return size();
+        }
+
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+    }
+}
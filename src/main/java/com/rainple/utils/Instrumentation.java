@@ -0,0 +1,106 @@
+package com.rainple.utils;
+
+/**
+ * @description: 文件操作度量的全局开关。默认监听器为 OperationListener.NOOP，此时各操作只读取一次 volatile 变量，
+ * 不调用 System.nanoTime；注册监听器后，FileUtils 的统计、查找方法以及 TextAnalyzer 在结束时回调度量结果。
+ * 开启 JFR 后事件在操作开始时 begin、结束时 commit，事件的起止时间就是操作的起止时间。
+ * 嵌套调用只度量最外层的操作，ParallelAnalyzer 的并行扫描不度量
+ * @author: rainple
+ * @create: 2026-10-18 10:46
+ **/
+public final class Instrumentation {
+
+    private static final String JFR_LISTENER = "com.rainple.utils.JfrOperationListener";
+
+    private static volatile OperationListener listener = OperationListener.NOOP;
+    private static volatile EventRecorder recorder;
+
+    /**
+     * 跨越整个操作的事件，操作开始时创建，结束时提交
+     */
+    interface EventRecorder {
+
+        /**
+         * @param operation 操作名称
+         * @return 已经开始计时的事件，不需要记录时为null
+         */
+        Object begin(String operation);
+
+        /**
+         * @param event begin 返回的事件
+         * @param metrics 本次操作的度量结果
+         */
+        void commit(Object event, OperationMetrics metrics);
+    }
+
+    private Instrumentation() {
+    }
+
+    /**
+     * 设置监听器
+     * @param listener 监听器，为null时恢复为 NOOP
+     */
+    public static void setListener(OperationListener listener) {
+        Instrumentation.listener = listener == null ? OperationListener.NOOP : listener;
+    }
+
+    public static OperationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @return 是否注册了监听器或开启了 JFR
+     */
+    public static boolean isEnabled() {
+        return listener != OperationListener.NOOP || recorder != null;
+    }
+
+    /**
+     * 把度量结果作为 JFR 事件 com.rainple.utils.FileOperation 提交，与已注册的监听器同时生效。
+     * 需要运行在带有 jdk.jfr 模块的JDK上（JDK 11+ 或 8u262+）
+     * @return 当前JDK不支持 JFR 时返回 false
+     */
+    public static synchronized boolean enableFlightRecorder() {
+        if (recorder != null)
+            return true;
+        try {
+            recorder = (EventRecorder) Class.forName(JFR_LISTENER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 停止提交 JFR 事件，已经开始的操作结束时仍会提交
+     */
+    public static synchronized void disableFlightRecorder() {
+        recorder = null;
+    }
+
+    /**
+     * @return 开启 JFR 时的事件记录器，否则为null
+     */
+    static EventRecorder recorder() {
+        return recorder;
+    }
+
+    /**
+     * 提交事件并通知监听器。在操作的 finally 中调用，回调抛出的异常如果继续向外抛出，会覆盖操作本身的异常，
+     * 或者让已经成功的操作失败，所以直接丢弃；需要排查时由监听器自己记录
+     */
+    static void publish(EventRecorder recorder, Object event, OperationMetrics metrics) {
+        if (event != null) {
+            try {
+                recorder.commit(event, metrics);
+            } catch (RuntimeException ignored) {
+                //JFR 提交失败不影响监听器
+            }
+        }
+        try {
+            listener.onOperation(metrics);
+        } catch (RuntimeException ignored) {
+            //监听器的异常不影响操作本身的结果
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.rainple.utils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * @description: int 列表，元素存放在可增长的 int 数组中，不装箱，内存约为 List&lt;Integer&gt; 的五分之一。
+ * subList 和分区返回共享存储的视图，不复制数据，视图不能增删元素。非线程安全
+ * @author: rainple
+ * @create: 2026-10-18 11:05
+ **/
+public final class IntList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] array;
+    private final int offset;
+    private int size;
+    private final boolean view;
+
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity 初始容量
+     */
+    public IntList(int initialCapacity) {
+        this(new int[checkCapacity(initialCapacity)], 0, 0, false);
+    }
+
+    private IntList(int[] array, int offset, int size, boolean view) {
+        this.array = array;
+        this.offset = offset;
+        this.size = size;
+        this.view = view;
+    }
+
+    /**
+     * 直接使用数组作为存储，不复制，对列表的修改会反映到数组上，扩容后不再共享
+     * @param array 数组
+     * @return 列表
+     */
+    public static IntList wrap(int... array) {
+        return wrap(array, array.length);
+    }
+
+    /**
+     * 直接使用数组的前 size 个元素作为存储，不复制
+     * @param array 数组
+     * @param size 元素数量
+     * @return 列表
+     */
+    public static IntList wrap(int[] array, int size) {
+        if (size < 0 || size > array.length)
+            throw new IllegalArgumentException("size out of range: " + size);
+        return new IntList(array, 0, size, false);
+    }
+
+    /**
+     * 从装箱的集合复制
+     * @param values 集合，不能包含 null
+     * @return 列表
+     */
+    public static IntList copyOf(Collection<Integer> values) {
+        IntList list = new IntList(values.size());
+        for (Integer value : values)
+            list.array[list.size++] = value;
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return array[offset + index];
+    }
+
+    public void set(int index, int value) {
+        checkIndex(index);
+        array[offset + index] = value;
+    }
+
+    public void add(int value) {
+        ensureCapacity(size + 1);
+        array[size++] = value;
+    }
+
+    public void addAll(int... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, array, size, values.length);
+        size += values.length;
+    }
+
+    /**
+     * 清空列表，不释放存储
+     */
+    public void clear() {
+        checkNotView();
+        size = 0;
+    }
+
+    /**
+     * 升序排序，大列表使用 Arrays.parallelSort
+     */
+    public void sort() {
+        if (size >= ListUtils.LARGE_SORT_THRESHOLD)
+            Arrays.parallelSort(array, offset, offset + size);
+        else
+            Arrays.sort(array, offset, offset + size);
+    }
+
+    /**
+     * 降序排序
+     */
+    public void sortDescending() {
+        sort();
+        for (int i = offset, j = offset + size - 1; i < j; i++, j--) {
+            int value = array[i];
+            array[i] = array[j];
+            array[j] = value;
+        }
+    }
+
+    /**
+     * 在升序排列的列表中二分查找
+     * @param key 查找的值
+     * @return 下标，没有找到时为 -(插入位置 + 1)
+     */
+    public int binarySearch(int key) {
+        int index = Arrays.binarySearch(array, offset, offset + size, key);
+        return index >= 0 ? index - offset : index + offset;
+    }
+
+    /**
+     * 返回 [from, to) 范围的视图，共享存储
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     * @return 视图
+     */
+    public IntList subList(int from, int to) {
+        if (from < 0 || to > size || from > to)
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", size: " + size);
+        return new IntList(array, offset + from, to - from, true);
+    }
+
+    /**
+     * 按固定大小分区，与 ListUtils.partition 相同，分区是共享存储的视图
+     * @param partitionSize 每个分区的元素数量
+     * @return 分区
+     */
+    public List<IntList> partition(int partitionSize) {
+        return new Partitions<IntList>(size, partitionSize, false) {
+            @Override
+            IntList slice(int from, int to) {
+                return IntList.this.subList(from, to);
+            }
+        };
+    }
+
+    /**
+     * 均匀地分成若干组，与 ListUtils.partitionInto 相同，分区是共享存储的视图
+     * @param groups 组数
+     * @return 分区
+     */
+    public List<IntList> partitionInto(int groups) {
+        return new Partitions<IntList>(size, groups, true) {
+            @Override
+            IntList slice(int from, int to) {
+                return IntList.this.subList(from, to);
+            }
+        };
+    }
+
+    /**
+     * @return 总和，按 long 累加不会溢出
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = offset, end = offset + size; i < end; i++)
+            sum += array[i];
+        return sum;
+    }
+
+    /**
+     * @return 数量、总和、最小值、最大值和平均值
+     */
+    public IntSummaryStatistics summary() {
+        IntSummaryStatistics statistics = new IntSummaryStatistics();
+        for (int i = offset, end = offset + size; i < end; i++)
+            statistics.accept(array[i]);
+        return statistics;
+    }
+
+    /**
+     * 返回底层数组，不复制，数组长度可能大于元素数量
+     * @return 数组
+     * @throws IllegalStateException 视图没有独立的数组
+     */
+    public int[] array() {
+        if (view)
+            throw new IllegalStateException("list is not backed by its own array");
+        return array;
+    }
+
+    /**
+     * @return 元素的副本
+     */
+    public int[] toArray() {
+        return Arrays.copyOfRange(array, offset, offset + size);
+    }
+
+    /**
+     * 定长的装箱视图，用于需要 List&lt;Integer&gt; 的接口，读写都会装箱拆箱
+     * @return 视图
+     */
+    public List<Integer> asList() {
+        return new Boxed();
+    }
+
+    private void ensureCapacity(int required) {
+        checkNotView();
+        if (required < 0 || required > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("list too large");
+        if (required <= array.length)
+            return;
+        int grown = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, array.length + (array.length >> 1) + 1L));
+        array = Arrays.copyOf(array, grown);
+    }
+
+    private static int checkCapacity(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("capacity is negative: " + capacity);
+        return capacity;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+
+    private void checkNotView() {
+        if (view)
+            throw new UnsupportedOperationException("cannot resize a view");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof IntList))
+            return false;
+        IntList other = (IntList) o;
+        if (size != other.size)
+            return false;
+        for (int i = 0; i < size; i++) {
+            if (array[offset + i] != other.array[other.offset + i])
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = offset, end = offset + size; i < end; i++)
+            h = 31 * h + array[i];
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                builder.append(", ");
+            builder.append(array[offset + i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    private final class Boxed extends AbstractList<Integer> implements RandomAccess {
+
+        @Override
+        public Integer get(int index) {
+            return IntList.this.get(index);
+        }
+
+        @Override
+        public Integer set(int index, Integer value) {
+            int old = IntList.this.get(index);
+            IntList.this.set(index, value);
+            return old;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
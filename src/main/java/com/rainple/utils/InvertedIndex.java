@@ -0,0 +1,415 @@
+package com.rainple.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @description: 通过内存映射加载的倒排索引，由 IndexBuilder 生成。词项为英文单词和单个中文字符，规则与 countEnglishWord、
+ * getChineseChars 相同。查询时在映射的词典上二分查找，不读取原文件。加载后只读，可在多个线程中并发查询。
+ * <p>
+ * 索引文件被 IndexBuilder 重建或更新后，已经加载的实例仍然读取旧的内容，需要重新加载。映射在 close 或垃圾回收前
+ * 一直有效，Windows 下被映射的索引文件不能被替换，更新前要先关闭持有的实例。close 会立即解除映射，
+ * 调用时不能还有其他线程在查询，关闭后再查询抛出 IllegalStateException
+ * <p>
+ * 索引文件整个映射为一个缓冲区，不能超过 2G。位置占索引的大部分空间，不需要 offsets 查询时用不记录位置的
+ * IndexBuilder 生成，索引大小和构建时的堆内存都只与（词项，文件）对的数量成正比
+ * <p>
+ * 文件格式（大端）：
+ * <pre>
+ * 头部    magic, version, flags, fileCount, termCount, fileTableOffset, postingsOffset, termHeapOffset, directoryOffset
+ * 文件表  每个文件：size(long) lastModified(long) pathLength(int) path(UTF-8)
+ * 倒排表  每个词项：每个文件：fileId增量(varint) count(varint) count个位置增量(varint，flags 含 FLAG_NO_OFFSETS 时没有)
+ * 词项区  所有词项的UTF-8字节依次拼接
+ * 词典    每个词项28字节：heapPosition(int) length(int) fileCount(int) postingsPosition(long) totalCount(long)，按词项字节升序
+ * </pre>
+ * @author: rainple
+ * @create: 2026-10-18 10:36
+ **/
+public final class InvertedIndex implements Closeable {
+
+    static final int MAGIC = 0x52494458;
+    static final int VERSION = 1;
+    static final int FLAG_IGNORE_CASE = 1;
+    static final int FLAG_NO_OFFSETS = 2;
+    static final int HEADER_SIZE = 4 * 5 + 8 * 4;
+    static final int DIRECTORY_ENTRY_SIZE = 4 * 3 + 8 * 2;
+
+    private volatile ByteBuffer buffer;
+    private final boolean mapped;
+    private final boolean ignoreCase;
+    private final boolean hasOffsets;
+    private final String[] paths;
+    private final long[] sizes;
+    private final long[] lastModified;
+    private final Map<String, Integer> fileIds;
+    private final int termCount;
+    private final int termHeapOffset;
+    private final int directoryOffset;
+
+    private InvertedIndex(ByteBuffer buffer, boolean mapped) throws IOException {
+        this.buffer = buffer;
+        this.mapped = mapped;
+        if (buffer.getInt(0) != MAGIC)
+            throw new IOException("not an index file");
+        if (buffer.getInt(4) != VERSION)
+            throw new IOException("unsupported index version: " + buffer.getInt(4));
+        this.ignoreCase = (buffer.getInt(8) & FLAG_IGNORE_CASE) != 0;
+        this.hasOffsets = (buffer.getInt(8) & FLAG_NO_OFFSETS) == 0;
+        int fileCount = buffer.getInt(12);
+        this.termCount = buffer.getInt(16);
+        int fileTableOffset = (int) buffer.getLong(20);
+        this.termHeapOffset = (int) buffer.getLong(36);
+        this.directoryOffset = (int) buffer.getLong(44);
+        this.paths = new String[fileCount];
+        this.sizes = new long[fileCount];
+        this.lastModified = new long[fileCount];
+        this.fileIds = new HashMap<>(fileCount * 2);
+        int position = fileTableOffset;
+        for (int i = 0; i < fileCount; i++) {
+            sizes[i] = buffer.getLong(position);
+            lastModified[i] = buffer.getLong(position + 8);
+            int length = buffer.getInt(position + 16);
+            byte[] bytes = new byte[length];
+            for (int j = 0; j < length; j++)
+                bytes[j] = buffer.get(position + 20 + j);
+            paths[i] = new String(bytes, StandardCharsets.UTF_8);
+            fileIds.put(paths[i], i);
+            position += 20 + length;
+        }
+    }
+
+    /**
+     * 加载索引文件
+     * @param file 索引文件
+     * @return 索引
+     * @throws IOException 异常
+     */
+    public static InvertedIndex load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = checkSize(channel.size());
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            try {
+                return new InvertedIndex(buffer, true);
+            } catch (IOException e) {
+                FileScanner.unmap(buffer);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 把索引文件整个读入堆内存，不映射文件，用于增量更新时读取旧索引
+     */
+    static InvertedIndex read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) checkSize(channel.size()));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0)
+                    throw new IOException("index file truncated");
+            }
+            buffer.clear();
+            return new InvertedIndex(buffer, false);
+        }
+    }
+
+    private static long checkSize(long size) throws IOException {
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("index file too large: " + size + " bytes, the limit is 2G");
+        if (size < HEADER_SIZE)
+            throw new IOException("not an index file");
+        return size;
+    }
+
+    /**
+     * 解除映射，释放对索引文件的占用。调用时不能有其他线程正在查询
+     */
+    @Override
+    public void close() {
+        ByteBuffer buffer = this.buffer;
+        this.buffer = null;
+        if (buffer != null && mapped)
+            FileScanner.unmap(buffer);
+    }
+
+    /**
+     * @return 是否忽略大小写
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * @return 是否记录了每次出现的位置，没有记录时不能调用 offsets
+     */
+    public boolean hasOffsets() {
+        return hasOffsets;
+    }
+
+    /**
+     * @return 词项数量
+     */
+    public int termCount() {
+        return termCount;
+    }
+
+    /**
+     * @return 索引中的文件数量
+     */
+    public int fileCount() {
+        return paths.length;
+    }
+
+    /**
+     * @param fileId 文件编号
+     * @return 文件的规范路径
+     */
+    public String path(int fileId) {
+        return paths[fileId];
+    }
+
+    /**
+     * 词项是否在任意文件中出现
+     * @param term 英文单词或单个中文字符
+     * @return true | false
+     */
+    public boolean isPresent(String term) {
+        return find(buffer(), term) >= 0;
+    }
+
+    /**
+     * 词项在所有文件中出现的总次数
+     * @param term 英文单词或单个中文字符
+     * @return 次数
+     */
+    public long count(String term) {
+        ByteBuffer buffer = buffer();
+        int entry = find(buffer, term);
+        return entry < 0 ? 0 : buffer.getLong(entry + 20);
+    }
+
+    /**
+     * 词项在指定文件中出现的次数
+     * @param term 英文单词或单个中文字符
+     * @param file 文件
+     * @return 次数，文件不在索引中时返回0
+     * @throws IOException 异常
+     */
+    public long count(String term, File file) throws IOException {
+        Integer fileId = fileIds.get(file.getCanonicalPath());
+        if (fileId == null)
+            return 0;
+        ByteBuffer buffer = buffer();
+        int entry = find(buffer, term);
+        if (entry < 0)
+            return 0;
+        int[] cursor = {(int) buffer.getLong(entry + 12)};
+        int files = buffer.getInt(entry + 8);
+        int id = 0;
+        for (int i = 0; i < files; i++) {
+            id += (int) readVarLong(buffer, cursor);
+            long count = readVarLong(buffer, cursor);
+            if (id == fileId)
+                return count;
+            if (id > fileId)
+                return 0;
+            skipOffsets(buffer, cursor, count);
+        }
+        return 0;
+    }
+
+    /**
+     * 词项在各文件中出现的次数
+     * @param term 英文单词或单个中文字符
+     * @return 文件路径及次数，按文件编号排列
+     */
+    public Map<String, Long> counts(String term) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        ByteBuffer buffer = buffer();
+        int entry = find(buffer, term);
+        if (entry < 0)
+            return result;
+        int[] cursor = {(int) buffer.getLong(entry + 12)};
+        int files = buffer.getInt(entry + 8);
+        int id = 0;
+        for (int i = 0; i < files; i++) {
+            id += (int) readVarLong(buffer, cursor);
+            long count = readVarLong(buffer, cursor);
+            result.put(paths[id], count);
+            skipOffsets(buffer, cursor, count);
+        }
+        return result;
+    }
+
+    /**
+     * 词项在指定文件中每次出现的位置（按字符计）
+     * @param term 英文单词或单个中文字符
+     * @param file 文件
+     * @return 位置，未出现时返回空数组
+     * @throws IOException 异常
+     * @throws UnsupportedOperationException 索引没有记录位置
+     */
+    public long[] offsets(String term, File file) throws IOException {
+        if (!hasOffsets)
+            throw new UnsupportedOperationException("index built without offsets");
+        Integer fileId = fileIds.get(file.getCanonicalPath());
+        ByteBuffer buffer = buffer();
+        int entry = fileId == null ? -1 : find(buffer, term);
+        if (entry < 0)
+            return new long[0];
+        int[] cursor = {(int) buffer.getLong(entry + 12)};
+        int files = buffer.getInt(entry + 8);
+        int id = 0;
+        for (int i = 0; i < files; i++) {
+            id += (int) readVarLong(buffer, cursor);
+            int count = (int) readVarLong(buffer, cursor);
+            long[] offsets = id == fileId ? new long[count] : null;
+            long offset = 0;
+            for (int j = 0; j < count; j++) {
+                offset += readVarLong(buffer, cursor);
+                if (offsets != null)
+                    offsets[j] = offset;
+            }
+            if (offsets != null)
+                return offsets;
+            if (id > fileId)
+                break;
+        }
+        return new long[0];
+    }
+
+    /**
+     * 遍历所有词项的倒排记录，用于增量更新。没有记录位置时 offsets 为null
+     */
+    void forEachPosting(PostingVisitor visitor) {
+        ByteBuffer buffer = buffer();
+        int[] cursor = new int[1];
+        for (int t = 0; t < termCount; t++) {
+            int entry = directoryOffset + t * DIRECTORY_ENTRY_SIZE;
+            byte[] bytes = new byte[buffer.getInt(entry + 4)];
+            int heap = termHeapOffset + buffer.getInt(entry);
+            for (int i = 0; i < bytes.length; i++)
+                bytes[i] = buffer.get(heap + i);
+            String term = new String(bytes, StandardCharsets.UTF_8);
+            cursor[0] = (int) buffer.getLong(entry + 12);
+            int files = buffer.getInt(entry + 8);
+            int id = 0;
+            for (int i = 0; i < files; i++) {
+                id += (int) readVarLong(buffer, cursor);
+                int count = (int) readVarLong(buffer, cursor);
+                long[] offsets = hasOffsets ? new long[count] : null;
+                long offset = 0;
+                for (int j = 0; offsets != null && j < count; j++) {
+                    offset += readVarLong(buffer, cursor);
+                    offsets[j] = offset;
+                }
+                visitor.visit(term, id, count, offsets);
+            }
+        }
+    }
+
+    interface PostingVisitor {
+        void visit(String term, int fileId, int count, long[] offsets);
+    }
+
+    long size(int fileId) {
+        return sizes[fileId];
+    }
+
+    long lastModified(int fileId) {
+        return lastModified[fileId];
+    }
+
+    Integer fileId(String canonicalPath) {
+        return fileIds.get(canonicalPath);
+    }
+
+    private void skipOffsets(ByteBuffer buffer, int[] cursor, long count) {
+        if (!hasOffsets)
+            return;
+        for (long j = 0; j < count; j++)
+            readVarLong(buffer, cursor);
+    }
+
+    private ByteBuffer buffer() {
+        ByteBuffer buffer = this.buffer;
+        if (buffer == null)
+            throw new IllegalStateException("index is closed");
+        return buffer;
+    }
+
+    /**
+     * 在词典中二分查找
+     * @return 词典条目的位置，没有找到返回 -1
+     */
+    private int find(ByteBuffer buffer, String term) {
+        if (term == null || term.isEmpty())
+            return -1;
+        byte[] key = (ignoreCase ? term.toLowerCase(Locale.ROOT) : term).getBytes(StandardCharsets.UTF_8);
+        int lo = 0;
+        int hi = termCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int entry = directoryOffset + mid * DIRECTORY_ENTRY_SIZE;
+            int c = compare(buffer, termHeapOffset + buffer.getInt(entry), buffer.getInt(entry + 4), key);
+            if (c < 0)
+                lo = mid + 1;
+            else if (c > 0)
+                hi = mid - 1;
+            else
+                return entry;
+        }
+        return -1;
+    }
+
+    private static int compare(ByteBuffer buffer, int position, int length, byte[] key) {
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int c = (buffer.get(position + i) & 0xFF) - (key[i] & 0xFF);
+            if (c != 0)
+                return c;
+        }
+        return length - key.length;
+    }
+
+    /**
+     * 按无符号字节序比较，与词典的排序一致
+     */
+    static int compareBytes(byte[] a, byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int c = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (c != 0)
+                return c;
+        }
+        return a.length - b.length;
+    }
+
+    static long readVarLong(ByteBuffer buffer, int[] cursor) {
+        long value = 0;
+        int shift = 0;
+        int position = cursor[0];
+        byte b;
+        do {
+            b = buffer.get(position++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        cursor[0] = position;
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "InvertedIndex{files=" + paths.length + ", terms=" + termCount + ", ignoreCase=" + ignoreCase
+                + ", offsets=" + hasOffsets + '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.rainple.utils;
+
+/**
+ * @description: 把度量结果提交为 JFR 事件，只通过 Instrumentation.enableFlightRecorder 反射加载，
+ * 没有 jdk.jfr 的JDK上不会加载这个类。事件在操作开始时 begin，结束时填入度量结果后 commit
+ * @author: rainple
+ * @create: 2026-10-18 10:46
+ **/
+final class JfrOperationListener implements Instrumentation.EventRecorder {
+
+    @Override
+    public Object begin(String operation) {
+        FileOperationEvent event = new FileOperationEvent();
+        if (!event.isEnabled())
+            return null;
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commit(Object e, OperationMetrics metrics) {
+        FileOperationEvent event = (FileOperationEvent) e;
+        event.end();
+        if (!event.shouldCommit())
+            return;
+        event.bytesRead = metrics.getBytesRead();
+        event.charsDecoded = metrics.getCharsDecoded();
+        event.readNanos = metrics.getReadNanos();
+        event.decodeNanos = metrics.getDecodeNanos();
+        event.analyzeNanos = metrics.getAnalyzeNanos();
+        event.sortNanos = metrics.getSortNanos();
+        event.elapsedNanos = metrics.getElapsedNanos();
+        event.bytesPerSecond = (long) metrics.getBytesPerSecond();
+        event.commit();
+    }
+}
@@ -0,0 +1,238 @@
+package com.rainple.utils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+/**
+ * @description: 大集合的按键排序。每个元素的排序字段只读取一次，存入 long 数组（Date 存毫秒数，浮点数转换成保序的位模式，
+ * 其他 Comparable 类型换算成名次），与元素的位置拼成一个 long 后用 Arrays.parallelSort 并行排序，最后一次性重排集合。
+ * 位置作为低位参与比较，所以排序是稳定的；多个排序键从最后一个开始依次排序，结果与按 FieldComparator 顺序排序完全相同
+ * @author: rainple
+ * @create: 2026-10-18 10:59
+ **/
+final class KeySorter {
+
+    private static final int[] EMPTY = new int[0];
+
+    private KeySorter() {
+    }
+
+    /**
+     * 按比较器的排序键对集合排序
+     * @param list 集合
+     * @param comparator 比较器
+     * @return false 集合中有不同类的元素，没有排序，需要使用比较器排序
+     */
+    @SuppressWarnings("unchecked")
+    static boolean sort(List<?> list, FieldComparator comparator) {
+        Object[] elements = list.toArray();
+        Class<?> type = null;
+        for (Object element : elements) {
+            if (element == null)
+                continue;
+            if (type == null)
+                type = element.getClass();
+            else if (element.getClass() != type)
+                return false;
+        }
+        int[] order = new int[elements.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        if (type != null) {
+            for (int k = comparator.keys.length - 1; k >= 0; k--) {
+                FieldComparator.SortKey key = comparator.keys[k];
+                order = sort(elements, order, key, key.accessor(type));
+            }
+        }
+        ListIterator<Object> iterator = (ListIterator<Object>) list.listIterator();
+        for (int index : order) {
+            iterator.next();
+            iterator.set(elements[index]);
+        }
+        return true;
+    }
+
+    /**
+     * 按一个排序键对当前顺序做稳定排序
+     * @param order 元素下标的当前顺序
+     * @return 新的顺序
+     */
+    private static int[] sort(Object[] elements, int[] order, FieldComparator.SortKey key, FieldComparator.Accessor accessor) {
+        int n = order.length;
+        //不为 null 的值、为 null 的值和为 null 的元素在当前顺序中的位置，与比较器相同，null 元素排在 null 值的外侧。
+        //null 通常很少，两个 null 数组出现时才分配并按需扩大
+        int[] present = new int[n];
+        int[] nulls = EMPTY;
+        int[] nullElements = EMPTY;
+        int presentCount = 0;
+        int nullCount = 0;
+        int nullElementCount = 0;
+        long[] packed;
+        FieldComparator.PrimitiveAccessor primitive = accessor instanceof FieldComparator.PrimitiveAccessor
+                ? (FieldComparator.PrimitiveAccessor) accessor : null;
+        if (primitive != null || isNumeric(accessor.fieldType)) {
+            long[] keys = new long[n];
+            for (int p = 0; p < n; p++) {
+                Object element = elements[order[p]];
+                if (element == null) {
+                    nullElements = append(nullElements, nullElementCount++, p);
+                } else if (primitive != null) {
+                    keys[presentCount] = primitive.bits(element);
+                    present[presentCount++] = p;
+                } else {
+                    Object value = accessor.get(element);
+                    if (value == null) {
+                        nulls = append(nulls, nullCount++, p);
+                    } else {
+                        keys[presentCount] = bits(value);
+                        present[presentCount++] = p;
+                    }
+                }
+            }
+            packed = pack(keys, presentCount, key.descending);
+        } else {
+            Object[] values = new Object[n];
+            for (int p = 0; p < n; p++) {
+                Object element = elements[order[p]];
+                Object value = element == null ? null : accessor.get(element);
+                if (element == null) {
+                    nullElements = append(nullElements, nullElementCount++, p);
+                } else if (value == null) {
+                    nulls = append(nulls, nullCount++, p);
+                } else {
+                    values[presentCount] = value;
+                    present[presentCount++] = p;
+                }
+            }
+            packed = rank(values, presentCount, key.descending);
+        }
+        Arrays.parallelSort(packed);
+        int[] result = new int[n];
+        int i = 0;
+        if (key.nullsFirst) {
+            for (int j = 0; j < nullElementCount; j++)
+                result[i++] = order[nullElements[j]];
+            for (int j = 0; j < nullCount; j++)
+                result[i++] = order[nulls[j]];
+        }
+        for (long value : packed)
+            result[i++] = order[present[(int) value]];
+        if (!key.nullsFirst) {
+            for (int j = 0; j < nullCount; j++)
+                result[i++] = order[nulls[j]];
+            for (int j = 0; j < nullElementCount; j++)
+                result[i++] = order[nullElements[j]];
+        }
+        return result;
+    }
+
+    /**
+     * 在下标 count 处放入 value，数组已满时扩大一倍
+     */
+    private static int[] append(int[] array, int count, int value) {
+        if (count == array.length)
+            array = Arrays.copyOf(array, Math.max(16, count * 2));
+        array[count] = value;
+        return array;
+    }
+
+    /**
+     * 键的范围不超过32位时直接把键和位置拼在一起，否则先换算成名次
+     */
+    private static long[] pack(long[] keys, int count, boolean descending) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int j = 0; j < count; j++) {
+            //取反后顺序颠倒，相等的键仍按位置排序，降序也是稳定的
+            long key = descending ? ~keys[j] : keys[j];
+            keys[j] = key;
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+        long[] packed = new long[count];
+        long range = max - min;
+        if (count > 0 && range >= 0 && range >>> 32 == 0) {
+            for (int j = 0; j < count; j++)
+                packed[j] = ((keys[j] - min) << 32 | j) ^ Long.MIN_VALUE;
+            return packed;
+        }
+        long[] sorted = Arrays.copyOf(keys, count);
+        Arrays.parallelSort(sorted);
+        int distinct = 0;
+        for (int j = 0; j < count; j++) {
+            if (j == 0 || sorted[j] != sorted[distinct - 1])
+                sorted[distinct++] = sorted[j];
+        }
+        for (int j = 0; j < count; j++)
+            packed[j] = (long) Arrays.binarySearch(sorted, 0, distinct, keys[j]) << 32 | j;
+        return packed;
+    }
+
+    /**
+     * 按 Comparable 的顺序换算成名次，相等的值名次相同。先按 equals 去重，只对不同的值排序
+     */
+    private static long[] rank(Object[] values, int count, boolean descending) {
+        Map<Object, Integer> ids = new HashMap<>();
+        int[] idOf = new int[count];
+        for (int j = 0; j < count; j++) {
+            Integer id = ids.get(values[j]);
+            if (id == null) {
+                id = ids.size();
+                ids.put(values[j], id);
+            }
+            idOf[j] = id;
+        }
+        Object[] distinct = new Object[ids.size()];
+        for (Map.Entry<Object, Integer> entry : ids.entrySet())
+            distinct[entry.getValue()] = entry.getKey();
+        Integer[] sorted = new Integer[distinct.length];
+        for (int id = 0; id < sorted.length; id++)
+            sorted[id] = id;
+        final Object[] keys = distinct;
+        Arrays.parallelSort(sorted, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return FieldComparator.SortKey.compareValues(keys[o1], keys[o2]);
+            }
+        });
+        //equals 不同但 compareTo 相等的值（如 BigDecimal 的 2.0 和 2.00）名次相同
+        int[] rankOf = new int[distinct.length];
+        int rank = -1;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || FieldComparator.SortKey.compareValues(distinct[sorted[i]], distinct[sorted[i - 1]]) != 0)
+                rank++;
+            rankOf[sorted[i]] = rank;
+        }
+        long[] packed = new long[count];
+        for (int j = 0; j < count; j++) {
+            long r = rankOf[idOf[j]];
+            packed[j] = (descending ? rank - r : r) << 32 | j;
+        }
+        return packed;
+    }
+
+    private static boolean isNumeric(Class<?> type) {
+        return type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+                || type == Character.class || type == Boolean.class || type == Double.class || type == Float.class
+                || type == Date.class;
+    }
+
+    private static long bits(Object value) {
+        if (value instanceof Double)
+            return FieldComparator.Accessor.bits(((Double) value).doubleValue());
+        if (value instanceof Float)
+            return FieldComparator.Accessor.bits(((Float) value).floatValue());
+        if (value instanceof Number)
+            return ((Number) value).longValue();
+        if (value instanceof Character)
+            return (Character) value;
+        if (value instanceof Boolean)
+            return (Boolean) value ? 1 : 0;
+        return ((Date) value).getTime();
+    }
+}
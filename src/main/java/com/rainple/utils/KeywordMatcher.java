@@ -0,0 +1,406 @@
+package com.rainple.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @description: 多关键词匹配器（Aho-Corasick自动机），一次构建后扫描一遍文件即可得到每个关键词的出现次数和首次出现位置。
+ * 构建完成后不可变，可以在多个线程、多个文件之间复用。重叠的出现会分别计数，例如在 aaa 中 aa 出现2次
+ * @author: rainple
+ * @create: 2026-10-18 10:30
+ **/
+public final class KeywordMatcher {
+
+    private static final int ROOT = 0;
+
+    private final String[] keywords;
+    private final boolean ignoreCase;
+    /**
+     * 根节点的转移表，按字符直接下标
+     */
+    private final int[] rootNext;
+    /**
+     * 其他节点的转移，CSR格式：节点 s 的边为 edgeChar/edgeTarget 中 [edgeStart[s], edgeStart[s + 1]) 的部分，按字符升序
+     */
+    private final int[] edgeStart;
+    private final char[] edgeChar;
+    private final int[] edgeTarget;
+    private final int[] fail;
+    /**
+     * 节点对应的关键词编号，不是关键词结尾时为 -1
+     */
+    private final int[] output;
+    /**
+     * 失败链上下一个有输出的节点，没有时为 ROOT
+     */
+    private final int[] dictLink;
+    private final int[] lengths;
+
+    private KeywordMatcher(String[] keywords, boolean ignoreCase, int[] rootNext, int[] edgeStart, char[] edgeChar,
+                           int[] edgeTarget, int[] fail, int[] output, int[] dictLink) {
+        this.keywords = keywords;
+        this.ignoreCase = ignoreCase;
+        this.rootNext = rootNext;
+        this.edgeStart = edgeStart;
+        this.edgeChar = edgeChar;
+        this.edgeTarget = edgeTarget;
+        this.fail = fail;
+        this.output = output;
+        this.dictLink = dictLink;
+        this.lengths = new int[keywords.length];
+        for (int i = 0; i < keywords.length; i++)
+            lengths[i] = keywords[i].length();
+    }
+
+    /**
+     * 构建匹配器，区分大小写
+     * @param keywords 关键词，重复的关键词只保留一个
+     * @return 匹配器
+     */
+    public static KeywordMatcher compile(Collection<String> keywords) {
+        return compile(keywords, false);
+    }
+
+    /**
+     * 构建匹配器
+     * @param keywords 关键词，重复的关键词只保留一个
+     * @param ignoreCase 是否忽略大小写
+     * @return 匹配器
+     */
+    public static KeywordMatcher compile(Collection<String> keywords, boolean ignoreCase) {
+        if (keywords == null || keywords.isEmpty())
+            throw new IllegalArgumentException("keywords is empty");
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.isEmpty())
+                throw new IllegalArgumentException("keyword is empty");
+            String key = ignoreCase ? foldCase(keyword) : keyword;
+            if (!ids.containsKey(key))
+                ids.put(key, ids.size());
+        }
+        //构建字典树
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> out = new ArrayList<>();
+        trie.add(new TreeMap<Character, Integer>());
+        out.add(-1);
+        for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+            int state = ROOT;
+            String key = entry.getKey();
+            for (int i = 0; i < key.length(); i++) {
+                Integer next = trie.get(state).get(key.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<Character, Integer>());
+                    out.add(-1);
+                    trie.get(state).put(key.charAt(i), next);
+                }
+                state = next;
+            }
+            out.set(state, entry.getValue());
+        }
+        int n = trie.size();
+        int edges = 0;
+        for (TreeMap<Character, Integer> node : trie)
+            edges += node.size();
+        int[] edgeStart = new int[n + 1];
+        char[] edgeChar = new char[edges];
+        int[] edgeTarget = new int[edges];
+        int[] output = new int[n];
+        for (int s = 0, e = 0; s < n; s++) {
+            edgeStart[s] = e;
+            output[s] = out.get(s);
+            for (Map.Entry<Character, Integer> edge : trie.get(s).entrySet()) {
+                edgeChar[e] = edge.getKey();
+                edgeTarget[e++] = edge.getValue();
+            }
+        }
+        edgeStart[n] = edges;
+        int[] rootNext = new int[Character.MAX_VALUE + 1];
+        for (Map.Entry<Character, Integer> edge : trie.get(ROOT).entrySet())
+            rootNext[edge.getKey()] = edge.getValue();
+        //按层次计算失败指针和输出链
+        int[] fail = new int[n];
+        int[] dictLink = new int[n];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : trie.get(ROOT).values())
+            queue.add(child);
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (Map.Entry<Character, Integer> edge : trie.get(s).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+                int f = fail[s];
+                int next;
+                for (;;) {
+                    next = f == ROOT ? rootNext[c] : find(edgeStart, edgeChar, edgeTarget, f, c);
+                    if (next >= 0 || f == ROOT)
+                        break;
+                    f = fail[f];
+                }
+                fail[child] = next > 0 ? next : ROOT;
+                dictLink[child] = output[fail[child]] >= 0 ? fail[child] : dictLink[fail[child]];
+                queue.add(child);
+            }
+        }
+        String[] words = ids.keySet().toArray(new String[0]);
+        return new KeywordMatcher(words, ignoreCase, rootNext, edgeStart, edgeChar, edgeTarget, fail, output, dictLink);
+    }
+
+    /**
+     * 与扫描时相同，按字符逐个转为小写。String.toLowerCase 受默认语言环境影响，
+     * 且可能改变长度（如 'İ'），会与逐字符折叠后的文本对不上
+     */
+    private static String foldCase(String keyword) {
+        char[] chars = keyword.toCharArray();
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = Character.toLowerCase(chars[i]);
+        return new String(chars);
+    }
+
+    private static int find(int[] edgeStart, char[] edgeChar, int[] edgeTarget, int state, char c) {
+        int lo = edgeStart[state];
+        int hi = edgeStart[state + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = edgeChar[mid];
+            if (m < c)
+                lo = mid + 1;
+            else if (m > c)
+                hi = mid - 1;
+            else
+                return edgeTarget[mid];
+        }
+        return -1;
+    }
+
+    /**
+     * @return 关键词数量（去重后）
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    /**
+     * @param id 关键词编号
+     * @return 关键词，忽略大小写时为小写形式
+     */
+    public String keyword(int id) {
+        return keywords[id];
+    }
+
+    /**
+     * 扫描文件，统计每个关键词的出现次数和首次出现位置
+     * @param inputStream 文件输入流
+     * @param charsetName 字符集
+     * @return 匹配结果
+     * @throws IOException 异常
+     */
+    public Result scan(FileInputStream inputStream, String charsetName) throws IOException {
+        final Session session = newSession();
+        FileScanner.scanChars(inputStream.getChannel(), FileScanner.charset(charsetName), new FileScanner.CharHandler() {
+            @Override
+            public boolean handle(CharBuffer buffer) {
+                int offset = buffer.arrayOffset();
+                session.feed(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+                return true;
+            }
+        });
+        return session.result();
+    }
+
+    public Result scan(File file, String charsetName) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            return scan(inputStream, charsetName);
+        }
+    }
+
+    public Result scan(String path, String charsetName) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(path)) {
+            return scan(inputStream, charsetName);
+        }
+    }
+
+    /**
+     * 文件中是否出现任意一个关键词，找到第一个即停止扫描
+     * @param path 文件路径
+     * @param charsetName 字符集
+     * @return true | false
+     * @throws IOException 异常
+     */
+    public boolean containsAny(String path, String charsetName) throws IOException {
+        final Session session = newSession();
+        try (FileInputStream inputStream = new FileInputStream(path)) {
+            FileScanner.scanChars(inputStream.getChannel(), FileScanner.charset(charsetName), new FileScanner.CharHandler() {
+                @Override
+                public boolean handle(CharBuffer buffer) {
+                    int offset = buffer.arrayOffset();
+                    return !session.feedUntilMatch(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+                }
+            });
+        }
+        return session.matched > 0;
+    }
+
+    /**
+     * 创建一次流式匹配会话，会话有状态，非线程安全
+     * @return 会话
+     */
+    public Session newSession() {
+        return new Session();
+    }
+
+    /**
+     * 流式匹配会话，可以分多次输入，跨越输入边界的关键词也能匹配到
+     */
+    public final class Session {
+
+        private final long[] counts = new long[keywords.length];
+        private final long[] firstOffsets = new long[keywords.length];
+        private int state = ROOT;
+        private long position;
+        private long matched;
+
+        private Session() {
+            Arrays.fill(firstOffsets, -1);
+        }
+
+        /**
+         * 输入字符数组中的一段
+         * @param chars 字符数组
+         * @param from 起始下标（包含）
+         * @param to 结束下标（不包含）
+         */
+        public void feed(char[] chars, int from, int to) {
+            feed(chars, from, to, false);
+        }
+
+        /**
+         * 输入字符数组中的一段，匹配到任意关键词时立即返回
+         * @return 是否匹配到关键词
+         */
+        boolean feedUntilMatch(char[] chars, int from, int to) {
+            return feed(chars, from, to, true);
+        }
+
+        private boolean feed(char[] chars, int from, int to, boolean stopOnMatch) {
+            int s = state;
+            long base = position - from;
+            for (int i = from; i < to; i++) {
+                char c = chars[i];
+                if (ignoreCase)
+                    c = Character.toLowerCase(c);
+                s = next(s, c);
+                int o = output[s] >= 0 ? s : dictLink[s];
+                while (o != ROOT) {
+                    int id = output[o];
+                    counts[id]++;
+                    matched++;
+                    if (firstOffsets[id] < 0)
+                        firstOffsets[id] = base + i + 1 - lengths[id];
+                    o = dictLink[o];
+                }
+                if (stopOnMatch && matched > 0) {
+                    state = s;
+                    position = base + i + 1;
+                    return true;
+                }
+            }
+            state = s;
+            position = base + to;
+            return false;
+        }
+
+        private int next(int s, char c) {
+            while (s != ROOT) {
+                int next = find(edgeStart, edgeChar, edgeTarget, s, c);
+                if (next >= 0)
+                    return next;
+                s = fail[s];
+            }
+            return rootNext[c];
+        }
+
+        /**
+         * @return 当前的匹配结果
+         */
+        public Result result() {
+            return new Result(keywords, counts.clone(), firstOffsets.clone());
+        }
+    }
+
+    /**
+     * 匹配结果
+     */
+    public static final class Result {
+
+        private final String[] keywords;
+        private final long[] counts;
+        private final long[] firstOffsets;
+
+        private Result(String[] keywords, long[] counts, long[] firstOffsets) {
+            this.keywords = keywords;
+            this.counts = counts;
+            this.firstOffsets = firstOffsets;
+        }
+
+        /**
+         * @param id 关键词编号
+         * @return 出现次数
+         */
+        public long count(int id) {
+            return counts[id];
+        }
+
+        /**
+         * @param id 关键词编号
+         * @return 首次出现时第一个字符的位置（按字符计），未出现返回 -1
+         */
+        public long firstOffset(int id) {
+            return firstOffsets[id];
+        }
+
+        /**
+         * @return 关键词及其出现次数，保持构建时的顺序
+         */
+        public Map<String, Long> counts() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (int i = 0; i < keywords.length; i++)
+                map.put(keywords[i], counts[i]);
+            return map;
+        }
+
+        /**
+         * @return 出现过的关键词及其首次出现位置
+         */
+        public Map<String, Long> firstOffsets() {
+            Map<String, Long> map = new HashMap<>();
+            for (int i = 0; i < keywords.length; i++) {
+                if (firstOffsets[i] >= 0)
+                    map.put(keywords[i], firstOffsets[i]);
+            }
+            return map;
+        }
+
+        /**
+         * @return 是否出现过任意关键词
+         */
+        public boolean anyPresent() {
+            for (long count : counts) {
+                if (count > 0)
+                    return true;
+            }
+            return false;
+        }
+    }
+}
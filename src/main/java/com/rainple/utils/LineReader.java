@@ -0,0 +1,485 @@
+package com.rainple.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * @description: 按行读取文件，按映射窗口遍历，每一行以可复用的 Line 视图交给调用者，不为每一行创建 String。
+ * 行结束符为 \n、\r\n 或单独的 \r，跨越窗口边界的行会从行首重新映射，超过窗口大小的行会扩大窗口；
+ * 小于 FileScanner 映射阈值的文件按块读入复用的缓冲区。
+ * Stream 形式可以在行边界处切分后并行处理。只支持 ASCII 兼容的字符集（utf-8、gbk 等），不支持 utf-16
+ * @author: rainple
+ * @create: 2026-10-18 11:19
+ **/
+public final class LineReader implements Closeable {
+
+    /**
+     * 切分后每一部分的最小字节数
+     */
+    static final long MIN_SPLIT_SIZE = 1024 * 1024;
+
+    private static final int ALIGN_BUFFER_SIZE = 4096;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final Closeable owner;
+
+    /**
+     * 行处理器
+     */
+    public interface LineHandler {
+        /**
+         * 处理一行
+         * @param line 行，仅在本次回调内有效，需要保留时调用 toString
+         * @return true 继续读取 | false 停止读取
+         * @throws IOException 异常
+         */
+        boolean handle(Line line) throws IOException;
+    }
+
+    /**
+     * @param file 文件
+     * @param charsetName 编码格式，为null时为utf-8
+     * @throws IOException 异常
+     */
+    public LineReader(File file, String charsetName) throws IOException {
+        Charset charset = checkCharset(FileScanner.charset(charsetName));
+        FileInputStream inputStream = new FileInputStream(file);
+        this.channel = inputStream.getChannel();
+        this.charset = charset;
+        this.owner = inputStream;
+    }
+
+    /**
+     * 读取调用者打开的通道，close 时不关闭通道
+     * @param channel 文件通道
+     * @param charset 字符集
+     */
+    public LineReader(FileChannel channel, Charset charset) {
+        this.channel = channel;
+        this.charset = checkCharset(charset);
+        this.owner = null;
+    }
+
+    private static Charset checkCharset(Charset charset) {
+        if (!ParallelAnalyzer.isSplittable(charset))
+            throw new IllegalArgumentException("line reading needs an ASCII-compatible charset: " + charset);
+        return charset;
+    }
+
+    /**
+     * 依次处理文件中的每一行
+     * @param handler 行处理器
+     * @return 处理的行数
+     * @throws IOException 异常
+     */
+    public long forEach(LineHandler handler) throws IOException {
+        Cursor cursor = new Cursor(channel, charset, 0, channel.size());
+        long lines = 0;
+        while (cursor.next()) {
+            lines++;
+            if (!handler.handle(cursor.line))
+                break;
+        }
+        return lines;
+    }
+
+    /**
+     * 可以在行边界处切分的 Spliterator，每个切分各自复用一个 Line
+     * @return spliterator
+     * @throws IOException 异常
+     */
+    public Spliterator<Line> spliterator() throws IOException {
+        return new LineSpliterator(channel, charset, 0, channel.size());
+    }
+
+    /**
+     * 行的流，调用 parallel 后按行边界切分并行处理。元素是复用的视图，收集前需要转换成 String
+     * @return 流，不负责关闭读取器
+     * @throws IOException 异常
+     */
+    public Stream<Line> lines() throws IOException {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (owner != null)
+            owner.close();
+    }
+
+    /**
+     * 文件中的一行，不包含行结束符。字节直接来自映射窗口，字符在第一次访问时才解码，
+     * 纯 ASCII 的行不需要解码。同一个实例会被下一行复用
+     */
+    public static final class Line implements CharSequence {
+
+        private final Charset charset;
+        private CharsetDecoder decoder;
+        private ByteBuffer window;
+        private ByteBuffer view;
+        private ByteBuffer source;
+        private int start;
+        private int end;
+        private long offset;
+        private CharBuffer chars;
+        private byte[] scratch;
+        //-1 未检查 | 0 纯 ASCII | 1 已解码到 chars
+        private int state;
+
+        Line(Charset charset) {
+            this.charset = charset;
+        }
+
+        void window(ByteBuffer window) {
+            this.window = window;
+            this.view = window.asReadOnlyBuffer();
+            this.source = window.duplicate();
+        }
+
+        void set(int start, int end, long offset) {
+            this.start = start;
+            this.end = end;
+            this.offset = offset;
+            this.state = -1;
+        }
+
+        /**
+         * @return 行首在文件中的字节位置
+         */
+        public long offset() {
+            return offset;
+        }
+
+        /**
+         * @return 行的字节数
+         */
+        public int byteLength() {
+            return end - start;
+        }
+
+        public byte byteAt(int index) {
+            if (index < 0 || index >= end - start)
+                throw new IndexOutOfBoundsException("index: " + index + ", length: " + (end - start));
+            return window.get(start + index);
+        }
+
+        /**
+         * 行的字节视图，数据范围为 position 到 limit，只读，仅在本次回调内有效
+         * @return 字节视图
+         */
+        public ByteBuffer bytes() {
+            view.limit(end);
+            view.position(start);
+            return view;
+        }
+
+        @Override
+        public int length() {
+            return decode() == 0 ? end - start : chars.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (decode() == 0) {
+                if (index < 0 || index >= end - start)
+                    throw new IndexOutOfBoundsException("index: " + index + ", length: " + (end - start));
+                return (char) window.get(start + index);
+            }
+            return chars.get(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            if (decode() == 1)
+                return chars.toString();
+            int length = end - start;
+            if (window.hasArray())
+                return new String(window.array(), window.arrayOffset() + start, length, StandardCharsets.ISO_8859_1);
+            if (scratch == null || scratch.length < length)
+                scratch = new byte[Math.max(length, 256)];
+            source.limit(end);
+            source.position(start);
+            source.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * 检查是否为纯 ASCII，不是时解码到复用的字符缓冲区
+         */
+        private int decode() {
+            if (state >= 0)
+                return state;
+            int i = start;
+            while (i + 8 <= end && (window.getLong(i) & 0x8080808080808080L) == 0)
+                i += 8;
+            while (i < end && window.get(i) >= 0)
+                i++;
+            if (i == end)
+                return state = 0;
+            if (decoder == null) {
+                CodingErrorAction action = FileScanner.getMalformedInputAction();
+                decoder = charset.newDecoder().onMalformedInput(action).onUnmappableCharacter(action);
+            }
+            int capacity = (int) Math.min(Integer.MAX_VALUE, (long) Math.ceil((end - start) * (double) decoder.maxCharsPerByte()) + 1);
+            if (chars == null || chars.capacity() < capacity)
+                chars = CharBuffer.allocate(Math.max(capacity, 256));
+            chars.clear();
+            source.limit(end);
+            source.position(start);
+            decoder.reset();
+            try {
+                CoderResult result = decoder.decode(source, chars, true);
+                if (result.isError())
+                    result.throwException();
+                result = decoder.flush(chars);
+                if (result.isError())
+                    result.throwException();
+            } catch (CharacterCodingException e) {
+                throw new UncheckedIOException("malformed line at offset " + offset, e);
+            }
+            chars.flip();
+            return state = 1;
+        }
+    }
+
+    /**
+     * 在 [from, to) 区间内逐行移动，from 需要是行首。窗口从当前行首开始映射，
+     * 行跨越窗口末尾时从行首重新映射，一个窗口放不下一行时扩大窗口
+     */
+    private static final class Cursor {
+
+        private final FileChannel channel;
+        private final Probe probe = Probe.current();
+        final Line line;
+        private long end;
+        private long position;
+        private ByteBuffer window;
+        private long base;
+        private ByteBuffer heap;
+        private boolean mapFailed;
+
+        Cursor(FileChannel channel, Charset charset, long from, long to) {
+            this.channel = channel;
+            this.line = new Line(charset);
+            this.position = from;
+            this.end = to;
+            //小于映射阈值的区间直接按块读取
+            this.mapFailed = !FileScanner.shouldMap(to - from);
+        }
+
+        long position() {
+            return position;
+        }
+
+        boolean next() throws IOException {
+            if (position >= end)
+                return false;
+            //已经检查过的字节数，重新映射后从这里继续查找
+            int scanned = 0;
+            for (;;) {
+                if (window == null || position < base || position >= base + window.limit())
+                    fetch(position, FileScanner.getWindowSize());
+                if (position >= end)
+                    return false;
+                int from = (int) (position - base);
+                int limit = window.limit();
+                boolean last = base + limit >= end;
+                int i = from + scanned;
+                while (i + 8 <= limit && !hasLineBreak(window.getLong(i)))
+                    i += 8;
+                while (i < limit) {
+                    byte b = window.get(i);
+                    if (b == '\n' || b == '\r')
+                        break;
+                    i++;
+                }
+                if (i < limit) {
+                    int terminator = 1;
+                    if (window.get(i) == '\r') {
+                        if (i + 1 < limit)
+                            terminator = window.get(i + 1) == '\n' ? 2 : 1;
+                        else if (!last)
+                            terminator = 0;
+                    }
+                    if (terminator > 0) {
+                        line.set(from, i, position);
+                        position = base + i + terminator;
+                        return true;
+                    }
+                } else if (last) {
+                    line.set(from, limit, position);
+                    position = end;
+                    return true;
+                }
+                //行跨越了窗口末尾，从行首重新映射，窗口至少是行首之后部分的两倍
+                scanned = i - from;
+                if (limit - from >= Integer.MAX_VALUE / 2)
+                    throw new IOException("line at offset " + position + " is too long");
+                fetch(position, Math.max(FileScanner.getWindowSize(), (limit - from) * 2L));
+            }
+        }
+
+        /**
+         * 8个字节中是否可能有 \n 或 \r，有误报，没有漏报
+         */
+        private static boolean hasLineBreak(long word) {
+            long lf = word ^ 0x0A0A0A0A0A0A0A0AL;
+            long cr = word ^ 0x0D0D0D0D0D0D0D0DL;
+            return ((((lf - 0x0101010101010101L) & ~lf) | ((cr - 0x0101010101010101L) & ~cr)) & 0x8080808080808080L) != 0;
+        }
+
+        private void fetch(long position, long length) throws IOException {
+            length = Math.min(length, end - position);
+            long start = Probe.now(probe);
+            ByteBuffer fetched = null;
+            if (!mapFailed) {
+                try {
+                    fetched = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                } catch (IOException | UnsupportedOperationException e) {
+                    mapFailed = true;
+                }
+            }
+            if (fetched == null) {
+                if (heap == null || heap.capacity() < length)
+                    heap = ByteBuffer.allocate((int) length);
+                heap.clear();
+                heap.limit((int) length);
+                while (heap.hasRemaining()) {
+                    if (channel.read(heap, position + heap.position()) < 0)
+                        break;
+                }
+                heap.flip();
+                fetched = heap;
+                //文件变短了，读到的末尾就是区间的末尾
+                if (heap.limit() < length)
+                    end = position + heap.limit();
+            }
+            if (probe != null) {
+                probe.readNanos += System.nanoTime() - start;
+                probe.bytesRead += fetched.limit();
+            }
+            window = fetched;
+            base = position;
+            line.window(fetched);
+        }
+    }
+
+    /**
+     * 按行边界切分的 Spliterator，开始遍历后不再切分
+     */
+    private static final class LineSpliterator implements Spliterator<Line> {
+
+        private final FileChannel channel;
+        private final Charset charset;
+        private long from;
+        private final long to;
+        private Cursor cursor;
+
+        LineSpliterator(FileChannel channel, Charset charset, long from, long to) {
+            this.channel = channel;
+            this.charset = charset;
+            this.from = from;
+            this.to = to;
+        }
+
+        private Cursor cursor() {
+            if (cursor == null)
+                cursor = new Cursor(channel, charset, from, to);
+            return cursor;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Line> action) {
+            Cursor cursor = cursor();
+            try {
+                if (!cursor.next())
+                    return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            action.accept(cursor.line);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Line> action) {
+            Cursor cursor = cursor();
+            try {
+                while (cursor.next())
+                    action.accept(cursor.line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Spliterator<Line> trySplit() {
+            if (cursor != null || to - from < 2 * MIN_SPLIT_SIZE)
+                return null;
+            long boundary;
+            try {
+                boundary = align(from + (to - from) / 2);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (boundary >= to)
+                return null;
+            LineSpliterator prefix = new LineSpliterator(channel, charset, from, boundary);
+            from = boundary;
+            return prefix;
+        }
+
+        /**
+         * 从指定位置开始向后寻找第一个 \n，返回其后一个位置，\r\n 不会被拆开
+         */
+        private long align(long position) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(ALIGN_BUFFER_SIZE);
+            while (position < to) {
+                buffer.clear();
+                if (to - position < buffer.capacity())
+                    buffer.limit((int) (to - position));
+                int n = channel.read(buffer, position);
+                if (n <= 0)
+                    return to;
+                for (int i = 0; i < n; i++) {
+                    if (buffer.get(i) == '\n')
+                        return position + i + 1;
+                }
+                position += n;
+            }
+            return to;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - (cursor == null ? from : cursor.position());
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
@@ -1,9 +1,6 @@
 package com.rainple.utils;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -13,6 +10,11 @@ import java.util.List;
  **/
 public class ListUtils {
 
+    /**
+     * 元素数量达到该值时，排序字段只读取一次并行排序
+     */
+    public static final int LARGE_SORT_THRESHOLD = 1 << 16;
+
     /**
      * 对集合进行分组
      * @param src 原集合
@@ -59,6 +61,42 @@ public class ListUtils {
         return lists;
     }
 
+    /**
+     * 按固定大小把集合分区，返回的是视图，每次访问分区时才创建子列表，最后一个分区可能较小。
+     * 原集合结构变化（增删元素）后不能再使用
+     * @param list 原集合
+     * @param size 每个分区的元素数量
+     * @return 分区视图
+     */
+    public static <T> List<List<T>> partition(final List<T> list,int size) {
+        if (list == null)
+            throw new IllegalArgumentException("list is null");
+        return new Partitions<List<T>>(list.size(), size, false) {
+            @Override
+            List<T> slice(int from, int to) {
+                return list.subList(from, to);
+            }
+        };
+    }
+
+    /**
+     * 把集合均匀地分成若干组，各组元素数量最多相差1，多出的元素放在前面的组中。
+     * 元素数量少于组数时每组一个元素，不产生空组。返回的是视图，原集合结构变化后不能再使用
+     * @param list 原集合
+     * @param groups 组数
+     * @return 分区视图
+     */
+    public static <T> List<List<T>> partitionInto(final List<T> list,int groups) {
+        if (list == null)
+            throw new IllegalArgumentException("list is null");
+        return new Partitions<List<T>>(list.size(), groups, true) {
+            @Override
+            List<T> slice(int from, int to) {
+                return list.subList(from, to);
+            }
+        };
+    }
+
     /**
      * 判断集合是否为空
      * @param list 集合
@@ -78,45 +116,34 @@ public class ListUtils {
     }
 
     /**
-     * 根据list集合中对象某个属性进行排序，可排序字段类型：char、short、int、long、float、double、（包括封装类型）、String、Date
+     * 根据list集合中对象某个属性进行排序，可排序字段类型：基本类型（包括封装类型）、String、Date 等实现了 Comparable 的类型，
+     * 字段值为 null 的元素排在最后
      * @param list 排序集合
      * @param direct 排序顺序，默认降序
      * @param field 排序属性字段
      */
     public static void sort(List<?> list,final String direct,final String field) {
-        list.sort(new Comparator<Object>() {
-            int ret;
-            @Override
-            public int compare(Object o1, Object o2) {
-                try {
-                    Field f = o1.getClass().getDeclaredField(field);
-                    f.setAccessible(true);
-                    Class<?> type = f.getType();
-                    if (type == int.class || type == Integer.class)
-                        ret = Integer.compare(f.getInt(o1), f.getInt(o2));
-                    else if (type == double.class || type == Double.class)
-                        ret = Double.compare(f.getDouble(o1),f.getDouble(o2));
-                    else if (type == float.class || type == Float.class)
-                        ret = Float.compare(f.getFloat(o1),f.getFloat(o2));
-                    else if (type == short.class || type == Short.class)
-                        ret = Short.compare(f.getShort(o1),f.getShort(o2));
-                    else if (type == char.class || type == Character.class)
-                        ret = Character.compare(f.getChar(o1),f.getChar(o2));
-                    else if (type == long.class || type == Long.class)
-                        ret = Long.compare(f.getLong(o1),f.getLong(o2));
-                    else if (type == Date.class)
-                        ret = ((Date)f.get(o1)).compareTo((Date) f.get(o2));
-                    else if (type == String.class)
-                        ret = String.valueOf(o1).compareTo(String.valueOf(o2));
-                } catch (NoSuchFieldException | IllegalAccessException e) {
-                    e.printStackTrace();
-                }
-                if ("ASC".equalsIgnoreCase(direct))
-                    return ret;
-                else
-                    return -ret;
-            }
-        });
+        if (isBlank(list)) return;
+        sort(list, FieldComparator.of(field, !"ASC".equalsIgnoreCase(direct)));
+    }
+
+    /**
+     * 按多个属性排序，前一个属性相等时再比较下一个属性，稳定排序
+     * @param list 排序集合
+     * @param orderBy 排序表达式，如 "dept ASC, salary DESC"，不写方向时为升序，可以加 NULLS FIRST 让 null 排在前面
+     */
+    public static void sort(List<?> list,String orderBy) {
+        FieldComparator comparator = FieldComparator.parse(orderBy);
+        if (isBlank(list)) return;
+        sort(list, comparator);
+    }
+
+    /**
+     * 大集合先把排序字段取到基本类型数组中并行排序，集合中有不同类的元素时按比较器排序，两种方式结果相同
+     */
+    private static void sort(List<?> list, FieldComparator comparator) {
+        if (list.size() < LARGE_SORT_THRESHOLD || !KeySorter.sort(list, comparator))
+            list.sort(comparator);
     }
 
 }
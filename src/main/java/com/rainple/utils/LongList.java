@@ -0,0 +1,415 @@
+package com.rainple.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.RandomAccess;
+
+/**
+ * @description: long 列表，元素存放在可增长的 long 数组中，不装箱，内存约为 List&lt;Long&gt; 的四分之一。
+ * 也可以存放在堆外的直接缓冲区中（offHeap），适合超大的列表，不占用堆内存，排序也在缓冲区中原地进行。
+ * subList 和分区返回共享存储的视图，不复制数据，视图不能增删元素。非线程安全
+ * @author: rainple
+ * @create: 2026-10-18 11:05
+ **/
+public final class LongList {
+
+    /**
+     * 堆外存储最多的元素数量，受单个直接缓冲区大小的限制
+     */
+    public static final int MAX_OFF_HEAP_CAPACITY = Integer.MAX_VALUE / 8;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] array;
+    private ByteBuffer buffer;
+    private final int offset;
+    private int size;
+    private final boolean view;
+    /**
+     * 是否创建过共享存储的视图，共享后扩容时旧的直接缓冲区由垃圾回收释放
+     */
+    private boolean shared;
+
+    public LongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity 初始容量
+     */
+    public LongList(int initialCapacity) {
+        this(new long[checkCapacity(initialCapacity)], null, 0, 0, false);
+    }
+
+    private LongList(long[] array, ByteBuffer buffer, int offset, int size, boolean view) {
+        this.array = array;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.size = size;
+        this.view = view;
+    }
+
+    /**
+     * 直接使用数组作为存储，不复制，对列表的修改会反映到数组上，扩容后不再共享
+     * @param array 数组
+     * @return 列表
+     */
+    public static LongList wrap(long... array) {
+        return wrap(array, array.length);
+    }
+
+    /**
+     * 直接使用数组的前 size 个元素作为存储，不复制
+     * @param array 数组
+     * @param size 元素数量
+     * @return 列表
+     */
+    public static LongList wrap(long[] array, int size) {
+        if (size < 0 || size > array.length)
+            throw new IllegalArgumentException("size out of range: " + size);
+        return new LongList(array, null, 0, size, false);
+    }
+
+    /**
+     * 创建堆外存储的列表
+     * @param initialCapacity 初始容量
+     * @return 列表
+     */
+    public static LongList offHeap(int initialCapacity) {
+        if (initialCapacity < 0 || initialCapacity > MAX_OFF_HEAP_CAPACITY)
+            throw new IllegalArgumentException("capacity out of range: " + initialCapacity);
+        return new LongList(null, allocate(initialCapacity), 0, 0, false);
+    }
+
+    /**
+     * 从装箱的集合复制
+     * @param values 集合，不能包含 null
+     * @return 列表
+     */
+    public static LongList copyOf(Collection<Long> values) {
+        LongList list = new LongList(values.size());
+        for (Long value : values)
+            list.array[list.size++] = value;
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return 是否使用堆外存储
+     */
+    public boolean isOffHeap() {
+        return buffer != null;
+    }
+
+    public long get(int index) {
+        checkIndex(index);
+        return buffer == null ? array[offset + index] : buffer.getLong((offset + index) << 3);
+    }
+
+    public void set(int index, long value) {
+        checkIndex(index);
+        if (buffer == null)
+            array[offset + index] = value;
+        else
+            buffer.putLong((offset + index) << 3, value);
+    }
+
+    public void add(long value) {
+        ensureCapacity(size + 1);
+        if (buffer == null)
+            array[size] = value;
+        else
+            buffer.putLong(size << 3, value);
+        size++;
+    }
+
+    public void addAll(long... values) {
+        ensureCapacity(size + values.length);
+        if (buffer == null) {
+            System.arraycopy(values, 0, array, size, values.length);
+        } else {
+            ByteBuffer target = buffer.duplicate().order(buffer.order());
+            target.position(size << 3);
+            target.asLongBuffer().put(values);
+        }
+        size += values.length;
+    }
+
+    /**
+     * 清空列表，不释放存储
+     */
+    public void clear() {
+        checkNotView();
+        size = 0;
+    }
+
+    /**
+     * 升序排序，堆中的大列表使用 Arrays.parallelSort
+     */
+    public void sort() {
+        if (buffer != null)
+            BufferSort.sortLongs(buffer, offset, offset + size);
+        else if (size >= ListUtils.LARGE_SORT_THRESHOLD)
+            Arrays.parallelSort(array, offset, offset + size);
+        else
+            Arrays.sort(array, offset, offset + size);
+    }
+
+    /**
+     * 降序排序
+     */
+    public void sortDescending() {
+        sort();
+        if (buffer != null) {
+            BufferSort.reverse(buffer, offset, offset + size);
+        } else {
+            for (int i = offset, j = offset + size - 1; i < j; i++, j--) {
+                long value = array[i];
+                array[i] = array[j];
+                array[j] = value;
+            }
+        }
+    }
+
+    /**
+     * 在升序排列的列表中二分查找
+     * @param key 查找的值
+     * @return 下标，没有找到时为 -(插入位置 + 1)
+     */
+    public int binarySearch(long key) {
+        if (buffer == null) {
+            int index = Arrays.binarySearch(array, offset, offset + size, key);
+            return index >= 0 ? index - offset : index + offset;
+        }
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long value = buffer.getLong((offset + mid) << 3);
+            if (value < key)
+                lo = mid + 1;
+            else if (value > key)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * 返回 [from, to) 范围的视图，共享存储
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     * @return 视图
+     */
+    public LongList subList(int from, int to) {
+        if (from < 0 || to > size || from > to)
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", size: " + size);
+        shared = true;
+        return new LongList(array, buffer, offset + from, to - from, true);
+    }
+
+    /**
+     * 按固定大小分区，与 ListUtils.partition 相同，分区是共享存储的视图
+     * @param partitionSize 每个分区的元素数量
+     * @return 分区
+     */
+    public List<LongList> partition(int partitionSize) {
+        return new Partitions<LongList>(size, partitionSize, false) {
+            @Override
+            LongList slice(int from, int to) {
+                return LongList.this.subList(from, to);
+            }
+        };
+    }
+
+    /**
+     * 均匀地分成若干组，与 ListUtils.partitionInto 相同，分区是共享存储的视图
+     * @param groups 组数
+     * @return 分区
+     */
+    public List<LongList> partitionInto(int groups) {
+        return new Partitions<LongList>(size, groups, true) {
+            @Override
+            LongList slice(int from, int to) {
+                return LongList.this.subList(from, to);
+            }
+        };
+    }
+
+    /**
+     * @return 总和，溢出时按 long 回绕
+     */
+    public long sum() {
+        long sum = 0;
+        if (buffer == null) {
+            for (int i = offset, end = offset + size; i < end; i++)
+                sum += array[i];
+        } else {
+            for (int i = offset, end = offset + size; i < end; i++)
+                sum += buffer.getLong(i << 3);
+        }
+        return sum;
+    }
+
+    /**
+     * @return 数量、总和、最小值、最大值和平均值
+     */
+    public LongSummaryStatistics summary() {
+        LongSummaryStatistics statistics = new LongSummaryStatistics();
+        if (buffer == null) {
+            for (int i = offset, end = offset + size; i < end; i++)
+                statistics.accept(array[i]);
+        } else {
+            for (int i = offset, end = offset + size; i < end; i++)
+                statistics.accept(buffer.getLong(i << 3));
+        }
+        return statistics;
+    }
+
+    /**
+     * 返回底层数组，不复制，数组长度可能大于元素数量
+     * @return 数组
+     * @throws IllegalStateException 堆外存储或视图没有独立的数组
+     */
+    public long[] array() {
+        if (buffer != null || view)
+            throw new IllegalStateException("list is not backed by its own array");
+        return array;
+    }
+
+    /**
+     * @return 元素的副本
+     */
+    public long[] toArray() {
+        if (buffer == null)
+            return Arrays.copyOfRange(array, offset, offset + size);
+        long[] result = new long[size];
+        ByteBuffer source = buffer.duplicate().order(buffer.order());
+        source.position(offset << 3);
+        source.asLongBuffer().get(result);
+        return result;
+    }
+
+    /**
+     * 定长的装箱视图，用于需要 List&lt;Long&gt; 的接口，读写都会装箱拆箱
+     * @return 视图
+     */
+    public List<Long> asList() {
+        return new Boxed();
+    }
+
+    private void ensureCapacity(int required) {
+        checkNotView();
+        if (required < 0)
+            throw new IllegalStateException("list too large");
+        int capacity = buffer == null ? array.length : buffer.capacity() >> 3;
+        if (required <= capacity)
+            return;
+        int max = buffer == null ? Integer.MAX_VALUE - 8 : MAX_OFF_HEAP_CAPACITY;
+        if (required > max)
+            throw new IllegalStateException("list too large: " + required);
+        int grown = (int) Math.min(max, Math.max(required, capacity + (capacity >> 1) + 1L));
+        if (buffer == null) {
+            array = Arrays.copyOf(array, grown);
+        } else {
+            ByteBuffer grownBuffer = allocate(grown);
+            ByteBuffer source = buffer.duplicate();
+            source.position(0).limit(size << 3);
+            grownBuffer.put(source).clear();
+            //没有视图引用旧缓冲区时立即释放，不让扩容期间占用两倍的直接内存
+            if (!shared)
+                FileScanner.unmap(buffer);
+            buffer = grownBuffer;
+        }
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity << 3).order(ByteOrder.nativeOrder());
+    }
+
+    private static int checkCapacity(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("capacity is negative: " + capacity);
+        return capacity;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+
+    private void checkNotView() {
+        if (view)
+            throw new UnsupportedOperationException("cannot resize a view");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof LongList))
+            return false;
+        LongList other = (LongList) o;
+        if (size != other.size)
+            return false;
+        for (int i = 0; i < size; i++) {
+            if (get(i) != other.get(i))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) {
+            long value = get(i);
+            h = 31 * h + (int) (value ^ (value >>> 32));
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                builder.append(", ");
+            builder.append(get(i));
+        }
+        return builder.append(']').toString();
+    }
+
+    private final class Boxed extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public Long get(int index) {
+            return LongList.this.get(index);
+        }
+
+        @Override
+        public Long set(int index, Long value) {
+            long old = LongList.this.get(index);
+            LongList.this.set(index, value);
+            return old;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.rainple.utils;
+
+/**
+ * @description: 文件操作的度量回调，每个被度量的操作结束时在执行该操作的线程中调用一次。
+ * 通过 Instrumentation.setListener 注册，实现需要线程安全并且尽快返回。抛出的 RuntimeException 会被丢弃，不影响操作的结果
+ * @author: rainple
+ * @create: 2026-10-18 10:46
+ **/
+public interface OperationListener {
+
+    /**
+     * 默认的空实现，注册为它时 Instrumentation 关闭，热点路径上不做任何计时
+     */
+    OperationListener NOOP = new OperationListener() {
+        @Override
+        public void onOperation(OperationMetrics metrics) {
+        }
+    };
+
+    /**
+     * @param metrics 本次操作的度量结果
+     */
+    void onOperation(OperationMetrics metrics);
+}
@@ -0,0 +1,97 @@
+package com.rainple.utils;
+
+/**
+ * @description: 一次文件操作的度量结果，不可变。各阶段耗时单位为纳秒：read 为读取和映射文件，
+ * decode 为字符解码，analyze 为统计和分词等处理解码结果的时间，sort 为结果排序。
+ * 使用内存映射时缺页读盘发生在解码过程中，计入 decode
+ * @author: rainple
+ * @create: 2026-10-18 10:46
+ **/
+public final class OperationMetrics {
+
+    private final String operation;
+    private final long bytesRead;
+    private final long charsDecoded;
+    private final long readNanos;
+    private final long decodeNanos;
+    private final long analyzeNanos;
+    private final long sortNanos;
+    private final long elapsedNanos;
+
+    OperationMetrics(String operation, long bytesRead, long charsDecoded, long readNanos, long decodeNanos,
+                     long analyzeNanos, long sortNanos, long elapsedNanos) {
+        this.operation = operation;
+        this.bytesRead = bytesRead;
+        this.charsDecoded = charsDecoded;
+        this.readNanos = readNanos;
+        this.decodeNanos = decodeNanos;
+        this.analyzeNanos = analyzeNanos;
+        this.sortNanos = sortNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return 操作名称，如 countEnglishWord
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return 读取的字节数
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return 解码得到的字符数
+     */
+    public long getCharsDecoded() {
+        return charsDecoded;
+    }
+
+    public long getReadNanos() {
+        return readNanos;
+    }
+
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    public long getAnalyzeNanos() {
+        return analyzeNanos;
+    }
+
+    public long getSortNanos() {
+        return sortNanos;
+    }
+
+    /**
+     * @return 操作总耗时
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return 按总耗时计算的吞吐量（字节/秒）
+     */
+    public double getBytesPerSecond() {
+        return elapsedNanos > 0 ? bytesRead * 1e9 / elapsedNanos : 0;
+    }
+
+    /**
+     * @return 按总耗时计算的解码速度（字符/秒）
+     */
+    public double getCharsPerSecond() {
+        return elapsedNanos > 0 ? charsDecoded * 1e9 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMetrics{operation=" + operation + ", bytesRead=" + bytesRead + ", charsDecoded=" + charsDecoded
+                + ", readNanos=" + readNanos + ", decodeNanos=" + decodeNanos + ", analyzeNanos=" + analyzeNanos
+                + ", sortNanos=" + sortNanos + ", elapsedNanos=" + elapsedNanos + '}';
+    }
+}
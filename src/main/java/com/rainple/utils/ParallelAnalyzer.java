@@ -0,0 +1,348 @@
+package com.rainple.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * @description: 大文件并行分析，按字节区间切分文件后在ForkJoinPool中并行统计再合并结果。
+ * 区间边界只落在空白字节（空格、制表符、换行、回车）之后，既是字符边界也是单词边界，结果与顺序统计一致。
+ * 对于UTF-16这类非ASCII兼容的字符集不做切分，整个文件作为一个区间处理。
+ * 按并行线程数创建的实例自己持有线程池，使用完需要关闭；传入的线程池和公共线程池不会被关闭
+ * @author: rainple
+ * @create: 2026-10-18 10:27
+ **/
+public class ParallelAnalyzer implements Closeable {
+
+    /**
+     * 默认最小分块大小 8M
+     */
+    public static final long DEFAULT_MIN_CHUNK_SIZE = 8L * 1024 * 1024;
+
+    /**
+     * 寻找边界时每次读取的字节数
+     */
+    private static final int ALIGN_BUFFER_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    /**
+     * 线程池是否由本实例创建
+     */
+    private final boolean ownsPool;
+    private final int parallelism;
+    private final long minChunkSize;
+
+    /**
+     * 使用公共ForkJoinPool和默认分块大小
+     */
+    public ParallelAnalyzer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MIN_CHUNK_SIZE, false);
+    }
+
+    /**
+     * 创建自己的线程池，使用完需要调用 close
+     * @param parallelism 并行线程数
+     * @param minChunkSize 最小分块字节数
+     */
+    public ParallelAnalyzer(int parallelism, long minChunkSize) {
+        this(new ForkJoinPool(parallelism), minChunkSize, true);
+    }
+
+    /**
+     * @param pool 执行任务的线程池
+     * @param minChunkSize 最小分块字节数
+     */
+    public ParallelAnalyzer(ForkJoinPool pool, long minChunkSize) {
+        this(pool, minChunkSize, false);
+    }
+
+    private ParallelAnalyzer(ForkJoinPool pool, long minChunkSize, boolean ownsPool) {
+        if (minChunkSize <= 0) {
+            if (ownsPool)
+                pool.shutdown();
+            throw new IllegalArgumentException("min chunk size must be positive: " + minChunkSize);
+        }
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.parallelism = pool.getParallelism();
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * 并行统计文件字符数量
+     * @param path 文件路径
+     * @param charsetName 字符集
+     * @return 数量
+     * @throws IOException 异常
+     */
+    public long getTotalChar(String path, String charsetName) throws IOException {
+        return count(path, new TextAnalyzer(charsetName, false, TextAnalyzer.Metric.TOTAL_CHARS)).totalChars;
+    }
+
+    /**
+     * 并行统计文件中文字符数量
+     * @param path 文件路径
+     * @param charsetName 字符集
+     * @return 数量
+     * @throws IOException 异常
+     */
+    public long getChineseChars(String path, String charsetName) throws IOException {
+        return count(path, new TextAnalyzer(charsetName, false, TextAnalyzer.Metric.CHINESE_CHARS)).chineseChars;
+    }
+
+    /**
+     * 并行统计文件字符出现的次数
+     * @param path 文件路径
+     * @param charsetName 字符集
+     * @param sort 排序 FileUtils.ASC | FileUtils.DESC
+     * @return 结果集
+     * @throws IOException 异常
+     */
+    public List<Map.Entry<Character, Long>> countChar(String path, String charsetName, String sort) throws IOException {
+        TextCounter counter = count(path, new TextAnalyzer(charsetName, false, TextAnalyzer.Metric.CHAR_COUNTS));
+        return counter.charCounts.toSortedList(sort);
+    }
+
+    /**
+     * 并行统计文件中出现的英文单词的频次
+     * @param path 文件路径
+     * @param charsetName 字符集
+     * @param sort 排序 FileUtils.ASC | FileUtils.DESC
+     * @param ignoreCase 是否忽略大小写
+     * @return 结果集
+     * @throws IOException 异常
+     */
+    public List<Map.Entry<String, Long>> countEnglishWord(String path, String charsetName, String sort, boolean ignoreCase) throws IOException {
+        TextCounter counter = count(path, new TextAnalyzer(charsetName, ignoreCase, TextAnalyzer.Metric.ENGLISH_WORDS));
+        return sort(new ArrayList<>(counter.wordCounts.counts().entrySet()), sort);
+    }
+
+    /**
+     * 并行统计文件中的多项指标
+     * @param path 文件路径
+     * @param analyzer 分析器
+     * @return 统计结果
+     * @throws IOException 异常
+     */
+    public TextStats analyze(String path, TextAnalyzer analyzer) throws IOException {
+        return count(path, analyzer).toStats();
+    }
+
+    /**
+     * 并行查找指定字符串出现的次数，字符串包含空白字符时退化为顺序查找
+     * @param path 文件路径
+     * @param word 查找的字符串
+     * @param charsetName 字符集
+     * @return 出现的次数
+     * @throws IOException 异常
+     */
+    public long findWordCountPresent(String path, final String word, String charsetName) throws IOException {
+        if (word == null || word.isEmpty())
+            return 0;
+        boolean splittable = true;
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.isWhitespace(word.charAt(i)))
+                splittable = false;
+        }
+        final WordSearcher searcher = WordSearcher.compile(word);
+        return run(path, FileScanner.charset(charsetName), new RangeJob<Long>() {
+            @Override
+            public Long scan(FileChannel channel, long from, long to, Charset charset) throws IOException {
+                final WordSearcher.Session session = searcher.newSession();
+                FileScanner.scanChars(channel, from, to, charset, new FileScanner.CharHandler() {
+                    @Override
+                    public boolean handle(CharBuffer buffer) {
+                        int offset = buffer.arrayOffset();
+                        session.feed(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+                        return true;
+                    }
+                });
+                return session.count();
+            }
+
+            @Override
+            public Long merge(Long left, Long right) {
+                return left + right;
+            }
+        }, splittable);
+    }
+
+    private TextCounter count(String path, final TextAnalyzer analyzer) throws IOException {
+        return run(path, analyzer.getCharset(), new RangeJob<TextCounter>() {
+            @Override
+            public TextCounter scan(FileChannel channel, long from, long to, Charset charset) throws IOException {
+                TextCounter counter = analyzer.newCounter();
+                FileScanner.scanChars(channel, from, to, charset, counter);
+                counter.finish();
+                return counter;
+            }
+
+            @Override
+            public TextCounter merge(TextCounter left, TextCounter right) {
+                left.merge(right);
+                return left;
+            }
+        }, true);
+    }
+
+    private <R> R run(String path, Charset charset, RangeJob<R> job, boolean splittable) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(new File(path))) {
+            FileChannel channel = inputStream.getChannel();
+            long size = channel.size();
+            long[] bounds = splittable && isSplittable(charset)
+                    ? split(channel, size)
+                    : new long[]{0, size};
+            try {
+                return pool.invoke(new RangeTask<>(channel, charset, job, bounds, 0, bounds.length - 1));
+            } catch (UncheckedIOException e) {
+                for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                    if (cause instanceof IOException)
+                        throw (IOException) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 计算各区间的边界，区间数量不超过线程数的4倍，每个区间不小于最小分块大小
+     */
+    long[] split(FileChannel channel, long size) throws IOException {
+        long chunk = Math.max(minChunkSize, size / (parallelism * 4L));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long position = chunk;
+        ByteBuffer buffer = ByteBuffer.allocate(ALIGN_BUFFER_SIZE);
+        while (position < size) {
+            long boundary = align(channel, position, size, buffer);
+            if (boundary >= size)
+                break;
+            bounds.add(boundary);
+            position = boundary + chunk;
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = bounds.get(i);
+        return result;
+    }
+
+    /**
+     * 从指定位置开始向后寻找第一个空白字节，返回其后一个位置
+     */
+    private static long align(FileChannel channel, long position, long size, ByteBuffer buffer) throws IOException {
+        while (position < size) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            if (n <= 0)
+                return size;
+            for (int i = 0; i < n; i++) {
+                byte b = buffer.get(i);
+                if (b == ' ' || b == '\n' || b == '\r' || b == '\t')
+                    return position + i + 1;
+            }
+            position += n;
+        }
+        return size;
+    }
+
+    /**
+     * 字符集是否可以在空白字节处安全切分：ASCII字符按原字节编码，且不是依赖转义序列的有状态编码
+     */
+    static boolean isSplittable(Charset charset) {
+        String name = charset.name().toUpperCase();
+        if (name.contains("2022") || name.contains("UTF-7"))
+            return false;
+        String ascii = " \t\r\nazAZ09";
+        byte[] bytes = ascii.getBytes(charset);
+        if (bytes.length != ascii.length())
+            return false;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != ascii.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private static <K> List<Map.Entry<K, Long>> sort(List<Map.Entry<K, Long>> list, final String sort) {
+        Collections.sort(list, new Comparator<Map.Entry<K, Long>>() {
+            @Override
+            public int compare(Map.Entry<K, Long> o1, Map.Entry<K, Long> o2) {
+                if (FileUtils.ASC.equals(sort))
+                    return o1.getValue().compareTo(o2.getValue());
+                else
+                    return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * 关闭本实例创建的线程池，传入的线程池由调用者管理
+     */
+    @Override
+    public void close() {
+        if (ownsPool)
+            pool.shutdown();
+    }
+
+    /**
+     * 区间任务：统计一个区间并合并两个区间的结果
+     */
+    private interface RangeJob<R> {
+        R scan(FileChannel channel, long from, long to, Charset charset) throws IOException;
+
+        R merge(R left, R right);
+    }
+
+    private static final class RangeTask<R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final Charset charset;
+        private final RangeJob<R> job;
+        private final long[] bounds;
+        private final int lo;
+        private final int hi;
+
+        RangeTask(FileChannel channel, Charset charset, RangeJob<R> job, long[] bounds, int lo, int hi) {
+            this.channel = channel;
+            this.charset = charset;
+            this.job = job;
+            this.bounds = bounds;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected R compute() {
+            if (hi - lo == 1) {
+                try {
+                    return job.scan(channel, bounds[lo], bounds[hi], charset);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int mid = (lo + hi) >>> 1;
+            RangeTask<R> left = new RangeTask<>(channel, charset, job, bounds, lo, mid);
+            RangeTask<R> right = new RangeTask<>(channel, charset, job, bounds, mid, hi);
+            left.fork();
+            R rightResult = right.compute();
+            return job.merge(left.join(), rightResult);
+        }
+    }
+}
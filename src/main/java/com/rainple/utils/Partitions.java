@@ -0,0 +1,59 @@
+package com.rainple.utils;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * @description: 分区视图的公共部分，只记录分区的边界，访问某个分区时才创建对应的切片。
+ * 前 remainder 个分区有 size + 1 个元素，其余有 size 个
+ * @author: rainple
+ * @create: 2026-10-18 11:05
+ **/
+abstract class Partitions<P> extends AbstractList<P> implements RandomAccess {
+
+    private final int total;
+    private final int count;
+    private final int size;
+    private final int remainder;
+
+    /**
+     * @param total 元素总数
+     * @param n groups 为 false 时是每个分区的元素数量，为 true 时是组数
+     * @param groups 是否按组数均匀分区，元素数量少于组数时不产生空组
+     */
+    Partitions(int total, int n, boolean groups) {
+        if (n <= 0)
+            throw new IllegalArgumentException((groups ? "groups" : "partition size") + " must be positive: " + n);
+        this.total = total;
+        if (groups) {
+            this.count = Math.min(n, total);
+            this.size = count == 0 ? 0 : total / count;
+            this.remainder = count == 0 ? 0 : total % count;
+        } else {
+            this.count = (int) ((total + (long) n - 1) / n);
+            this.size = n;
+            this.remainder = 0;
+        }
+    }
+
+    /**
+     * 创建 [from, to) 范围的切片
+     */
+    abstract P slice(int from, int to);
+
+    @Override
+    public P get(int index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + count);
+        return slice(start(index), start(index + 1));
+    }
+
+    private int start(int index) {
+        return (int) Math.min(total, (long) index * size + Math.min(index, remainder));
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+}
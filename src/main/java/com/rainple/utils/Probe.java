@@ -0,0 +1,71 @@
+package com.rainple.utils;
+
+/**
+ * @description: 一次被度量操作的计数，绑定在执行操作的线程上，FileScanner 和解码器从当前线程取得后累加。
+ * Instrumentation 关闭时 begin 和 current 都返回null，调用方据此跳过所有计时
+ * @author: rainple
+ * @create: 2026-10-18 10:46
+ **/
+final class Probe {
+
+    private static final ThreadLocal<Probe> CURRENT = new ThreadLocal<>();
+
+    private final String operation;
+    private final Instrumentation.EventRecorder recorder;
+    /**
+     * 开启 JFR 时在操作开始时 begin 的事件
+     */
+    private final Object event;
+    private final long start;
+    long bytesRead;
+    long charsDecoded;
+    long readNanos;
+    long decodeNanos;
+    long analyzeNanos;
+    long sortNanos;
+
+    private Probe(String operation) {
+        this.operation = operation;
+        this.recorder = Instrumentation.recorder();
+        this.event = recorder == null ? null : recorder.begin(operation);
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * 开始度量一个操作，已经在度量外层操作时返回null
+     * @param operation 操作名称
+     * @return 计数，不需要度量时为null
+     */
+    static Probe begin(String operation) {
+        if (!Instrumentation.isEnabled() || CURRENT.get() != null)
+            return null;
+        Probe probe = new Probe(operation);
+        CURRENT.set(probe);
+        return probe;
+    }
+
+    /**
+     * @return 当前线程正在度量的操作，没有时为null
+     */
+    static Probe current() {
+        return Instrumentation.isEnabled() ? CURRENT.get() : null;
+    }
+
+    /**
+     * @return probe 为null时返回0，避免未度量时调用 System.nanoTime
+     */
+    static long now(Probe probe) {
+        return probe == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * 结束度量并通知监听器，probe 为null时什么也不做
+     */
+    static void end(Probe probe) {
+        if (probe == null)
+            return;
+        CURRENT.remove();
+        Instrumentation.publish(probe.recorder, probe.event, new OperationMetrics(probe.operation, probe.bytesRead, probe.charsDecoded,
+                probe.readNanos, probe.decodeNanos, probe.analyzeNanos, probe.sortNanos, System.nanoTime() - probe.start));
+    }
+}
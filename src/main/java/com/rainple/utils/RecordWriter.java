@@ -0,0 +1,278 @@
+package com.rainple.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @description: 长期持有的记录写入器，所有记录通过同一个文件通道写入，先编码到可复用的直接缓冲区，
+ * 按刷新策略批量落盘。写入方法已同步，可在多个线程中共享一个写入器。
+ * 代理对可以被拆在两次写入之间，末尾的高位代理会保留到下一次写入，关闭时仍未配对则按非法字符替换
+ * @author: rainple
+ * @create: 2026-10-18 10:33
+ **/
+public class RecordWriter implements Closeable, Flushable {
+
+    /**
+     * 默认缓冲区大小 256K
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private static final String LINE_SEPARATOR = "\n";
+
+    /**
+     * 刷新策略，缓冲区写满时总会刷新
+     */
+    public static final class FlushPolicy {
+
+        private final int records;
+        private final long intervalMillis;
+
+        private FlushPolicy(int records, long intervalMillis) {
+            this.records = records;
+            this.intervalMillis = intervalMillis;
+        }
+
+        /**
+         * 只在缓冲区写满、调用flush或关闭时刷新
+         * @return 刷新策略
+         */
+        public static FlushPolicy onBufferFull() {
+            return new FlushPolicy(0, 0);
+        }
+
+        /**
+         * 每写入指定数量的记录刷新一次
+         * @param records 记录数
+         * @return 刷新策略
+         */
+        public static FlushPolicy everyRecords(int records) {
+            if (records <= 0)
+                throw new IllegalArgumentException("records must be positive: " + records);
+            return new FlushPolicy(records, 0);
+        }
+
+        /**
+         * 写入时距离上次刷新超过指定时间则刷新
+         * @param intervalMillis 间隔毫秒数
+         * @return 刷新策略
+         */
+        public static FlushPolicy everyMillis(long intervalMillis) {
+            if (intervalMillis <= 0)
+                throw new IllegalArgumentException("interval must be positive: " + intervalMillis);
+            return new FlushPolicy(0, intervalMillis);
+        }
+    }
+
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer buffer;
+    private final FlushPolicy policy;
+    /**
+     * 上一次写入末尾未能编码的字符（被拆开的代理对的高位），与下一次写入的开头一起编码
+     */
+    private String carry;
+    private int pendingRecords;
+    private long lastFlush = System.currentTimeMillis();
+    private boolean closed;
+
+    /**
+     * @param file 文件
+     * @param charsetName 编码格式，为null时为utf-8
+     * @param append 是否追加到文件末尾，false 时清空原有内容
+     * @param bufferSize 缓冲区字节数
+     * @param policy 刷新策略
+     * @throws IOException 异常
+     */
+    public RecordWriter(File file, String charsetName, boolean append, int bufferSize, FlushPolicy policy) throws IOException {
+        if (bufferSize <= 0)
+            throw new IllegalArgumentException("buffer size must be positive: " + bufferSize);
+        Charset charset = FileScanner.charset(charsetName);
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, (int) Math.ceil(encoder.maxBytesPerChar()) * 2));
+        this.policy = policy == null ? FlushPolicy.onBufferFull() : policy;
+        this.channel = append
+                ? FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                : FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * 默认缓冲区大小，缓冲区写满时刷新
+     * @param file 文件
+     * @param charsetName 编码格式，为null时为utf-8
+     * @param append 是否追加
+     * @throws IOException 异常
+     */
+    public RecordWriter(File file, String charsetName, boolean append) throws IOException {
+        this(file, charsetName, append, DEFAULT_BUFFER_SIZE, FlushPolicy.onBufferFull());
+    }
+
+    /**
+     * 写入一条记录
+     * @param record 记录
+     * @throws IOException 异常
+     */
+    public synchronized void write(CharSequence record) throws IOException {
+        encode(record);
+        afterRecord();
+    }
+
+    /**
+     * 写入一条记录并换行
+     * @param record 记录
+     * @throws IOException 异常
+     */
+    public synchronized void writeLine(CharSequence record) throws IOException {
+        encode(record);
+        encode(LINE_SEPARATOR);
+        afterRecord();
+    }
+
+    /**
+     * 把缓冲区中的数据写入文件
+     * @throws IOException 异常
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        drain();
+        pendingRecords = 0;
+        lastFlush = System.currentTimeMillis();
+    }
+
+    /**
+     * 刷新缓冲区并同步到磁盘
+     * @throws IOException 异常
+     */
+    public synchronized void sync() throws IOException {
+        flush();
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+        try {
+            //没有等到低位的高位代理按非法输入替换
+            CharBuffer rest = carry == null ? CharBuffer.allocate(0) : CharBuffer.wrap(carry);
+            carry = null;
+            while (encoder.encode(rest, buffer, true).isOverflow())
+                drain();
+            while (encoder.flush(buffer).isOverflow())
+                drain();
+            drain();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    private void encode(CharSequence record) throws IOException {
+        ensureOpen();
+        CharBuffer in = record instanceof CharBuffer ? ((CharBuffer) record).duplicate() : CharBuffer.wrap(record);
+        if (carry != null) {
+            in = CharBuffer.wrap(new StringBuilder(carry.length() + in.remaining()).append(carry).append(in));
+            carry = null;
+        }
+        for (;;) {
+            CoderResult result = encoder.encode(in, buffer, false);
+            if (result.isUnderflow()) {
+                //编码器不消费末尾的高位代理，留到下一次写入
+                if (in.hasRemaining())
+                    carry = in.toString();
+                return;
+            }
+            if (result.isOverflow())
+                drain();
+            else
+                result.throwException();
+        }
+    }
+
+    private void afterRecord() throws IOException {
+        pendingRecords++;
+        if ((policy.records > 0 && pendingRecords >= policy.records)
+                || (policy.intervalMillis > 0 && System.currentTimeMillis() - lastFlush >= policy.intervalMillis))
+            flush();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("writer is closed");
+    }
+
+    /**
+     * 并行写入多个文件，每个文件的内容整体覆盖写入
+     * @param contents 文件路径及内容
+     * @param charsetName 编码格式，为null时为utf-8
+     * @param parallelism 同时写入的文件数量
+     * @throws IOException 任意文件写入失败时抛出第一个异常，其余异常附加为 suppressed
+     */
+    public static void writeAll(Map<String, ? extends CharSequence> contents, final String charsetName, int parallelism) throws IOException {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, contents.size())));
+        List<Future<?>> futures = new ArrayList<>(contents.size());
+        try {
+            for (final Map.Entry<String, ? extends CharSequence> entry : contents.entrySet()) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        try (RecordWriter writer = new RecordWriter(new File(entry.getKey()), charsetName, false,
+                                (int) Math.min(DEFAULT_BUFFER_SIZE, entry.getValue().length() * 4L + 16), FlushPolicy.onBufferFull())) {
+                            writer.write(entry.getValue());
+                        }
+                        return null;
+                    }
+                }));
+            }
+            IOException error = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    IOException cause = e.getCause() instanceof IOException
+                            ? (IOException) e.getCause() : new IOException(e.getCause());
+                    if (error == null)
+                        error = cause;
+                    else
+                        error.addSuppressed(cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while writing files", e);
+                }
+            }
+            if (error != null)
+                throw error;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
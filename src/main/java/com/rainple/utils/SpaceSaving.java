@@ -0,0 +1,154 @@
+package com.rainple.utils;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 高频词近似统计（Space-Saving算法），只保留固定数量的计数器，内存占用与不同单词的数量无关。
+ * 计数器满时新单词替换次数最少的计数器并继承其次数，因此结果的次数可能偏大，偏大的部分不超过 getError 的值；
+ * 真实次数大于 总数/容量 的单词一定会出现在结果中。非线程安全
+ * @author: rainple
+ * @create: 2026-10-18 10:31
+ **/
+public final class SpaceSaving implements Tokenizer.TokenHandler {
+
+    private final int capacity;
+    private final boolean ignoreCase;
+    /**
+     * 以次数为键的小顶堆，heap[0] 是次数最少的计数器
+     */
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> index;
+    private int size;
+    private long total;
+
+    /**
+     * @param capacity 计数器数量，应为所需K值的数倍
+     * @param ignoreCase 是否忽略大小写
+     */
+    public SpaceSaving(int capacity, boolean ignoreCase) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.ignoreCase = ignoreCase;
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.index = new HashMap<>(capacity * 2);
+    }
+
+    @Override
+    public void onWord(char[] chars, int offset, int length, long position) {
+        String word = new String(chars, offset, length);
+        offer(ignoreCase ? word.toLowerCase() : word);
+    }
+
+    /**
+     * 记录一次出现
+     * @param key 单词
+     */
+    public void offer(String key) {
+        total++;
+        Integer i = index.get(key);
+        if (i != null) {
+            counts[i]++;
+            siftDown(i);
+            return;
+        }
+        if (size < capacity) {
+            keys[size] = key;
+            counts[size] = 1;
+            errors[size] = 0;
+            index.put(key, size);
+            siftUp(size++);
+            return;
+        }
+        //替换次数最少的计数器
+        index.remove(keys[0]);
+        keys[0] = key;
+        errors[0] = counts[0];
+        counts[0]++;
+        index.put(key, 0);
+        siftDown(0);
+    }
+
+    /**
+     * @return 记录的总次数
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * 单词次数的最大偏差
+     * @param key 单词
+     * @return 偏差，单词不在计数器中时返回 -1
+     */
+    public long getError(String key) {
+        Integer i = index.get(key);
+        return i == null ? -1 : errors[i];
+    }
+
+    /**
+     * 取出现次数最多的前K项
+     * @param k 数量，不应超过容量
+     * @return 按次数降序排列的结果集，次数为估计值
+     */
+    public List<Map.Entry<String, Long>> top(int k) {
+        List<Map.Entry<String, Long>> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(new AbstractMap.SimpleImmutableEntry<>(keys[i], counts[i]));
+        Collections.sort(list, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                int c = o2.getValue().compareTo(o1.getValue());
+                return c != 0 ? c : o1.getKey().compareTo(o2.getKey());
+            }
+        });
+        return k < list.size() ? new ArrayList<>(list.subList(0, k)) : list;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i])
+                break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        for (;;) {
+            int left = 2 * i + 1;
+            if (left >= size)
+                break;
+            int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if (counts[i] <= counts[smallest])
+                break;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        long error = errors[a];
+        errors[a] = errors[b];
+        errors[b] = error;
+        index.put(keys[a], a);
+        index.put(keys[b], b);
+    }
+}
@@ -0,0 +1,350 @@
+package com.rainple.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 文件统计结果缓存，按文件规范路径、大小、修改时间、编码格式、非法字节处理方式和统计选项缓存 TextStats。
+ * 非法字节处理方式不同的结果互不命中，REPORT 下只有确认没有非法字节的结果才会被缓存。
+ * 文件内容变化后大小或修改时间不同，旧结果不会再被命中，按最近最少使用淘汰。同一个键的并发请求只计算一次，
+ * 可以保存到旁路文件，重启后继续使用。旁路文件按固定格式读写基本类型字段，不反序列化任意对象。线程安全
+ * @author: rainple
+ * @create: 2026-10-18 10:37
+ **/
+public class StatsCache {
+
+    /**
+     * 默认最多缓存的结果数量
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private static final int SIDECAR_VERSION = 3;
+
+    private final int maximumSize;
+    private final File sidecar;
+    private final LinkedHashMap<Key, TextStats> entries;
+    private final ConcurrentMap<Key, FutureTask<TextStats>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 只在内存中缓存
+     * @param maximumSize 最多缓存的结果数量
+     */
+    public StatsCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * 旁路文件存在时加载其中仍然有效的结果，文件损坏或版本不兼容时从空缓存开始
+     * @param maximumSize 最多缓存的结果数量
+     * @param sidecar 持久化文件，可以为null
+     */
+    public StatsCache(final int maximumSize, File sidecar) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("maximum size must be positive: " + maximumSize);
+        this.maximumSize = maximumSize;
+        this.sidecar = sidecar;
+        this.entries = new LinkedHashMap<Key, TextStats>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, TextStats> eldest) {
+                return size() > StatsCache.this.maximumSize;
+            }
+        };
+        if (sidecar != null && sidecar.isFile())
+            load(sidecar);
+    }
+
+    /**
+     * 分析文件，结果有效时直接返回缓存
+     * @param file 文件
+     * @param analyzer 分析器
+     * @return 统计结果
+     * @throws IOException 异常
+     */
+    public TextStats analyze(final File file, final TextAnalyzer analyzer) throws IOException {
+        final Key key = Key.of(file, analyzer);
+        TextStats stats = get(key);
+        if (stats != null) {
+            hits.incrementAndGet();
+            return stats;
+        }
+        FutureTask<TextStats> task = new FutureTask<>(new Callable<TextStats>() {
+            @Override
+            public TextStats call() throws IOException {
+                //其他线程可能在检查缓存之后、登记计算之前刚好完成
+                TextStats cached = get(key);
+                if (cached != null)
+                    return cached;
+                TextStats result = analyzer.analyze(file);
+                //分析过程中文件被修改或处理方式被改变，结果不对应这个键，不缓存
+                if (file.length() == key.size && file.lastModified() == key.lastModified
+                        && FileScanner.getMalformedInputAction().toString().equals(key.malformedInput)) {
+                    synchronized (entries) {
+                        entries.put(key, result);
+                    }
+                }
+                return result;
+            }
+        });
+        FutureTask<TextStats> running = loading.putIfAbsent(key, task);
+        if (running == null) {
+            misses.incrementAndGet();
+            running = task;
+            try {
+                task.run();
+            } finally {
+                loading.remove(key, task);
+            }
+        } else {
+            hits.incrementAndGet();
+        }
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for analysis", e);
+        }
+    }
+
+    /**
+     * 统计文件字符数量
+     * @param path 文件路径
+     * @param charsetName 文件编码格式
+     * @return 数量
+     * @throws IOException 异常
+     */
+    public long getTotalChar(String path, String charsetName) throws IOException {
+        return analyze(new File(path), new TextAnalyzer(charsetName, false, TextAnalyzer.Metric.TOTAL_CHARS)).getTotalChars();
+    }
+
+    /**
+     * 统计文件中文字符数量
+     * @param path 文件路径
+     * @param charsetName 文件编码格式
+     * @return 数量
+     * @throws IOException 异常
+     */
+    public long getChineseChars(String path, String charsetName) throws IOException {
+        return analyze(new File(path), new TextAnalyzer(charsetName, false, TextAnalyzer.Metric.CHINESE_CHARS)).getChineseChars();
+    }
+
+    /**
+     * 统计文件字符出现的次数
+     * @param path 文件路径
+     * @param charsetName 文件编码格式
+     * @param sort 排序
+     * @return 结果集
+     * @throws IOException 异常
+     */
+    public List<Map.Entry<Character, Long>> countChar(String path, String charsetName, String sort) throws IOException {
+        return analyze(new File(path), new TextAnalyzer(charsetName, false, TextAnalyzer.Metric.CHAR_COUNTS)).getSortedCharCounts(sort);
+    }
+
+    /**
+     * 统计文件中英文单词出现的次数
+     * @param path 文件路径
+     * @param charsetName 文件编码格式
+     * @param sort 排序
+     * @param ignoreCase 是否忽略大小写
+     * @return 结果集
+     * @throws IOException 异常
+     */
+    public List<Map.Entry<String, Long>> countEnglishWord(String path, String charsetName, String sort, boolean ignoreCase) throws IOException {
+        return analyze(new File(path), new TextAnalyzer(charsetName, ignoreCase, TextAnalyzer.Metric.ENGLISH_WORDS)).getSortedWordCounts(sort);
+    }
+
+    /**
+     * 把缓存保存到旁路文件，先写临时文件再替换
+     * @throws IOException 异常
+     */
+    public void save() throws IOException {
+        if (sidecar == null)
+            throw new IllegalStateException("no sidecar file configured");
+        List<Map.Entry<Key, TextStats>> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries.entrySet());
+        }
+        File parent = sidecar.getAbsoluteFile().getParentFile();
+        File tmp = File.createTempFile(sidecar.getName(), ".tmp", parent);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(SIDECAR_VERSION);
+                out.writeInt(snapshot.size());
+                //从最久未使用的开始写，加载后保持相同的淘汰顺序
+                for (Map.Entry<Key, TextStats> entry : snapshot) {
+                    entry.getKey().write(out);
+                    entry.getValue().write(out);
+                }
+            }
+            Files.move(tmp.toPath(), sidecar.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    private void load(File file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != SIDECAR_VERSION)
+                return;
+            int size = TextStats.readSize(in, Integer.MAX_VALUE);
+            for (int i = 0; i < size; i++) {
+                Key key = Key.read(in);
+                TextStats stats = TextStats.read(in);
+                //跳过已经变化的文件
+                File source = new File(key.path);
+                if (source.length() == key.size && source.lastModified() == key.lastModified)
+                    entries.put(key, stats);
+            }
+        } catch (IOException e) {
+            //缓存文件只是加速手段，无法读取时丢弃
+            entries.clear();
+        }
+    }
+
+    private TextStats get(Key key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * 清空缓存，不影响命中统计
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return 当前缓存的结果数量
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return 命中次数，等待其他线程正在进行的相同计算也算命中
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return 未命中次数，即实际分析文件的次数
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "StatsCache{size=" + size() + ", maximumSize=" + maximumSize + ", hits=" + hits.get()
+                + ", misses=" + misses.get() + '}';
+    }
+
+    /**
+     * 缓存键，大小或修改时间变化即视为不同的文件
+     */
+    private static final class Key {
+
+        final String path;
+        final long size;
+        final long lastModified;
+        final String charset;
+        /**
+         * FileScanner 的非法字节处理方式
+         */
+        final String malformedInput;
+        final boolean ignoreCase;
+        final int metrics;
+
+        private Key(String path, long size, long lastModified, String charset, String malformedInput,
+                    boolean ignoreCase, int metrics) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.charset = charset;
+            this.malformedInput = malformedInput;
+            this.ignoreCase = ignoreCase;
+            this.metrics = metrics;
+        }
+
+        static Key of(File file, TextAnalyzer analyzer) throws IOException {
+            int metrics = 0;
+            for (TextAnalyzer.Metric metric : analyzer.getMetrics())
+                metrics |= 1 << metric.ordinal();
+            //只有统计英文单词时大小写选项才影响结果
+            boolean ignoreCase = analyzer.isIgnoreCase() && analyzer.getMetrics().contains(TextAnalyzer.Metric.ENGLISH_WORDS);
+            return new Key(file.getCanonicalPath(), file.length(), file.lastModified(),
+                    analyzer.getCharset().name(), FileScanner.getMalformedInputAction().toString(), ignoreCase, metrics);
+        }
+
+        void write(DataOutput out) throws IOException {
+            TextStats.writeString(out, path);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            TextStats.writeString(out, charset);
+            TextStats.writeString(out, malformedInput);
+            out.writeBoolean(ignoreCase);
+            out.writeInt(metrics);
+        }
+
+        static Key read(DataInput in) throws IOException {
+            return new Key(TextStats.readString(in), in.readLong(), in.readLong(), TextStats.readString(in),
+                    TextStats.readString(in), in.readBoolean(), in.readInt());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return size == other.size && lastModified == other.lastModified && ignoreCase == other.ignoreCase
+                    && metrics == other.metrics && path.equals(other.path) && charset.equals(other.charset)
+                    && malformedInput.equals(other.malformedInput);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = path.hashCode();
+            h = 31 * h + (int) (size ^ (size >>> 32));
+            h = 31 * h + (int) (lastModified ^ (lastModified >>> 32));
+            h = 31 * h + charset.hashCode();
+            h = 31 * h + malformedInput.hashCode();
+            h = 31 * h + (ignoreCase ? 1 : 0);
+            return 31 * h + metrics;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.rainple.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * @description: 只追加写入的日志文件的增量分析器。记录上次处理到的字节位置、末尾不完整的多字节字符和未结束的单词，
+ * 每次更新只读取和解码新追加的数据，开销与新数据量成正比而不是文件大小。完整的统计结果在调用 stats 时才生成，
+ * 并缓存到下一次读到新数据为止；字符总数和中文字符数可以随时读取，不复制结果。
+ * 文件变短（被截断）、文件标识变化或文件开头的内容变化（被轮转替换）时丢弃已有结果从头统计。线程安全
+ * @author: rainple
+ * @create: 2026-10-18 10:38
+ **/
+public class TailAnalyzer {
+
+    /**
+     * 用于识别文件是否被替换的开头字节数
+     */
+    private static final int HEAD_SIZE = 64;
+
+    private final File file;
+    private final TextAnalyzer analyzer;
+    private TextCounter counter;
+    private FileScanner.Decoder decoder;
+    /**
+     * 上次生成的完整结果，读到新数据或重置后失效
+     */
+    private TextStats stats;
+    private long offset;
+    private Object fileKey;
+    private byte[] head = new byte[0];
+    private long resets;
+
+    /**
+     * @param file 日志文件
+     * @param analyzer 分析器，决定编码格式和统计的指标
+     */
+    public TailAnalyzer(File file, TextAnalyzer analyzer) {
+        this.file = file;
+        this.analyzer = analyzer;
+        start();
+    }
+
+    /**
+     * 读取上次更新之后追加的数据，不生成完整结果。读取或解码失败时已有结果不变，下次更新仍从原来的位置开始
+     * @return 本次读取的字节数，检测到截断或轮转时为从头读取的字节数
+     * @throws IOException 异常
+     */
+    public synchronized long update() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            Object key = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+            long size = channel.size();
+            boolean replaced = isReplaced(channel, key, size);
+            if (!replaced && size <= offset) {
+                fileKey = key;
+                return 0;
+            }
+            long from = replaced ? 0 : offset;
+            //被替换时统计到新的计数器，成功后才丢弃原来的结果
+            TextCounter target = replaced ? analyzer.newCounter() : counter;
+            FileScanner.Decoder targetDecoder = replaced ? newDecoder(target) : decoder;
+            try {
+                FileScanner.scan(channel, from, size, targetDecoder);
+                targetDecoder.drain();
+            } catch (IOException | RuntimeException e) {
+                if (!replaced)
+                    restore(channel, e);
+                throw e;
+            }
+            if (replaced) {
+                resets++;
+                counter = target;
+                decoder = targetDecoder;
+                head = new byte[0];
+            }
+            if (head.length < HEAD_SIZE)
+                head = readHead(channel, size);
+            offset = size;
+            stats = null;
+            fileKey = key;
+            return size - from;
+        }
+    }
+
+    /**
+     * 追加的数据读到一半失败时计数器已经包含了部分新数据，重新统计上次更新之前的内容恢复原来的结果，
+     * 开销与已处理的字节数成正比，只在出错时发生。恢复也失败时丢弃已有结果，下次更新从头统计
+     */
+    private void restore(FileChannel channel, Exception failure) {
+        TextCounter restored = analyzer.newCounter();
+        FileScanner.Decoder restoredDecoder = newDecoder(restored);
+        try {
+            FileScanner.scan(channel, 0, offset, restoredDecoder);
+            restoredDecoder.drain();
+            counter = restored;
+            decoder = restoredDecoder;
+        } catch (IOException | RuntimeException e) {
+            failure.addSuppressed(e);
+            start();
+        }
+    }
+
+    /**
+     * 不读取文件，返回上次更新后的完整统计结果。结果在没有新数据时复用，
+     * 有新数据时重新生成，开销与不同的字符和单词数量成正比
+     * @return 从文件开头（或上次重置）到上次更新位置的统计结果
+     */
+    public synchronized TextStats stats() {
+        if (stats == null)
+            stats = counter.snapshot();
+        return stats;
+    }
+
+    /**
+     * @return 上次更新后的字符总数
+     */
+    public synchronized long getTotalChars() {
+        return counter.totalChars;
+    }
+
+    /**
+     * @return 上次更新后的中文字符数量，没有选择 CHINESE_CHARS 指标时为0
+     */
+    public synchronized long getChineseChars() {
+        return counter.chineseChars;
+    }
+
+    /**
+     * 丢弃已有结果，下次更新从文件开头统计
+     */
+    public synchronized void reset() {
+        start();
+    }
+
+    /**
+     * @return 已处理的字节数
+     */
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return 检测到截断或轮转而自动重置的次数
+     */
+    public synchronized long getResets() {
+        return resets;
+    }
+
+    private void start() {
+        counter = analyzer.newCounter();
+        decoder = newDecoder(counter);
+        stats = null;
+        offset = 0;
+        fileKey = null;
+        head = new byte[0];
+    }
+
+    private FileScanner.Decoder newDecoder(TextCounter counter) {
+        return new FileScanner.Decoder(analyzer.getCharset(), counter);
+    }
+
+    private boolean isReplaced(FileChannel channel, Object key, long size) throws IOException {
+        if (offset == 0)
+            return false;
+        if (size < offset)
+            return true;
+        if (fileKey != null && key != null && !fileKey.equals(key))
+            return true;
+        //没有文件标识的平台上，或者原路径被复制覆盖时，通过开头的内容识别被替换的文件
+        return !Arrays.equals(head, readHead(channel, head.length));
+    }
+
+    private static byte[] readHead(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(HEAD_SIZE, size));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            //读满开头的字节
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TailAnalyzer{file=" + file + ", offset=" + offset + ", resets=" + resets + '}';
+    }
+}
@@ -0,0 +1,126 @@
+package com.rainple.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * @description: 文本分析器，文件只读取和解码一次，同时计算所有选择的指标
+ * @author: rainple
+ * @create: 2026-10-18 10:05
+ **/
+public class TextAnalyzer {
+
+    /**
+     * 可选的统计指标
+     */
+    public enum Metric {
+        /**
+         * 字符总数
+         */
+        TOTAL_CHARS,
+        /**
+         * 中文字符数量
+         */
+        CHINESE_CHARS,
+        /**
+         * 英文单词数量及各单词出现次数
+         */
+        ENGLISH_WORDS,
+        /**
+         * 各字符出现次数，包括出现最多和最少的字符
+         */
+        CHAR_COUNTS
+    }
+
+    private final EnumSet<Metric> metrics;
+    private final Charset charset;
+    private final boolean ignoreCase;
+
+    /**
+     * @param charsetName 文件编码格式
+     * @param ignoreCase 统计英文单词时是否忽略大小写
+     * @param metrics 需要统计的指标
+     */
+    public TextAnalyzer(String charsetName, boolean ignoreCase, Metric... metrics) {
+        if (metrics == null || metrics.length == 0)
+            throw new IllegalArgumentException("at least one metric is required");
+        if (charsetName == null || "".equals(charsetName))
+            charsetName = "utf-8";
+        this.metrics = EnumSet.copyOf(Arrays.asList(metrics));
+        this.charset = FileScanner.charset(charsetName);
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * 默认编码格式utf-8，不忽略大小写
+     * @param metrics 需要统计的指标
+     */
+    public TextAnalyzer(Metric... metrics) {
+        this("utf-8", false, metrics);
+    }
+
+    /**
+     * 分析文件
+     * @param inputStream 文件输入流
+     * @return 统计结果
+     * @throws IOException 异常
+     */
+    public TextStats analyze(FileInputStream inputStream) throws IOException {
+        Probe probe = Probe.begin("analyze");
+        try {
+            TextCounter counter = newCounter();
+            if (isByteCountable()) {
+                Utf8Counter bytes = Utf8Counter.count(inputStream.getChannel());
+                counter.totalChars = bytes.getTotalChars();
+                counter.chineseChars = bytes.getChineseChars();
+                return counter.toStats();
+            }
+            FileScanner.scanChars(inputStream.getChannel(), charset, counter);
+            counter.finish();
+            return counter.toStats();
+        } finally {
+            Probe.end(probe);
+        }
+    }
+
+    public TextStats analyze(File file) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            return analyze(inputStream);
+        }
+    }
+
+    public TextStats analyze(String path) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(path)) {
+            return analyze(inputStream);
+        }
+    }
+
+    /**
+     * 只统计字符总数和中文字符数量的 UTF-8 文件可以直接按字节计数
+     */
+    private boolean isByteCountable() {
+        return Utf8Counter.supports(charset)
+                && !metrics.contains(Metric.ENGLISH_WORDS) && !metrics.contains(Metric.CHAR_COUNTS);
+    }
+
+    TextCounter newCounter() {
+        return new TextCounter(metrics, ignoreCase);
+    }
+
+    Charset getCharset() {
+        return charset;
+    }
+
+    boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    Set<Metric> getMetrics() {
+        return metrics;
+    }
+}
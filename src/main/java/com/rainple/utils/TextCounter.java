@@ -0,0 +1,110 @@
+package com.rainple.utils;
+
+import java.nio.CharBuffer;
+import java.util.EnumSet;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * @description: 单次扫描内同时统计多项指标的计数器，可合并
+ * @author: rainple
+ * @create: 2026-10-18 10:05
+ **/
+final class TextCounter implements FileScanner.CharHandler {
+
+    private final EnumSet<TextAnalyzer.Metric> metrics;
+    private final boolean countChars;
+    private final boolean countChinese;
+    private final boolean countWords;
+    private final boolean ignoreCase;
+
+    long totalChars;
+    long chineseChars;
+    final CharHistogram charCounts;
+    final WordCounter wordCounts;
+    private final Tokenizer tokenizer;
+
+    TextCounter(EnumSet<TextAnalyzer.Metric> metrics, boolean ignoreCase) {
+        this.metrics = metrics;
+        this.countChars = metrics.contains(TextAnalyzer.Metric.CHAR_COUNTS);
+        this.countChinese = metrics.contains(TextAnalyzer.Metric.CHINESE_CHARS);
+        this.countWords = metrics.contains(TextAnalyzer.Metric.ENGLISH_WORDS);
+        this.ignoreCase = ignoreCase;
+        this.charCounts = countChars ? FileUtils.newCharHistogram() : null;
+        this.wordCounts = countWords ? new WordCounter(ignoreCase) : null;
+        this.tokenizer = countWords ? new Tokenizer(wordCounts) : null;
+    }
+
+    @Override
+    public boolean handle(CharBuffer buffer) {
+        totalChars += buffer.remaining();
+        char[] chars = buffer.array();
+        int from = buffer.arrayOffset() + buffer.position();
+        int to = buffer.arrayOffset() + buffer.limit();
+        if (countChinese) {
+            for (int i = from; i < to; i++) {
+                if (Tokenizer.isChinese(chars[i]))
+                    chineseChars++;
+            }
+        }
+        if (countChars)
+            charCounts.add(chars, from, to);
+        if (countWords)
+            tokenizer.feed(chars, from, to);
+        return true;
+    }
+
+    /**
+     * 输入结束，统计末尾尚未结束的单词
+     */
+    void finish() {
+        if (countWords)
+            tokenizer.finish();
+    }
+
+    /**
+     * 清空结果，复用计数器统计下一个输入
+     */
+    void reset() {
+        totalChars = 0;
+        chineseChars = 0;
+        if (countChars)
+            charCounts.clear();
+        if (countWords) {
+            wordCounts.clear();
+            tokenizer.reset();
+        }
+    }
+
+    /**
+     * 合并另一个计数器的结果
+     * @param other 计数器
+     */
+    void merge(TextCounter other) {
+        totalChars += other.totalChars;
+        chineseChars += other.chineseChars;
+        if (charCounts != null && other.charCounts != null)
+            charCounts.merge(other.charCounts);
+        if (wordCounts != null && other.wordCounts != null)
+            wordCounts.merge(other.wordCounts);
+    }
+
+    TextStats toStats() {
+        return new TextStats(metrics, totalChars, chineseChars, charCounts,
+                wordCounts == null ? Collections.<String, Long>emptyMap() : wordCounts.counts());
+    }
+
+    /**
+     * 不结束输入的当前结果，末尾尚未结束的单词也计算在内，之后还可以继续输入。
+     * 需要复制全部结果，开销与不同的字符和单词数量成正比，调用方应只在需要完整结果时调用
+     */
+    TextStats snapshot() {
+        String pendingWord = countWords ? tokenizer.pendingWord(ignoreCase) : null;
+        if (pendingWord == null)
+            return toStats();
+        Map<String, Long> counts = wordCounts.counts();
+        Long num = counts.get(pendingWord);
+        counts.put(pendingWord, num == null ? 1L : num + 1);
+        return new TextStats(metrics, totalChars, chineseChars, charCounts, counts);
+    }
+}
@@ -0,0 +1,278 @@
+package com.rainple.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @description: 文本统计结果，不可变。StatsCache 持久化时按固定格式读写各字段，不使用对象序列化
+ * @author: rainple
+ * @create: 2026-10-18 10:05
+ **/
+public final class TextStats {
+
+    private final Set<TextAnalyzer.Metric> metrics;
+    private final long totalChars;
+    private final long chineseChars;
+    private final long englishWords;
+    private final Map<Character, Long> charCounts;
+    private final Map<String, Long> wordCounts;
+    private final Map.Entry<Character, Long> maxChar;
+    private final Map.Entry<Character, Long> minChar;
+
+    TextStats(Set<TextAnalyzer.Metric> metrics, long totalChars, long chineseChars,
+              CharHistogram charCounts, Map<String, Long> wordCounts) {
+        this.metrics = Collections.unmodifiableSet(EnumSet.copyOf(metrics));
+        this.totalChars = totalChars;
+        this.chineseChars = chineseChars;
+        if (charCounts == null) {
+            this.charCounts = Collections.emptyMap();
+            this.maxChar = null;
+            this.minChar = null;
+        } else {
+            this.charCounts = Collections.unmodifiableMap(charCounts.toMap());
+            this.maxChar = charCounts.max();
+            this.minChar = charCounts.min();
+        }
+        //调用方传入的都是新建的 Map，不再复制一次
+        this.wordCounts = Collections.unmodifiableMap(wordCounts);
+        long words = 0;
+        for (Long count : wordCounts.values())
+            words += count;
+        this.englishWords = words;
+    }
+
+    private TextStats(Set<TextAnalyzer.Metric> metrics, long totalChars, long chineseChars, long englishWords,
+                      Map<Character, Long> charCounts, Map<String, Long> wordCounts,
+                      Map.Entry<Character, Long> maxChar, Map.Entry<Character, Long> minChar) {
+        this.metrics = Collections.unmodifiableSet(metrics);
+        this.totalChars = totalChars;
+        this.chineseChars = chineseChars;
+        this.englishWords = englishWords;
+        this.charCounts = Collections.unmodifiableMap(charCounts);
+        this.wordCounts = Collections.unmodifiableMap(wordCounts);
+        this.maxChar = maxChar;
+        this.minChar = minChar;
+    }
+
+    /**
+     * @return 统计时选择的指标
+     */
+    public Set<TextAnalyzer.Metric> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 字符总数，任何指标下都会统计
+     * @return 数量
+     */
+    public long getTotalChars() {
+        return totalChars;
+    }
+
+    /**
+     * 中文字符数量
+     * @return 数量
+     */
+    public long getChineseChars() {
+        check(TextAnalyzer.Metric.CHINESE_CHARS);
+        return chineseChars;
+    }
+
+    /**
+     * 英文单词总数
+     * @return 数量
+     */
+    public long getEnglishWords() {
+        check(TextAnalyzer.Metric.ENGLISH_WORDS);
+        return englishWords;
+    }
+
+    /**
+     * 各英文单词出现的次数
+     * @return 不可修改的结果集
+     */
+    public Map<String, Long> getWordCounts() {
+        check(TextAnalyzer.Metric.ENGLISH_WORDS);
+        return wordCounts;
+    }
+
+    /**
+     * 按出现次数排序的英文单词
+     * @param sort 排序 FileUtils.ASC | FileUtils.DESC
+     * @return 结果集
+     */
+    public List<Map.Entry<String, Long>> getSortedWordCounts(final String sort) {
+        check(TextAnalyzer.Metric.ENGLISH_WORDS);
+        List<Map.Entry<String, Long>> list = new ArrayList<>(wordCounts.entrySet());
+        Collections.sort(list, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                if (FileUtils.ASC.equals(sort))
+                    return o1.getValue().compareTo(o2.getValue());
+                else
+                    return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * 各字符出现的次数（不包括换行和空格）
+     * @return 不可修改的结果集
+     */
+    public Map<Character, Long> getCharCounts() {
+        check(TextAnalyzer.Metric.CHAR_COUNTS);
+        return charCounts;
+    }
+
+    /**
+     * 按出现次数排序的字符
+     * @param sort 排序 FileUtils.ASC | FileUtils.DESC
+     * @return 结果集
+     */
+    public List<Map.Entry<Character, Long>> getSortedCharCounts(final String sort) {
+        check(TextAnalyzer.Metric.CHAR_COUNTS);
+        List<Map.Entry<Character, Long>> list = new ArrayList<>(charCounts.entrySet());
+        Collections.sort(list, new Comparator<Map.Entry<Character, Long>>() {
+            @Override
+            public int compare(Map.Entry<Character, Long> o1, Map.Entry<Character, Long> o2) {
+                if (FileUtils.ASC.equals(sort))
+                    return o1.getValue().compareTo(o2.getValue());
+                else
+                    return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * 出现最多的字符
+     * @return 字符及次数，没有字符时返回null
+     */
+    public Map.Entry<Character, Long> getMaxPresentCharacter() {
+        check(TextAnalyzer.Metric.CHAR_COUNTS);
+        return maxChar;
+    }
+
+    /**
+     * 出现最少的字符
+     * @return 字符及次数，没有字符时返回null
+     */
+    public Map.Entry<Character, Long> getMinPresentCharacter() {
+        check(TextAnalyzer.Metric.CHAR_COUNTS);
+        return minChar;
+    }
+
+    /**
+     * 按固定格式写出所有字段
+     */
+    void write(DataOutput out) throws IOException {
+        int bits = 0;
+        for (TextAnalyzer.Metric metric : metrics)
+            bits |= 1 << metric.ordinal();
+        out.writeInt(bits);
+        out.writeLong(totalChars);
+        out.writeLong(chineseChars);
+        out.writeLong(englishWords);
+        out.writeInt(charCounts.size());
+        for (Map.Entry<Character, Long> entry : charCounts.entrySet()) {
+            out.writeChar(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+        writeEntry(out, maxChar);
+        writeEntry(out, minChar);
+        out.writeInt(wordCounts.size());
+        for (Map.Entry<String, Long> entry : wordCounts.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    /**
+     * 读取 write 写出的字段，数据不合法时抛出 IOException
+     */
+    static TextStats read(DataInput in) throws IOException {
+        int bits = in.readInt();
+        Set<TextAnalyzer.Metric> metrics = EnumSet.noneOf(TextAnalyzer.Metric.class);
+        for (TextAnalyzer.Metric metric : TextAnalyzer.Metric.values()) {
+            if ((bits & 1 << metric.ordinal()) != 0)
+                metrics.add(metric);
+        }
+        if (metrics.isEmpty() || bits >>> TextAnalyzer.Metric.values().length != 0)
+            throw new IOException("illegal metrics: " + bits);
+        long totalChars = in.readLong();
+        long chineseChars = in.readLong();
+        long englishWords = in.readLong();
+        int chars = readSize(in, Character.MAX_VALUE + 1);
+        Map<Character, Long> charCounts = new HashMap<>(chars * 2);
+        for (int i = 0; i < chars; i++)
+            charCounts.put(in.readChar(), in.readLong());
+        Map.Entry<Character, Long> maxChar = readEntry(in);
+        Map.Entry<Character, Long> minChar = readEntry(in);
+        int words = readSize(in, Integer.MAX_VALUE);
+        Map<String, Long> wordCounts = new HashMap<>();
+        for (int i = 0; i < words; i++)
+            wordCounts.put(readString(in), in.readLong());
+        return new TextStats(metrics, totalChars, chineseChars, englishWords, charCounts, wordCounts, maxChar, minChar);
+    }
+
+    /**
+     * 长度加UTF-8字节，不受 writeUTF 的 64K 限制
+     */
+    static void writeString(DataOutput out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readSize(in, 1 << 24)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int readSize(DataInput in, int max) throws IOException {
+        int size = in.readInt();
+        if (size < 0 || size > max)
+            throw new IOException("illegal size: " + size);
+        return size;
+    }
+
+    private static void writeEntry(DataOutput out, Map.Entry<Character, Long> entry) throws IOException {
+        out.writeBoolean(entry != null);
+        if (entry != null) {
+            out.writeChar(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    private static Map.Entry<Character, Long> readEntry(DataInput in) throws IOException {
+        if (!in.readBoolean())
+            return null;
+        char c = in.readChar();
+        return new AbstractMap.SimpleImmutableEntry<>(c, in.readLong());
+    }
+
+    private void check(TextAnalyzer.Metric metric) {
+        if (!metrics.contains(metric))
+            throw new IllegalStateException("metric not selected: " + metric);
+    }
+
+    @Override
+    public String toString() {
+        return "TextStats{metrics=" + metrics + ", totalChars=" + totalChars + ", chineseChars=" + chineseChars
+                + ", englishWords=" + englishWords + ", distinctChars=" + charCounts.size()
+                + ", distinctWords=" + wordCounts.size() + '}';
+    }
+}
@@ -0,0 +1,196 @@
+package com.rainple.utils;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * @description: 流式分词器，按字符类别的状态机一次遍历输入，识别英文单词和中文字符。
+ * 英文单词为连续的ASCII字母（a-z、A-Z），中文字符为 一 - 龥 范围内的字符。
+ * 单词以（数组，偏移，长度）的形式回调，不为每个字符或单词分配对象；跨越两次输入的单词会被拼接后完整回调一次。
+ * 分词器有状态，非线程安全
+ * @author: rainple
+ * @create: 2026-10-18 10:29
+ **/
+public final class Tokenizer {
+
+    private static final int SCRATCH_SIZE = 4096;
+
+    /**
+     * 分词结果处理器
+     */
+    public interface TokenHandler {
+        /**
+         * 识别到一个英文单词
+         * @param chars 字符数组，只在本次回调内有效
+         * @param offset 单词在数组中的起始下标
+         * @param length 单词长度
+         * @param position 单词首字符在整个输入中的位置
+         */
+        void onWord(char[] chars, int offset, int length, long position);
+
+        /**
+         * 识别到一个中文字符
+         * @param c 字符
+         * @param position 字符在整个输入中的位置
+         */
+        default void onChinese(char c, long position) {
+        }
+    }
+
+    private final TokenHandler handler;
+    /**
+     * 上一次输入末尾尚未结束的单词
+     */
+    private char[] pending = new char[64];
+    private int pendingLength;
+    private long pendingPosition;
+    /**
+     * 已输入的字符数
+     */
+    private long position;
+    private char[] scratch;
+
+    public Tokenizer(TokenHandler handler) {
+        if (handler == null)
+            throw new IllegalArgumentException("handler is null");
+        this.handler = handler;
+    }
+
+    /**
+     * 是否为英文字母
+     * @param c 字符
+     * @return true | false
+     */
+    public static boolean isEnglishLetter(char c) {
+        int lower = c | 0x20;
+        return lower >= 'a' && lower <= 'z';
+    }
+
+    /**
+     * 是否为中文字符（一 - 龥）
+     * @param c 字符
+     * @return true | false
+     */
+    public static boolean isChinese(char c) {
+        return c >= '\u4e00' && c <= '\u9fa5';
+    }
+
+    /**
+     * 输入字符数组中的一段
+     * @param chars 字符数组
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     */
+    public void feed(char[] chars, int from, int to) {
+        long base = position - from;
+        int i = from;
+        if (pendingLength > 0) {
+            while (i < to && isEnglishLetter(chars[i]))
+                i++;
+            appendPending(chars, from, i);
+            if (i == to) {
+                position = base + to;
+                return;
+            }
+            handler.onWord(pending, 0, pendingLength, pendingPosition);
+            pendingLength = 0;
+        }
+        int start = -1;
+        for (; i < to; i++) {
+            char c = chars[i];
+            if (isEnglishLetter(c)) {
+                if (start < 0)
+                    start = i;
+            } else {
+                if (start >= 0) {
+                    handler.onWord(chars, start, i - start, base + start);
+                    start = -1;
+                }
+                if (isChinese(c))
+                    handler.onChinese(c, base + i);
+            }
+        }
+        if (start >= 0) {
+            pendingPosition = base + start;
+            appendPending(chars, start, to);
+        }
+        position = base + to;
+    }
+
+    /**
+     * 输入缓冲区中 position 到 limit 的字符，不改变缓冲区的位置
+     * @param buffer 字符缓冲区
+     */
+    public void feed(CharBuffer buffer) {
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            feed(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+        } else {
+            feed((CharSequence) buffer);
+        }
+    }
+
+    /**
+     * 输入一段字符序列
+     * @param sequence 字符序列
+     */
+    public void feed(CharSequence sequence) {
+        if (scratch == null)
+            scratch = new char[SCRATCH_SIZE];
+        for (int from = 0, len = sequence.length(); from < len; from += SCRATCH_SIZE) {
+            int n = Math.min(SCRATCH_SIZE, len - from);
+            for (int i = 0; i < n; i++)
+                scratch[i] = sequence.charAt(from + i);
+            feed(scratch, 0, n);
+        }
+    }
+
+    /**
+     * 输入结束，回调末尾尚未结束的单词
+     */
+    public void finish() {
+        if (pendingLength > 0) {
+            handler.onWord(pending, 0, pendingLength, pendingPosition);
+            pendingLength = 0;
+        }
+    }
+
+    /**
+     * 末尾尚未结束的单词，不清除，后续输入仍然可以接在这个单词后面
+     * @param lowerCase 是否逐字符转为小写
+     * @return 单词，没有时返回null
+     */
+    String pendingWord(boolean lowerCase) {
+        if (pendingLength == 0)
+            return null;
+        if (!lowerCase)
+            return new String(pending, 0, pendingLength);
+        char[] chars = new char[pendingLength];
+        for (int i = 0; i < pendingLength; i++)
+            chars[i] = Character.toLowerCase(pending[i]);
+        return new String(chars);
+    }
+
+    /**
+     * 丢弃未结束的单词并从位置0重新开始
+     */
+    public void reset() {
+        pendingLength = 0;
+        position = 0;
+    }
+
+    /**
+     * @return 已输入的字符数
+     */
+    public long position() {
+        return position;
+    }
+
+    private void appendPending(char[] chars, int from, int to) {
+        int n = to - from;
+        if (pendingLength + n > pending.length)
+            pending = Arrays.copyOf(pending, Math.max(pending.length << 1, pendingLength + n));
+        System.arraycopy(chars, from, pending, pendingLength, n);
+        pendingLength += n;
+    }
+}
@@ -0,0 +1,220 @@
+package com.rainple.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @description: UTF-8 字节级计数器，不解码出字符，直接从字节序列统计字符总数（按 UTF-16 计，4字节序列算2个）和中文字符数量。
+ * 纯ASCII部分每次检查8个字节，多字节序列边读边校验，遇到非法序列时从该序列开始交给解码器处理，结果与解码后统计完全一致
+ * @author: rainple
+ * @create: 2026-10-18 10:50
+ **/
+final class Utf8Counter implements FileScanner.ByteHandler {
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    /**
+     * 跨窗口的不完整字节序列
+     */
+    private final byte[] carry = new byte[4];
+    private final ByteBuffer carryBuffer = ByteBuffer.wrap(carry);
+    private final Probe probe = Probe.current();
+    private int carried;
+    private int expected;
+    private FileScanner.Decoder fallback;
+    private long totalChars;
+    private long chineseChars;
+
+    /**
+     * @param charset 字符集
+     * @return 是否可以使用字节级计数
+     */
+    static boolean supports(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset);
+    }
+
+    /**
+     * 从通道当前位置统计到末尾
+     * @param channel 文件通道
+     * @return 计数结果
+     * @throws IOException 异常
+     */
+    static Utf8Counter count(FileChannel channel) throws IOException {
+        Utf8Counter counter = new Utf8Counter();
+        FileScanner.scan(channel, counter);
+        counter.finish();
+        return counter;
+    }
+
+    @Override
+    public boolean handle(ByteBuffer in) throws IOException {
+        if (fallback != null)
+            return fallback.handle(in);
+        long start = Probe.now(probe);
+        long before = totalChars;
+        boolean valid = (carried == 0 || completeCarry(in)) && countWindow(in);
+        if (probe != null) {
+            probe.decodeNanos += System.nanoTime() - start;
+            probe.charsDecoded += totalChars - before;
+        }
+        if (!valid) {
+            startFallback();
+            return fallback.handle(in);
+        }
+        return true;
+    }
+
+    /**
+     * 输入结束，末尾残留的不完整序列按解码器的方式处理
+     */
+    void finish() throws IOException {
+        if (fallback == null) {
+            if (carried == 0)
+                return;
+            startFallback();
+        }
+        try {
+            fallback.finish();
+        } finally {
+            fallback.release();
+        }
+    }
+
+    long getTotalChars() {
+        return totalChars;
+    }
+
+    long getChineseChars() {
+        return chineseChars;
+    }
+
+    private boolean completeCarry(ByteBuffer in) {
+        while (carried < expected && in.hasRemaining())
+            carry[carried++] = in.get();
+        if (carried < expected)
+            return true;
+        if (step(carryBuffer, 0, carried) < 0)
+            return false;
+        carried = 0;
+        return true;
+    }
+
+    /**
+     * 统计一个窗口，遇到非法序列时把位置停在该序列开头并返回 false
+     */
+    private boolean countWindow(ByteBuffer in) {
+        int i = in.position();
+        int limit = in.limit();
+        while (i < limit) {
+            int ascii = i;
+            while (i + 8 <= limit && (in.getLong(i) & HIGH_BITS) == 0)
+                i += 8;
+            while (i < limit && in.get(i) >= 0)
+                i++;
+            totalChars += i - ascii;
+            if (i == limit)
+                break;
+            int n = step(in, i, limit);
+            if (n > 0) {
+                i += n;
+                continue;
+            }
+            in.position(i);
+            if (n < 0)
+                return false;
+            //窗口末尾的序列不完整，保留到下一个窗口
+            int lead = in.get(i) & 0xFF;
+            expected = lead < 0xE0 ? 2 : lead < 0xF0 ? 3 : 4;
+            carried = limit - i;
+            in.get(carry, 0, carried);
+            return true;
+        }
+        in.position(limit);
+        return true;
+    }
+
+    /**
+     * 校验并统计从 i 开始的一个多字节序列
+     * @return 序列长度 | 0 序列在 limit 之前没有结束且已有的字节合法 | -1 非法序列
+     */
+    private int step(ByteBuffer buffer, int i, int limit) {
+        int b0 = buffer.get(i) & 0xFF;
+        if (b0 < 0x80) {
+            totalChars++;
+            return 1;
+        }
+        if (b0 < 0xC2 || b0 > 0xF4)
+            return -1;
+        if (i + 1 >= limit)
+            return 0;
+        int b1 = buffer.get(i + 1) & 0xFF;
+        if (b0 < 0xE0) {
+            if (!isContinuation(b1))
+                return -1;
+            totalChars++;
+            return 2;
+        }
+        //排除过长编码、代理区和超出 U+10FFFF 的码点
+        boolean second;
+        if (b0 == 0xE0)
+            second = b1 >= 0xA0 && b1 <= 0xBF;
+        else if (b0 == 0xED)
+            second = b1 >= 0x80 && b1 <= 0x9F;
+        else if (b0 == 0xF0)
+            second = b1 >= 0x90 && b1 <= 0xBF;
+        else if (b0 == 0xF4)
+            second = b1 >= 0x80 && b1 <= 0x8F;
+        else
+            second = isContinuation(b1);
+        if (!second)
+            return -1;
+        if (i + 2 >= limit)
+            return 0;
+        int b2 = buffer.get(i + 2) & 0xFF;
+        if (!isContinuation(b2))
+            return -1;
+        if (b0 < 0xF0) {
+            totalChars++;
+            //U+4E00 到 U+9FA5 对应 E4 B8 80 到 E9 BE A5
+            if (b0 >= 0xE4 && b0 <= 0xE9 && (b0 != 0xE4 || b1 >= 0xB8)
+                    && (b0 != 0xE9 || b1 < 0xBE || b1 == 0xBE && b2 <= 0xA5))
+                chineseChars++;
+            return 3;
+        }
+        if (i + 3 >= limit)
+            return 0;
+        if (!isContinuation(buffer.get(i + 3) & 0xFF))
+            return -1;
+        //增补平面字符解码为一对代理字符
+        totalChars += 2;
+        return 4;
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private void startFallback() throws IOException {
+        fallback = FileScanner.Decoder.pooled(StandardCharsets.UTF_8, new FileScanner.CharHandler() {
+            @Override
+            public boolean handle(CharBuffer buffer) {
+                char[] chars = buffer.array();
+                int end = buffer.arrayOffset() + buffer.limit();
+                for (int i = buffer.arrayOffset() + buffer.position(); i < end; i++) {
+                    if (Tokenizer.isChinese(chars[i]))
+                        chineseChars++;
+                }
+                totalChars += buffer.remaining();
+                return true;
+            }
+        });
+        if (carried > 0) {
+            fallback.handle(ByteBuffer.wrap(carry, 0, carried));
+            carried = 0;
+        }
+    }
+}
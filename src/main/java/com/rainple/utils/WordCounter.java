@@ -0,0 +1,57 @@
+package com.rainple.utils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 英文单词计数，接收分词器回调的单词并累加次数。次数保存在堆外的 WordTable 中，
+ * 已出现过的单词不创建 String，也不装箱
+ * @author: rainple
+ * @create: 2026-10-18 10:29
+ **/
+final class WordCounter implements Tokenizer.TokenHandler {
+
+    private final boolean ignoreCase;
+    private final WordTable table = new WordTable();
+
+    WordCounter(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    @Override
+    public void onWord(char[] chars, int offset, int length, long position) {
+        table.add(chars, offset, length, ignoreCase);
+    }
+
+    /**
+     * 合并另一个计数器的结果
+     * @param other 计数器
+     */
+    void merge(WordCounter other) {
+        table.merge(other.table);
+    }
+
+    /**
+     * @return 单词及次数，每次调用都创建新的 Map
+     */
+    Map<String, Long> counts() {
+        return table.toMap();
+    }
+
+    /**
+     * 出现次数最多的前K个单词，只为结果中的单词创建 String
+     * @param k 数量
+     * @return 按次数降序排列的结果集
+     */
+    List<Map.Entry<String, Long>> top(int k) {
+        return table.top(k);
+    }
+
+    boolean isEmpty() {
+        return table.size() == 0;
+    }
+
+    void clear() {
+        table.clear();
+    }
+}
@@ -0,0 +1,227 @@
+package com.rainple.utils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * @description: 单个字符串查找器（Boyer-Moore-Horspool），预先编译跳转表后直接在解码缓冲区上查找。
+ * 计数规则与逐字符比较相同：从左到右查找，匹配成功后跳过整个字符串继续，出现位置互不重叠。
+ * 编译结果不可变，可在多个线程间共享
+ * @author: rainple
+ * @create: 2026-10-18 10:31
+ **/
+public final class WordSearcher {
+
+    /**
+     * 跳转表按字符低8位分桶，同一个桶取最小的跳转距离
+     */
+    private static final int TABLE_MASK = 0xFF;
+
+    private final char[] word;
+    private final int[] shift = new int[TABLE_MASK + 1];
+
+    private WordSearcher(char[] word) {
+        this.word = word;
+        int m = word.length;
+        Arrays.fill(shift, m);
+        for (int i = 0; i < m - 1; i++)
+            shift[word[i] & TABLE_MASK] = m - 1 - i;
+    }
+
+    /**
+     * 编译查找器
+     * @param word 查找的字符串
+     * @return 查找器
+     */
+    public static WordSearcher compile(String word) {
+        if (word == null || word.isEmpty())
+            throw new IllegalArgumentException("word is empty");
+        return new WordSearcher(word.toCharArray());
+    }
+
+    /**
+     * @return 查找的字符串长度
+     */
+    public int length() {
+        return word.length;
+    }
+
+    /**
+     * 查找第一次出现的位置
+     * @param chars 字符数组
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     * @return 出现位置的下标，没有找到返回 -1
+     */
+    public int indexOf(char[] chars, int from, int to) {
+        char[] word = this.word;
+        int last = word.length - 1;
+        char lastChar = word[last];
+        for (int i = from + last; i < to; ) {
+            char c = chars[i];
+            if (c == lastChar) {
+                int j = last - 1;
+                int k = i - 1;
+                while (j >= 0 && chars[k] == word[j]) {
+                    j--;
+                    k--;
+                }
+                if (j < 0)
+                    return i - last;
+            }
+            i += shift[c & TABLE_MASK];
+        }
+        return -1;
+    }
+
+    /**
+     * 统计不重叠出现的次数
+     * @param chars 字符数组
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     * @return 次数
+     */
+    public int count(char[] chars, int from, int to) {
+        int count = 0;
+        int i = from;
+        while ((i = indexOf(chars, i, to)) >= 0) {
+            count++;
+            i += word.length;
+        }
+        return count;
+    }
+
+    /**
+     * 统计文件中不重叠出现的次数，跨越缓冲区边界的出现也会被统计
+     * @param inputStream 文件输入流
+     * @param charsetName 字符集
+     * @return 次数
+     * @throws IOException 异常
+     */
+    public long count(FileInputStream inputStream, String charsetName) throws IOException {
+        final Session session = newSession();
+        FileScanner.scanChars(inputStream.getChannel(), FileScanner.charset(charsetName), new FileScanner.CharHandler() {
+            @Override
+            public boolean handle(CharBuffer buffer) {
+                int offset = buffer.arrayOffset();
+                session.feed(buffer.array(), offset + buffer.position(), offset + buffer.limit(), false);
+                return true;
+            }
+        });
+        return session.count();
+    }
+
+    /**
+     * 文件中是否出现，找到第一次出现即停止扫描
+     * @param inputStream 文件输入流
+     * @param charsetName 字符集
+     * @return true | false
+     * @throws IOException 异常
+     */
+    public boolean isPresent(FileInputStream inputStream, String charsetName) throws IOException {
+        final Session session = newSession();
+        FileScanner.scanChars(inputStream.getChannel(), FileScanner.charset(charsetName), new FileScanner.CharHandler() {
+            @Override
+            public boolean handle(CharBuffer buffer) {
+                int offset = buffer.arrayOffset();
+                return session.feed(buffer.array(), offset + buffer.position(), offset + buffer.limit(), true) == 0;
+            }
+        });
+        return session.count() > 0;
+    }
+
+    /**
+     * 创建一次流式查找会话，会话有状态，非线程安全
+     * @return 会话
+     */
+    public Session newSession() {
+        return new Session();
+    }
+
+    /**
+     * 流式查找会话，保留上一次输入末尾不足一个字符串长度的字符，与下一次输入拼接后查找
+     */
+    public final class Session {
+
+        /**
+         * 上一次输入末尾最多 length - 1 个字符
+         */
+        private final char[] tail = new char[word.length - 1];
+        private int tailLength;
+        private final char[] bridge = new char[(word.length - 1) * 2];
+        /**
+         * 已输入的字符数
+         */
+        private long position;
+        /**
+         * 下一次允许开始匹配的位置，保证出现位置不重叠
+         */
+        private long nextAllowed;
+        private long count;
+
+        private Session() {
+        }
+
+        /**
+         * 输入字符数组中的一段
+         * @param chars 字符数组
+         * @param from 起始下标（包含）
+         * @param to 结束下标（不包含）
+         * @return 本次输入中新增的次数
+         */
+        public int feed(char[] chars, int from, int to) {
+            return feed(chars, from, to, false);
+        }
+
+        int feed(char[] chars, int from, int to, boolean stopOnMatch) {
+            int m = word.length;
+            int found = 0;
+            //匹配起点在上一次输入末尾、终点在本次输入中的情况
+            if (tailLength > 0) {
+                int head = Math.min(to - from, m - 1);
+                System.arraycopy(tail, 0, bridge, 0, tailLength);
+                System.arraycopy(chars, from, bridge, tailLength, head);
+                long bridgeBase = position - tailLength;
+                int start = (int) Math.max(0, nextAllowed - bridgeBase);
+                int i;
+                while (start < tailLength && (i = indexOf(bridge, start, tailLength + head)) >= 0 && i < tailLength) {
+                    found++;
+                    nextAllowed = bridgeBase + i + m;
+                    start = i + m;
+                    if (stopOnMatch)
+                        break;
+                }
+            }
+            long base = position - from;
+            if (!(stopOnMatch && found > 0)) {
+                int i = (int) Math.max(from, Math.min(to, nextAllowed - base));
+                while ((i = indexOf(chars, i, to)) >= 0) {
+                    found++;
+                    i += m;
+                    nextAllowed = base + i;
+                    if (stopOnMatch)
+                        break;
+                }
+            }
+            //保存末尾可能是下一次匹配起点的字符
+            int keep = Math.min(m - 1, tailLength + to - from);
+            int fromChunk = Math.min(keep, to - from);
+            int fromTail = keep - fromChunk;
+            System.arraycopy(tail, tailLength - fromTail, tail, 0, fromTail);
+            System.arraycopy(chars, to - fromChunk, tail, fromTail, fromChunk);
+            tailLength = keep;
+            position = base + to;
+            count += found;
+            return found;
+        }
+
+        /**
+         * @return 累计的次数
+         */
+        public long count() {
+            return count;
+        }
+    }
+}
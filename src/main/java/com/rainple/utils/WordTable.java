@@ -0,0 +1,532 @@
+package com.rainple.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 单词计数表，开放寻址（线性探测），次数是槽位中的 long，键以 UTF-8 字节存放在分页的键区中。
+ * 槽位表和键区都是堆外的直接缓冲区，不同单词数量极大时不增加 GC 的负担；查找直接使用字符区间，
+ * 已存在的单词不创建 String，也不装箱。只有转换成 Map 或取前K项时才为结果中的单词创建 String。
+ * 槽位表和键区在第一次放入单词时才分配，初始大小按预计的单词数量决定，空表不占用直接内存。非线程安全
+ * @author: rainple
+ * @create: 2026-10-18 11:25
+ **/
+final class WordTable {
+
+    /**
+     * 槽位：long 次数 | int 哈希 | int 键的引用（键区中8字节单位的下标 + 1，0 表示空槽）
+     */
+    private static final int SLOT_BYTES = 16;
+    private static final int SLOT_PAGE_SHIFT = 20;
+    private static final int SLOT_PAGE_MASK = (1 << SLOT_PAGE_SHIFT) - 1;
+    private static final int MIN_CAPACITY = 64;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * 键区每页占用 16M 的地址空间，第一页按预计的单词数量在 4K 到 64K 之间，之后倍增，
+     * 超过一页的长单词单独占用连续的几页地址
+     */
+    private static final int ARENA_PAGE_SHIFT = 24;
+    private static final int ARENA_PAGE_SIZE = 1 << ARENA_PAGE_SHIFT;
+    private static final int MIN_ARENA_PAGE_SIZE = 4 * 1024;
+    private static final int MAX_FIRST_ARENA_PAGE_SIZE = 64 * 1024;
+    /**
+     * 预计每个键在键区中占用的字节数
+     */
+    private static final int EXPECTED_KEY_BYTES = 16;
+    private static final int MAX_ARENA_PAGES = 1023;
+
+    /**
+     * 槽位表，第一次放入单词前为null，此时 capacity 为0
+     */
+    private ByteBuffer[] slots;
+    private final int initialCapacity;
+    private final int firstArenaPageSize;
+    private int capacity;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    private ByteBuffer[] arena = new ByteBuffer[4];
+    private int arenaPage = -1;
+    private int arenaOffset;
+    private int nextArenaPage;
+
+    /**
+     * 当前的键，按本机字节序包装以便按8字节比较
+     */
+    private byte[] key = new byte[64];
+    private ByteBuffer keyBuffer = wrap(key);
+
+    WordTable() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize 预计的不同单词数量，只决定第一次分配的大小
+     */
+    WordTable(int expectedSize) {
+        this.initialCapacity = capacityFor(expectedSize);
+        this.firstArenaPageSize = (int) Math.max(MIN_ARENA_PAGE_SIZE,
+                Math.min(MAX_FIRST_ARENA_PAGE_SIZE, nextPowerOfTwo(Math.max(1, expectedSize) * (long) EXPECTED_KEY_BYTES)));
+    }
+
+    /**
+     * 次数加1
+     * @param chars 字符数组
+     * @param offset 单词的起始下标
+     * @param length 单词长度
+     * @param lowerCase 是否转换为小写后计数
+     */
+    void add(char[] chars, int offset, int length, boolean lowerCase) {
+        int n = encode(chars, offset, length, lowerCase);
+        add(hash(n), n, 1);
+    }
+
+    /**
+     * @param word 单词
+     * @return 次数，不存在时为0
+     */
+    long get(String word) {
+        if (size == 0)
+            return 0;
+        char[] chars = word.toCharArray();
+        int n = encode(chars, 0, chars.length, false);
+        int hash = hash(n);
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int ref = ref(i);
+            if (ref == 0)
+                return 0;
+            if (slotHash(i) == hash && keyEquals(ref, n))
+                return count(i);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 累加另一个表的结果
+     * @param other 计数表
+     */
+    void merge(WordTable other) {
+        //空表按另一个表的单词数量一次分配到位，不逐步扩容
+        if (slots == null && other.size > 0)
+            allocateSlots(Math.max(initialCapacity, capacityFor(other.size)));
+        for (int i = 0; i < other.capacity; i++) {
+            int ref = other.ref(i);
+            if (ref == 0)
+                continue;
+            ByteBuffer page = other.page(ref);
+            int offset = offset(ref);
+            int length = page.getInt(offset);
+            ensureKey(length);
+            for (int j = 0; j < length; j++)
+                key[j] = page.get(offset + 4 + j);
+            add(other.slotHash(i), length, other.count(i));
+        }
+    }
+
+    /**
+     * 清空，保留槽位表和第一页键区以便复用，只清零被占用的槽位。
+     * 槽位表已经扩大到远超使用量时释放它，下次放入单词时按初始大小重新分配
+     */
+    void clear() {
+        if (size == 0)
+            return;
+        if (capacity > initialCapacity && size < capacity >>> 3) {
+            free(slots, 0);
+            slots = null;
+            capacity = 0;
+            mask = 0;
+            threshold = 0;
+        } else {
+            for (int i = 0, left = size; left > 0; i++) {
+                ByteBuffer page = slots[i >>> SLOT_PAGE_SHIFT];
+                int at = (i & SLOT_PAGE_MASK) * SLOT_BYTES;
+                if (page.getInt(at + 12) == 0)
+                    continue;
+                page.putLong(at, 0);
+                page.putLong(at + 8, 0);
+                left--;
+            }
+        }
+        size = 0;
+        ByteBuffer first = arena[0];
+        boolean keepFirst = first != null && first.capacity() <= ARENA_PAGE_SIZE;
+        free(arena, keepFirst ? 1 : 0);
+        arena = new ByteBuffer[4];
+        arenaOffset = 0;
+        if (keepFirst) {
+            arena[0] = first;
+            arenaPage = 0;
+            nextArenaPage = 1;
+        } else {
+            arenaPage = -1;
+            nextArenaPage = 0;
+        }
+    }
+
+    /**
+     * @return 所有单词及次数，每个单词创建一个 String
+     */
+    Map<String, Long> toMap() {
+        Map<String, Long> map = new HashMap<>((int) Math.min(Integer.MAX_VALUE, size * 4L / 3 + 1));
+        for (int i = 0; i < capacity; i++) {
+            int ref = ref(i);
+            if (ref != 0)
+                map.put(word(ref), count(i));
+        }
+        return map;
+    }
+
+    /**
+     * 取次数最多的前K项，次数相同时按单词的 UTF-8 字节升序。
+     * 用槽位下标组成大小为K的堆，比较时直接读取键区，只为结果中的单词创建 String
+     * @param k 数量
+     * @return 按次数降序排列的结果集
+     */
+    List<Map.Entry<String, Long>> top(int k) {
+        if (k <= 0 || size == 0)
+            return new ArrayList<>();
+        int[] heap = new int[Math.min(k, size)];
+        int n = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (ref(i) == 0)
+                continue;
+            if (n < heap.length) {
+                heap[n] = i;
+                siftUp(heap, n++);
+            } else if (before(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, 0, n);
+            }
+        }
+        //堆顶是最靠后的一项，依次取出后倒序排列
+        Map.Entry<String, Long>[] result = newEntries(n);
+        for (int last = n - 1; last >= 0; last--) {
+            int slot = heap[0];
+            result[last] = new AbstractMap.SimpleImmutableEntry<>(word(ref(slot)), count(slot));
+            heap[0] = heap[last];
+            siftDown(heap, 0, last);
+        }
+        List<Map.Entry<String, Long>> list = new ArrayList<>(n);
+        for (Map.Entry<String, Long> entry : result)
+            list.add(entry);
+        return list;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map.Entry<String, Long>[] newEntries(int n) {
+        return new Map.Entry[n];
+    }
+
+    /**
+     * 槽位 a 是否排在槽位 b 前面：次数降序，次数相同按单词升序
+     */
+    private boolean before(int a, int b) {
+        long ca = count(a);
+        long cb = count(b);
+        if (ca != cb)
+            return ca > cb;
+        return compareKeys(ref(a), ref(b)) < 0;
+    }
+
+    /**
+     * 堆顶是最靠后的一项
+     */
+    private void siftUp(int[] heap, int i) {
+        int slot = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(heap[parent], slot))
+                break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = slot;
+    }
+
+    private void siftDown(int[] heap, int i, int n) {
+        int slot = heap[i];
+        for (;;) {
+            int child = 2 * i + 1;
+            if (child >= n)
+                break;
+            if (child + 1 < n && before(heap[child], heap[child + 1]))
+                child++;
+            if (!before(slot, heap[child]))
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = slot;
+    }
+
+    /**
+     * 查找当前键，存在时累加次数，不存在时把键复制到键区并占用空槽
+     */
+    private void add(int hash, int length, long delta) {
+        if (slots == null)
+            allocateSlots(initialCapacity);
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int ref = ref(i);
+            if (ref == 0) {
+                setSlot(i, delta, hash, store(length));
+                if (++size > threshold)
+                    grow();
+                return;
+            }
+            if (slotHash(i) == hash && keyEquals(ref, length)) {
+                ByteBuffer page = slots[i >>> SLOT_PAGE_SHIFT];
+                int at = (i & SLOT_PAGE_MASK) * SLOT_BYTES;
+                page.putLong(at, page.getLong(at) + delta);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 把字符编码为 UTF-8 放入 key，返回字节数
+     */
+    private int encode(char[] chars, int offset, int length, boolean lowerCase) {
+        ensureKey(length * 3);
+        int n = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            char c = chars[i];
+            if (lowerCase)
+                c = Character.toLowerCase(c);
+            if (c < 0x80) {
+                key[n++] = (byte) c;
+            } else if (c < 0x800) {
+                key[n++] = (byte) (0xC0 | (c >> 6));
+                key[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                int cp = Character.toCodePoint(c, chars[++i]);
+                key[n++] = (byte) (0xF0 | (cp >> 18));
+                key[n++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                key[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                key[n++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                key[n++] = (byte) (0xE0 | (c >> 12));
+                key[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                key[n++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return n;
+    }
+
+    private void ensureKey(int length) {
+        if (length <= key.length)
+            return;
+        byte[] grown = new byte[Math.max(length, key.length * 2)];
+        System.arraycopy(key, 0, grown, 0, key.length);
+        key = grown;
+        keyBuffer = wrap(key);
+    }
+
+    private static ByteBuffer wrap(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * 当前键的哈希，按8字节分块混合
+     */
+    private int hash(int length) {
+        long h = length * 0x9E3779B97F4A7C15L;
+        int i = 0;
+        for (; i + 8 <= length; i += 8)
+            h = Long.rotateLeft(h ^ keyBuffer.getLong(i) * 0xC2B2AE3D27D4EB4FL, 31) * 0x9E3779B97F4A7C15L;
+        for (; i < length; i++)
+            h = (h ^ (key[i] & 0xFF)) * 0x100000001B3L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private boolean keyEquals(int ref, int length) {
+        ByteBuffer page = page(ref);
+        int offset = offset(ref);
+        if (page.getInt(offset) != length)
+            return false;
+        offset += 4;
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            if (page.getLong(offset + i) != keyBuffer.getLong(i))
+                return false;
+        }
+        for (; i < length; i++) {
+            if (page.get(offset + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * 按无符号字节比较两个键，对 ASCII 单词与 String.compareTo 的顺序相同
+     */
+    private int compareKeys(int refA, int refB) {
+        ByteBuffer pageA = page(refA);
+        ByteBuffer pageB = page(refB);
+        int offsetA = offset(refA);
+        int offsetB = offset(refB);
+        int lengthA = pageA.getInt(offsetA);
+        int lengthB = pageB.getInt(offsetB);
+        for (int i = 0, n = Math.min(lengthA, lengthB); i < n; i++) {
+            int c = (pageA.get(offsetA + 4 + i) & 0xFF) - (pageB.get(offsetB + 4 + i) & 0xFF);
+            if (c != 0)
+                return c;
+        }
+        return lengthA - lengthB;
+    }
+
+    private String word(int ref) {
+        ByteBuffer page = page(ref);
+        int offset = offset(ref);
+        int length = page.getInt(offset);
+        ensureKey(length);
+        for (int i = 0; i < length; i++)
+            key[i] = page.get(offset + 4 + i);
+        return new String(key, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 把当前键复制到键区，返回引用。长度和内容按8字节对齐存放，一页放不下时换下一页
+     */
+    private int store(int length) {
+        int need = (4 + length + 7) & ~7;
+        //单独占用几页的长单词之后不再放入其他键，否则地址会落到后面的页
+        if (arenaPage < 0 || arenaOffset + need > Math.min(arena[arenaPage].capacity(), ARENA_PAGE_SIZE))
+            newArenaPage(need);
+        ByteBuffer page = arena[arenaPage];
+        int offset = arenaOffset;
+        page.putInt(offset, length);
+        int i = 0;
+        for (; i + 8 <= length; i += 8)
+            page.putLong(offset + 4 + i, keyBuffer.getLong(i));
+        for (; i < length; i++)
+            page.put(offset + 4 + i, key[i]);
+        arenaOffset += need;
+        long address = ((long) arenaPage << ARENA_PAGE_SHIFT) + offset;
+        return (int) (address >>> 3) + 1;
+    }
+
+    private void newArenaPage(int need) {
+        int size;
+        int pages;
+        if (need > ARENA_PAGE_SIZE) {
+            size = need;
+            pages = (int) ((need + (long) ARENA_PAGE_SIZE - 1) >>> ARENA_PAGE_SHIFT);
+        } else {
+            int previous = arenaPage < 0 ? firstArenaPageSize / 2 : Math.min(arena[arenaPage].capacity(), ARENA_PAGE_SIZE / 2);
+            size = Math.max(need, previous * 2);
+            pages = 1;
+        }
+        int index = nextArenaPage;
+        //引用是 int，8字节为单位，地址空间约 16G
+        if (index + pages > MAX_ARENA_PAGES)
+            throw new IllegalStateException("word table is full");
+        if (index + pages > arena.length) {
+            ByteBuffer[] grown = new ByteBuffer[Math.min(MAX_ARENA_PAGES, Math.max(index + pages, arena.length * 2))];
+            System.arraycopy(arena, 0, grown, 0, arena.length);
+            arena = grown;
+        }
+        arena[index] = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        arenaPage = index;
+        arenaOffset = 0;
+        nextArenaPage = index + pages;
+    }
+
+    private ByteBuffer page(int ref) {
+        return arena[(int) (((ref - 1L) << 3) >>> ARENA_PAGE_SHIFT)];
+    }
+
+    private static int offset(int ref) {
+        return (int) (((ref - 1L) << 3) & (ARENA_PAGE_SIZE - 1));
+    }
+
+    /**
+     * 放入指定数量的单词不需要扩容的槽位数量
+     */
+    private static int capacityFor(int expectedSize) {
+        long need = (long) Math.ceil(expectedSize / 0.7) + 1;
+        return (int) Math.min(MAX_CAPACITY, Math.max(MIN_CAPACITY, nextPowerOfTwo(need)));
+    }
+
+    private static long nextPowerOfTwo(long n) {
+        return n <= 1 ? 1 : Long.highestOneBit(n - 1) << 1;
+    }
+
+    private void allocateSlots(int capacity) {
+        int perPage = Math.min(capacity, 1 << SLOT_PAGE_SHIFT);
+        ByteBuffer[] pages = new ByteBuffer[capacity / perPage];
+        for (int i = 0; i < pages.length; i++)
+            pages[i] = ByteBuffer.allocateDirect(perPage * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        this.slots = pages;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.threshold = capacity == MAX_CAPACITY ? MAX_CAPACITY - 1 : (int) (capacity * 0.7);
+    }
+
+    /**
+     * 槽位表扩大一倍，按保存的哈希重新放置，不读取键区
+     */
+    private void grow() {
+        if (capacity == MAX_CAPACITY)
+            throw new IllegalStateException("word table is full");
+        ByteBuffer[] old = slots;
+        int oldCapacity = capacity;
+        allocateSlots(capacity * 2);
+        for (int i = 0; i < oldCapacity; i++) {
+            ByteBuffer page = old[i >>> SLOT_PAGE_SHIFT];
+            int at = (i & SLOT_PAGE_MASK) * SLOT_BYTES;
+            int ref = page.getInt(at + 12);
+            if (ref == 0)
+                continue;
+            int hash = page.getInt(at + 8);
+            int j = hash & mask;
+            while (ref(j) != 0)
+                j = (j + 1) & mask;
+            setSlot(j, page.getLong(at), hash, ref);
+        }
+        free(old, 0);
+    }
+
+    /**
+     * 立即释放不再使用的页，不等垃圾回收，扩容期间新旧槽位表同时占用的直接内存尽快归还
+     */
+    private static void free(ByteBuffer[] pages, int from) {
+        for (int i = from; i < pages.length; i++) {
+            if (pages[i] != null)
+                FileScanner.unmap(pages[i]);
+        }
+    }
+
+    private long count(int i) {
+        return slots[i >>> SLOT_PAGE_SHIFT].getLong((i & SLOT_PAGE_MASK) * SLOT_BYTES);
+    }
+
+    private int slotHash(int i) {
+        return slots[i >>> SLOT_PAGE_SHIFT].getInt((i & SLOT_PAGE_MASK) * SLOT_BYTES + 8);
+    }
+
+    private int ref(int i) {
+        return slots[i >>> SLOT_PAGE_SHIFT].getInt((i & SLOT_PAGE_MASK) * SLOT_BYTES + 12);
+    }
+
+    private void setSlot(int i, long count, int hash, int ref) {
+        ByteBuffer page = slots[i >>> SLOT_PAGE_SHIFT];
+        int at = (i & SLOT_PAGE_MASK) * SLOT_BYTES;
+        page.putLong(at, count);
+        page.putInt(at + 8, hash);
+        page.putInt(at + 12, ref);
+    }
+}
@@ -0,0 +1,180 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: BatchAnalyzer 测试，每个文件的结果与 TextAnalyzer 单独分析的结果相同，合并结果是各文件之和
+ * @author: rainple
+ * @create: 2026-10-18 10:42
+ **/
+public class BatchAnalyzerTest {
+
+    private static final List<String> KEYWORDS = Arrays.asList("hello", "中文", "o w", "ab");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TextAnalyzer analyzer = new TextAnalyzer("utf-8", true, TextAnalyzer.Metric.values());
+
+    @After
+    public void restoreSettings() {
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void globSelectsRelativePaths() throws IOException {
+        File root = folder.getRoot();
+        for (String name : new String[]{"a.log", "b.txt", "sub/c.log", "sub/deep/d.log", "sub/e.txt"})
+            write(new File(root, name), name);
+        BatchAnalyzer batch = new BatchAnalyzer(analyzer);
+        assertEquals(Arrays.asList("a.log", "sub/c.log", "sub/deep/d.log"), names(batch.analyze(root, "**.log")));
+        assertEquals(Arrays.asList("a.log"), names(batch.analyze(root, "*.log")));
+        assertEquals(Arrays.asList("sub/c.log", "sub/e.txt"), names(batch.analyze(root, "sub/*")));
+        assertEquals(5, batch.analyze(root, (String) null).getFileCount());
+        assertEquals(Arrays.asList("b.txt", "sub/e.txt"), names(batch.analyze(root, new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.getName().endsWith(".txt");
+            }
+        })));
+    }
+
+    @Test
+    public void perFileAndMergedResultsMatchSingleAnalysis() throws IOException {
+        Random random = new Random(141);
+        File root = folder.getRoot();
+        Map<String, String> texts = new HashMap<>();
+        //小文件超过一批的文件数量上限，另外有一个需要映射扫描的大文件
+        for (int i = 0; i < 300; i++) {
+            String name = "d" + random.nextInt(5) + "/f" + i + ".txt";
+            String text = FileUtilsTest.randomText(random, random.nextInt(30));
+            write(new File(root, name), text);
+            texts.put(name, text);
+        }
+        StringBuilder large = new StringBuilder();
+        while (large.length() < 1200 * 1024)
+            large.append(FileUtilsTest.randomText(random, 100));
+        write(new File(root, "large.txt"), large.toString());
+        texts.put("large.txt", large.toString());
+
+        KeywordMatcher keywords = KeywordMatcher.compile(KEYWORDS, true);
+        BatchAnalyzer.Result result = new BatchAnalyzer(analyzer, keywords, 3).analyze(root, "**.txt");
+        assertEquals(texts.size(), result.getFileCount());
+
+        long totalChars = 0;
+        Map<String, Long> words = new HashMap<>();
+        Map<String, Long> keywordTotals = new HashMap<>();
+        for (Map.Entry<String, TextStats> entry : result.getFileStats().entrySet()) {
+            File file = new File(root, entry.getKey());
+            assertStats(analyzer.analyze(file), entry.getValue());
+            Map<String, Long> fileKeywords = keywords.scan(file, "utf-8").counts();
+            assertEquals(fileKeywords, result.getFileKeywordCounts().get(entry.getKey()));
+            totalChars += texts.get(entry.getKey()).length();
+            add(words, FileUtilsTest.wordCounts(texts.get(entry.getKey()), true));
+            add(keywordTotals, fileKeywords);
+        }
+        //单词不跨文件，合并结果是各文件结果之和
+        assertEquals(totalChars, result.getMerged().getTotalChars());
+        assertEquals(words, result.getMerged().getWordCounts());
+        assertEquals(keywordTotals, result.getKeywordCounts());
+    }
+
+    @Test
+    public void orderDoesNotDependOnScheduling() throws IOException {
+        Random random = new Random(142);
+        File root = folder.getRoot();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String name = "d" + random.nextInt(10) + "/n" + random.nextInt(100000) + ".txt";
+            write(new File(root, name), FileUtilsTest.randomText(random, random.nextInt(20)));
+            if (!names.contains(name))
+                names.add(name);
+        }
+        Collections.sort(names);
+        BatchAnalyzer.Result first = null;
+        for (int maxOpenFiles : new int[]{1, 2, 16}) {
+            BatchAnalyzer.Result result = new BatchAnalyzer(analyzer, null, maxOpenFiles).analyze(root, (String) null);
+            assertEquals(names, names(result));
+            assertTrue(result.getKeywordCounts().isEmpty());
+            if (first == null) {
+                first = result;
+                continue;
+            }
+            assertStats(first.getMerged(), result.getMerged());
+            for (String name : names)
+                assertStats(first.getFileStats().get(name), result.getFileStats().get(name));
+        }
+    }
+
+    @Test
+    public void reportsFailedFilesTogether() throws IOException {
+        File root = folder.getRoot();
+        write(new File(root, "good.txt"), "hello world");
+        Files.write(new File(root, "bad1.txt").toPath(), new byte[]{'a', (byte) 0xff});
+        Files.write(new File(root, "bad2.txt").toPath(), new byte[]{(byte) 0xfe, 'b'});
+        FileScanner.setMalformedInputAction(CodingErrorAction.REPORT);
+        try {
+            new BatchAnalyzer(new TextAnalyzer("utf-8", true, TextAnalyzer.Metric.values()), null, 1).analyze(root, (String) null);
+            fail("malformed input accepted");
+        } catch (IOException e) {
+            //第一个失败的文件作为异常，其余附加为 suppressed
+            assertTrue(e.getMessage(), e.getMessage().startsWith("bad1.txt"));
+            assertEquals(1, e.getSuppressed().length);
+            assertTrue(e.getSuppressed()[0].getMessage().startsWith("bad2.txt"));
+        }
+        try {
+            new BatchAnalyzer(analyzer).analyze(new File(root, "good.txt"), (String) null);
+            fail("file accepted as root");
+        } catch (IOException expected) {
+            //根目录不是目录
+        }
+    }
+
+    private static List<String> names(BatchAnalyzer.Result result) {
+        List<String> names = new ArrayList<>();
+        for (String name : result.getFileStats().keySet())
+            names.add(name.replace(File.separatorChar, '/'));
+        return names;
+    }
+
+    private static void add(Map<String, Long> total, Map<String, Long> counts) {
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            Long count = total.get(entry.getKey());
+            total.put(entry.getKey(), count == null ? entry.getValue() : count + entry.getValue());
+        }
+    }
+
+    private static void assertStats(TextStats expected, TextStats actual) {
+        assertEquals(expected.getTotalChars(), actual.getTotalChars());
+        assertEquals(expected.getChineseChars(), actual.getChineseChars());
+        assertEquals(expected.getEnglishWords(), actual.getEnglishWords());
+        assertEquals(expected.getWordCounts(), actual.getWordCounts());
+        assertEquals(expected.getCharCounts(), actual.getCharCounts());
+    }
+
+    private static void write(File file, String text) throws IOException {
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,216 @@
+package com.rainple.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: BatchExecutor 测试，并发数量不超过上限，两种出错方式和中断时的结果
+ * @author: rainple
+ * @create: 2026-10-18 12:55
+ **/
+public class BatchExecutorTest {
+
+    @Test(timeout = 30000)
+    public void concurrencyNeverExceedsLimit() throws Exception {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++)
+            items.add(i);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            for (int limit = 1; limit <= 5; limit++) {
+                final AtomicInteger running = new AtomicInteger();
+                final AtomicInteger peak = new AtomicInteger();
+                BatchExecutor.BatchFunction<Integer, Integer> sum = new BatchExecutor.BatchFunction<Integer, Integer>() {
+                    @Override
+                    public Integer apply(List<Integer> batch) throws Exception {
+                        int now = running.incrementAndGet();
+                        int max;
+                        while ((max = peak.get()) < now && !peak.compareAndSet(max, now))
+                            ;
+                        Thread.sleep(1);
+                        running.decrementAndGet();
+                        int total = 0;
+                        for (int value : batch)
+                            total += value;
+                        return total;
+                    }
+                };
+                for (BatchExecutor executor : new BatchExecutor[]{new BatchExecutor(limit),
+                        new BatchExecutor(limit, pool, BatchExecutor.ErrorMode.COLLECT_ERRORS)}) {
+                    peak.set(0);
+                    List<Integer> results = executor.execute(items, 7, sum);
+                    assertTrue(executor + " peak " + peak.get(), peak.get() <= limit);
+                    assertEquals(29, results.size());
+                    for (int i = 0; i < results.size(); i++) {
+                        int expected = 0;
+                        for (int value = i * 7; value < Math.min(200, i * 7 + 7); value++)
+                            expected += value;
+                        assertEquals(expected, (int) results.get(i));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void failFastCancelsRunningBatches() throws Exception {
+        final int limit = 4;
+        final CountDownLatch started = new CountDownLatch(limit);
+        final CountDownLatch interrupted = new CountDownLatch(limit - 1);
+        final AtomicInteger calls = new AtomicInteger();
+        final IllegalStateException failure = new IllegalStateException("batch 0");
+        ExecutorService pool = Executors.newFixedThreadPool(limit);
+        try {
+            new BatchExecutor(limit, pool, BatchExecutor.ErrorMode.FAIL_FAST).execute(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), 1,
+                    new BatchExecutor.BatchFunction<Integer, Integer>() {
+                        @Override
+                        public Integer apply(List<Integer> batch) throws Exception {
+                            calls.incrementAndGet();
+                            started.countDown();
+                            try {
+                                started.await();
+                                if (batch.get(0) == 0)
+                                    throw failure;
+                                Thread.sleep(60000);
+                            } catch (InterruptedException e) {
+                                interrupted.countDown();
+                                throw e;
+                            }
+                            return batch.get(0);
+                        }
+                    });
+            fail("no exception");
+        } catch (BatchExecutor.BatchException e) {
+            assertSame(failure, e.getCause());
+            assertEquals(Arrays.asList(0), new ArrayList<>(e.getErrors().keySet()));
+        } finally {
+            pool.shutdown();
+        }
+        //其余正在执行的分区被中断，后面的分区不再提交
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(limit, calls.get());
+    }
+
+    @Test(timeout = 30000)
+    public void collectErrorsKeepsResultsAndErrors() throws Exception {
+        final RuntimeException first = new RuntimeException("batch 1");
+        final Exception second = new Exception("batch 3");
+        try {
+            new BatchExecutor(2, null, BatchExecutor.ErrorMode.COLLECT_ERRORS).execute(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8), 2,
+                    new BatchExecutor.BatchFunction<Integer, String>() {
+                        @Override
+                        public String apply(List<Integer> batch) throws Exception {
+                            if (batch.get(0) == 2)
+                                throw first;
+                            if (batch.get(0) == 6)
+                                throw second;
+                            return batch.toString();
+                        }
+                    });
+            fail("no exception");
+        } catch (BatchExecutor.BatchException e) {
+            List<?> results = e.getResults();
+            assertEquals(Arrays.asList("[0, 1]", null, "[4, 5]", null, "[8]"), results);
+            assertEquals(Arrays.asList(1, 3), new ArrayList<>(e.getErrors().keySet()));
+            assertSame(first, e.getErrors().get(1));
+            assertSame(second, e.getErrors().get(3));
+            //cause 是下标最小的分区的异常，其余作为 suppressed
+            assertSame(first, e.getCause());
+            assertArrayEquals(new Throwable[]{second}, e.getSuppressed());
+            assertTrue(e.getMessage(), e.getMessage().startsWith("2 of 5"));
+            try {
+                e.getErrors().clear();
+                fail("errors modifiable");
+            } catch (UnsupportedOperationException expected) {
+                //错误表不可修改
+            }
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void interruptCancelsSubmittedBatches() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch interrupted = new CountDownLatch(2);
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        Thread caller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    new BatchExecutor(2, pool, BatchExecutor.ErrorMode.FAIL_FAST).execute(Arrays.asList(0, 1, 2, 3), 1,
+                            new BatchExecutor.BatchFunction<Integer, Integer>() {
+                                @Override
+                                public Integer apply(List<Integer> batch) throws Exception {
+                                    started.countDown();
+                                    try {
+                                        Thread.sleep(60000);
+                                    } catch (InterruptedException e) {
+                                        interrupted.countDown();
+                                        throw e;
+                                    }
+                                    return batch.get(0);
+                                }
+                            });
+                } catch (Throwable e) {
+                    thrown.set(e);
+                }
+            }
+        });
+        caller.start();
+        try {
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            caller.interrupt();
+            caller.join(10000);
+            assertTrue(thrown.get() instanceof InterruptedException);
+            assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rejectsInvalidArguments() {
+        try {
+            new BatchExecutor(0);
+            fail("zero concurrency accepted");
+        } catch (IllegalArgumentException expected) {
+            //并发数量必须为正数
+        }
+        try {
+            new BatchExecutor(1, null, null);
+            fail("null error mode accepted");
+        } catch (IllegalArgumentException expected) {
+            //出错方式不能为空
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void emptyInputReturnsEmptyResults() throws Exception {
+        List<Object> results = new BatchExecutor(3).execute(new ArrayList<Integer>(), 5,
+                new BatchExecutor.BatchFunction<Integer, Object>() {
+                    @Override
+                    public Object apply(List<Integer> batch) {
+                        throw new AssertionError("called");
+                    }
+                });
+        assertTrue(results.isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.rainple.utils;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * @description: BufferSort 测试，结果与 Arrays.sort 比较，范围外的元素保持不变
+ * @author: rainple
+ * @create: 2026-10-18 12:35
+ **/
+public class BufferSortTest {
+
+    @Test
+    public void sortLongsMatchesArraysSort() {
+        Random random = new Random(81);
+        for (int t = 0; t < 300; t++) {
+            int n = random.nextInt(t % 10 == 0 ? 20000 : 200);
+            long[] values = new long[n];
+            int pattern = random.nextInt(5);
+            for (int i = 0; i < n; i++) {
+                switch (pattern) {
+                    case 0: values[i] = random.nextLong(); break;
+                    case 1: values[i] = random.nextInt(4); break;
+                    case 2: values[i] = i; break;
+                    case 3: values[i] = n - i; break;
+                    default: values[i] = i < n / 2 ? i : n - i; break;
+                }
+            }
+            int from = n == 0 ? 0 : random.nextInt(n / 4 + 1);
+            int to = n - (n == 0 ? 0 : random.nextInt(n / 4 + 1));
+            ByteBuffer buffer = ByteBuffer.allocateDirect(n << 3);
+            for (int i = 0; i < n; i++)
+                buffer.putLong(i << 3, values[i]);
+
+            BufferSort.sortLongs(buffer, from, to);
+            Arrays.sort(values, from, to);
+            assertArrayEquals(values, toLongs(buffer, n));
+
+            BufferSort.reverse(buffer, from, to);
+            for (int i = from, j = to - 1; i < j; i++, j--) {
+                long tmp = values[i];
+                values[i] = values[j];
+                values[j] = tmp;
+            }
+            assertArrayEquals(values, toLongs(buffer, n));
+        }
+    }
+
+    @Test
+    public void sortDoublesMatchesArraysSort() {
+        double[] specials = {Double.NaN, Double.longBitsToDouble(0x7ff8000000000123L), Double.longBitsToDouble(0xfff8000000000000L),
+                0.0, -0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE};
+        Random random = new Random(82);
+        for (int t = 0; t < 300; t++) {
+            int n = random.nextInt(t % 10 == 0 ? 5000 : 100);
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++)
+                values[i] = random.nextInt(4) == 0 ? specials[random.nextInt(specials.length)] : random.nextGaussian() * 100;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(n << 3);
+            for (int i = 0; i < n; i++)
+                buffer.putDouble(i << 3, values[i]);
+
+            BufferSort.sortDoubles(buffer, 0, n);
+            Arrays.sort(values);
+            long[] expected = new long[n];
+            long[] actual = new long[n];
+            for (int i = 0; i < n; i++) {
+                //NaN 统一为 Double.NaN，其余按位比较以区分 0.0 和 -0.0
+                expected[i] = Double.doubleToLongBits(values[i]);
+                actual[i] = Double.doubleToRawLongBits(buffer.getDouble(i << 3));
+            }
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    private static long[] toLongs(ByteBuffer buffer, int n) {
+        long[] values = new long[n];
+        for (int i = 0; i < n; i++)
+            values[i] = buffer.getLong(i << 3);
+        return values;
+    }
+}
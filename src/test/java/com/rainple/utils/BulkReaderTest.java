@@ -0,0 +1,202 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: BulkReader 测试，在直接缓冲区大小和映射阈值两侧读取的结果都与 Files.readAllBytes 相同
+ * @author: rainple
+ * @create: 2026-10-18 11:24
+ **/
+public class BulkReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void restoreSettings() {
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void readsAcrossBufferAndMappingThresholds() throws IOException {
+        Random random = new Random(171);
+        File file = folder.newFile();
+        for (String charsetName : new String[]{"utf-8", "GBK"}) {
+            Charset charset = Charset.forName(charsetName);
+            for (int t = 0; t < 300; t++) {
+                String text = FileUtilsTest.randomText(random, random.nextInt(60));
+                byte[] bytes = text.getBytes(charset);
+                Files.write(file.toPath(), bytes);
+                //文件大小落在缓冲区大小和映射阈值的两侧
+                FileScanner.setBufferSize(1 + random.nextInt(Math.max(1, bytes.length * 2)));
+                FileScanner.setMappingEnabled(random.nextBoolean());
+                FileScanner.setMappingThreshold(random.nextInt(Math.max(1, bytes.length * 2)));
+
+                assertArrayEquals(bytes, BulkReader.readBytes(file));
+                assertEquals(text, BulkReader.readString(file, charset));
+                CharBuffer chars = BulkReader.readChars(file, charset);
+                assertTrue(chars.isReadOnly());
+                assertEquals(text, chars.toString());
+            }
+        }
+    }
+
+    @Test
+    public void readsFromChannelPosition() throws IOException {
+        Random random = new Random(172);
+        File file = folder.newFile();
+        for (int t = 0; t < 200; t++) {
+            String prefix = "0123456789".substring(random.nextInt(10));
+            String text = FileUtilsTest.randomText(random, random.nextInt(40));
+            byte[] bytes = (prefix + text).getBytes(StandardCharsets.UTF_8);
+            Files.write(file.toPath(), bytes);
+            FileScanner.setBufferSize(1 + random.nextInt(Math.max(1, bytes.length * 2)));
+            FileScanner.setMappingThreshold(random.nextInt(Math.max(1, bytes.length * 2)));
+            int position = prefix.length();
+            try (FileChannel channel = new FileInputStream(file).getChannel()) {
+                channel.position(position);
+                assertArrayEquals(Arrays.copyOfRange(bytes, position, bytes.length), BulkReader.readBytes(channel));
+                assertEquals(bytes.length, channel.position());
+                //已经在末尾时读到空内容
+                assertEquals(0, BulkReader.readBytes(channel).length);
+
+                channel.position(position);
+                assertEquals(text, BulkReader.readString(channel, StandardCharsets.UTF_8));
+                assertEquals(bytes.length, channel.position());
+
+                channel.position(position);
+                assertEquals(text, BulkReader.readChars(channel, StandardCharsets.UTF_8).toString());
+                assertEquals(bytes.length, channel.position());
+            }
+        }
+    }
+
+    @Test
+    public void readsFilesWithoutReportedSize() throws IOException {
+        //proc 文件系统中的文件大小为0，按读到的数据扩容
+        File file = new File("/proc/self/cmdline");
+        Assume.assumeTrue(file.canRead());
+        byte[] expected = Files.readAllBytes(file.toPath());
+        Assume.assumeTrue(expected.length > 0);
+        for (int bufferSize : new int[]{1, 7, 64, FileScanner.DEFAULT_BUFFER_SIZE}) {
+            FileScanner.setBufferSize(bufferSize);
+            try (FileChannel channel = new FileInputStream(file).getChannel()) {
+                assertEquals(0, channel.size());
+                assertArrayEquals(expected, BulkReader.readBytes(channel));
+            }
+            assertEquals(new String(expected, StandardCharsets.UTF_8), BulkReader.readString(file, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void mapsWholeFileReadOnly() throws IOException {
+        byte[] bytes = new byte[5000];
+        new Random(173).nextBytes(bytes);
+        File file = folder.newFile();
+        Files.write(file.toPath(), bytes);
+        FileScanner.setMappingEnabled(false);
+        ByteBuffer mapped = BulkReader.map(file);
+        assertTrue(mapped.isReadOnly());
+        byte[] copy = new byte[mapped.remaining()];
+        mapped.get(copy);
+        assertArrayEquals(bytes, copy);
+    }
+
+    @Test
+    public void readAllKeepsOrderAndCollectsErrors() throws IOException {
+        Random random = new Random(174);
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            File file = folder.newFile();
+            String text = FileUtilsTest.randomText(random, random.nextInt(50));
+            Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+            paths.add(file.getPath());
+        }
+        Collections.shuffle(paths, random);
+        Map<String, String> contents = BulkReader.readAll(paths, StandardCharsets.UTF_8, 4);
+        assertEquals(paths, new ArrayList<>(contents.keySet()));
+        for (String path : paths)
+            assertEquals(new String(Files.readAllBytes(new File(path).toPath()), StandardCharsets.UTF_8), contents.get(path));
+
+        //第一个失败的文件作为异常，其余附加为 suppressed
+        File bad = folder.newFile();
+        Files.write(bad.toPath(), new byte[]{'a', (byte) 0xff});
+        FileScanner.setMalformedInputAction(CodingErrorAction.REPORT);
+        List<String> withErrors = new ArrayList<>(paths);
+        withErrors.add(10, new File(folder.getRoot(), "missing").getPath());
+        withErrors.add(50, bad.getPath());
+        try {
+            BulkReader.readAll(withErrors, StandardCharsets.UTF_8, 3);
+            fail("errors ignored");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("missing"));
+            assertEquals(1, e.getSuppressed().length);
+            assertTrue(e.getSuppressed()[0] instanceof MalformedInputException);
+        }
+    }
+
+    @Test
+    public void readAllRethrowsRuntimeExceptions() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), "abc".getBytes(StandardCharsets.UTF_8));
+        final IllegalStateException failure = new IllegalStateException("broken decoder");
+        Charset broken = new Charset("x-broken-test", null) {
+            @Override
+            public boolean contains(Charset cs) {
+                return false;
+            }
+
+            @Override
+            public CharsetDecoder newDecoder() {
+                throw failure;
+            }
+
+            @Override
+            public CharsetEncoder newEncoder() {
+                throw failure;
+            }
+        };
+        try {
+            BulkReader.readAll(Arrays.asList(file.getPath(), file.getPath()), broken, 2);
+            fail("runtime exception wrapped or ignored");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+        try {
+            BulkReader.readAll(Collections.singletonList(file.getPath()), StandardCharsets.UTF_8, 0);
+            fail("zero parallelism accepted");
+        } catch (IllegalArgumentException expected) {
+            //并行数量必须为正数
+        }
+    }
+}
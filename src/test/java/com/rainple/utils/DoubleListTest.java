@@ -0,0 +1,67 @@
+package com.rainple.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: DoubleList 测试，堆外存储的排序和查找与 Arrays 的顺序相同
+ * @author: rainple
+ * @create: 2026-10-18 12:45
+ **/
+public class DoubleListTest {
+
+    private static final double[] SPECIALS = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1.5, -1.5};
+
+    @Test
+    public void sortMatchesArraysOnBothStorages() {
+        Random random = new Random(121);
+        for (int t = 0; t < 100; t++) {
+            double[] values = new double[random.nextInt(200)];
+            for (int i = 0; i < values.length; i++)
+                values[i] = random.nextBoolean() ? SPECIALS[random.nextInt(SPECIALS.length)] : random.nextInt(10) / 4.0;
+            double[] ascending = values.clone();
+            Arrays.sort(ascending);
+            double[] descending = new double[ascending.length];
+            for (int i = 0; i < ascending.length; i++)
+                descending[i] = ascending[ascending.length - 1 - i];
+
+            DoubleList offHeap = DoubleList.offHeap(0);
+            offHeap.addAll(values);
+            assertTrue(offHeap.isOffHeap());
+            for (DoubleList list : new DoubleList[]{DoubleList.wrap(values.clone()), offHeap}) {
+                list.sort();
+                assertArrayEquals(ascending, list.toArray(), 0);
+                for (double key : SPECIALS) {
+                    int index = list.binarySearch(key);
+                    int reference = Arrays.binarySearch(ascending, key);
+                    if (reference >= 0)
+                        assertEquals(0, Double.compare(key, list.get(index)));
+                    else
+                        assertEquals(reference, index);
+                }
+                list.sortDescending();
+                assertArrayEquals(descending, list.toArray(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void binarySearchInOffHeapView() {
+        DoubleList list = DoubleList.offHeap(2);
+        list.addAll(9, 1, 2, 3, 4, 0);
+        DoubleList view = list.subList(1, 5);
+        assertEquals(2, view.binarySearch(3));
+        assertEquals(-1, view.binarySearch(0.5));
+        assertEquals(-5, view.binarySearch(5));
+        //扩容后视图仍然可以读取
+        for (int i = 0; i < 100; i++)
+            list.add(i);
+        assertEquals(DoubleList.wrap(1, 2, 3, 4), view);
+    }
+}
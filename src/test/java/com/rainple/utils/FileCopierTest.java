@@ -0,0 +1,202 @@
+package com.rainple.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: FileCopier 测试，分段传输、目录复制、跳过未变化的文件、进度回调和中断
+ * @author: rainple
+ * @create: 2026-10-18 10:35
+ **/
+public class FileCopierTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void copiesInChunksAndReportsEachChunk() throws IOException {
+        Random random = new Random(121);
+        File src = folder.newFile();
+        File dest = new File(folder.getRoot(), "out/nested/copy");
+        for (int t = 0; t < 30; t++) {
+            byte[] bytes = new byte[t == 0 ? 0 : random.nextInt(20000)];
+            random.nextBytes(bytes);
+            Files.write(src.toPath(), bytes);
+            long chunk = 1 + random.nextInt(3000);
+            Recorder recorder = new Recorder();
+            FileCopier copier = new FileCopier(1, false, recorder, chunk);
+            assertEquals(bytes.length, copier.copyFile(src, dest));
+            assertArrayEquals(bytes, Files.readAllBytes(dest.toPath()));
+            assertEquals(src.lastModified(), dest.lastModified());
+
+            //每段一次字节回调，最后一次是文件完成
+            long chunks = (bytes.length + chunk - 1) / chunk;
+            assertEquals(chunks + 1, recorder.bytes.size());
+            for (int i = 0; i < chunks; i++) {
+                assertEquals(Math.min(bytes.length, (i + 1) * chunk), (long) recorder.bytes.get(i));
+                assertEquals(0, (long) recorder.files.get(i));
+            }
+            assertEquals(bytes.length, (long) recorder.bytes.get((int) chunks));
+            assertEquals(1, (long) recorder.files.get((int) chunks));
+        }
+    }
+
+    @Test
+    public void transferStartsAtChannelPosition() throws IOException {
+        byte[] bytes = new byte[1000];
+        new Random(122).nextBytes(bytes);
+        File src = folder.newFile();
+        File dest = folder.newFile();
+        Files.write(src.toPath(), bytes);
+        try (FileChannel in = new RandomAccessFile(src, "r").getChannel();
+             FileChannel out = new RandomAccessFile(dest, "rw").getChannel()) {
+            in.position(300);
+            assertEquals(700, FileCopier.transfer(in, out));
+            assertEquals(1000, in.position());
+            assertEquals(0, FileCopier.transfer(in, out));
+        }
+        byte[] expected = new byte[700];
+        System.arraycopy(bytes, 300, expected, 0, 700);
+        assertArrayEquals(expected, Files.readAllBytes(dest.toPath()));
+    }
+
+    @Test
+    public void copiesDirectoryTreeAndSkipsUnchanged() throws IOException {
+        Random random = new Random(123);
+        File src = folder.newFolder("src");
+        File dest = new File(folder.getRoot(), "dest");
+        List<File> files = new ArrayList<>();
+        long total = 0;
+        for (int i = 0; i < 60; i++) {
+            File file = new File(src, "d" + random.nextInt(4) + "/e" + random.nextInt(3) + "/f" + i);
+            assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+            byte[] bytes = new byte[random.nextInt(5000)];
+            random.nextBytes(bytes);
+            Files.write(file.toPath(), bytes);
+            files.add(file);
+            total += bytes.length;
+        }
+        assertTrue(new File(src, "empty/dir").mkdirs());
+
+        Recorder recorder = new Recorder();
+        FileCopier copier = new FileCopier(4, true, recorder, 512);
+        assertEquals(total, copier.copyDirectory(src, dest));
+        for (File file : files) {
+            File copy = new File(dest, src.toPath().relativize(file.toPath()).toString());
+            assertArrayEquals(Files.readAllBytes(file.toPath()), Files.readAllBytes(copy.toPath()));
+            assertEquals(file.lastModified(), copy.lastModified());
+        }
+        assertTrue(new File(dest, "empty/dir").isDirectory());
+        assertEquals(total, Collections.max(recorder.bytes).longValue());
+        assertEquals(files.size(), Collections.max(recorder.files).longValue());
+
+        //只有大小或修改时间变化的文件会再次复制
+        assertEquals(0, copier.copyDirectory(src, dest));
+        File changed = files.get(7);
+        long oldLength = changed.length();
+        //随机文件最多4999个字节，新内容的大小一定不同
+        byte[] changedBytes = new byte[5001];
+        random.nextBytes(changedBytes);
+        Files.write(changed.toPath(), changedBytes);
+        assertEquals(changedBytes.length, copier.copyDirectory(src, dest));
+        assertArrayEquals(changedBytes, Files.readAllBytes(new File(dest, src.toPath().relativize(changed.toPath()).toString()).toPath()));
+        //不跳过时全部重新复制
+        assertEquals(total - oldLength + changedBytes.length, new FileCopier(2, false, null).copyDirectory(src, dest));
+    }
+
+    @Test
+    public void rejectsDestinationInsideSource() throws IOException {
+        File src = folder.newFolder("src");
+        Files.write(new File(src, "a").toPath(), new byte[]{1});
+        FileCopier copier = new FileCopier();
+        for (File dest : new File[]{src, new File(src, "copy"), new File(src, "x/../copy"), new File(folder.getRoot(), "src/./y")}) {
+            try {
+                copier.copyDirectory(src, dest);
+                fail("copied into " + dest);
+            } catch (IOException expected) {
+                //目标在源目录中
+            }
+        }
+        assertFalse(new File(src, "copy").exists());
+        //名字以源目录开头的兄弟目录可以作为目标
+        assertEquals(1, copier.copyDirectory(src, new File(folder.getRoot(), "src2")));
+    }
+
+    @Test
+    public void interruptThrowsInsteadOfPartialCount() throws IOException {
+        File src = folder.newFolder("src");
+        for (int i = 0; i < 100; i++)
+            Files.write(new File(src, "f" + i).toPath(), new byte[100]);
+        Thread.currentThread().interrupt();
+        try {
+            new FileCopier(2, false, null).copyDirectory(src, new File(folder.getRoot(), "dest"));
+            fail("interrupt ignored");
+        } catch (InterruptedIOException expected) {
+            //中断时抛出异常，不返回部分结果
+        } finally {
+            //中断状态保留给调用者
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void interruptWhileWaitingForRunningCopies() throws IOException {
+        File src = folder.newFolder("src");
+        Files.write(new File(src, "f").toPath(), new byte[1000]);
+        final Thread caller = Thread.currentThread();
+        FileCopier copier = new FileCopier(1, false, new FileCopier.ProgressListener() {
+            @Override
+            public void onProgress(long copiedBytes, long copiedFiles, double bytesPerSecond) {
+                //调用线程已经提交完任务在等待结束
+                caller.interrupt();
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 100);
+        try {
+            copier.copyDirectory(src, new File(folder.getRoot(), "dest"));
+            fail("interrupt ignored");
+        } catch (InterruptedIOException expected) {
+            //等待时被中断，取消正在执行的复制
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    /**
+     * 按调用顺序记录进度回调
+     */
+    private static final class Recorder implements FileCopier.ProgressListener {
+
+        final List<Long> bytes = new ArrayList<>();
+        final List<Long> files = new ArrayList<>();
+
+        @Override
+        public synchronized void onProgress(long copiedBytes, long copiedFiles, double bytesPerSecond) {
+            assertTrue(bytesPerSecond >= 0);
+            bytes.add(copiedBytes);
+            files.add(copiedFiles);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: FileUtils 统计方法测试，结果与整个文件一次解码后逐字符统计的结果比较
+ * @author: rainple
+ * @create: 2026-10-18 12:08
+ **/
+public class FileUtilsTest {
+
+    private static final String[] PIECES = {"Hello", "hello", "HELLO", "world", "abc", "ab", "a", "中文", "汉字", "你好",
+            " ", " ", "  ", "\n", "\r\n", "\r", ",", ".", "-", "中-文", "it's", "x1y", "é"};
+
+    private static final Pattern WORD = Pattern.compile("[A-Za-z]+");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void restoreSettings() {
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void countersMatchDecodedText() throws IOException {
+        Random random = new Random(21);
+        File file = folder.newFile();
+        for (String charsetName : new String[]{"utf-8", "GBK"}) {
+            Charset charset = Charset.forName(charsetName);
+            for (int t = 0; t < 150; t++) {
+                String text = randomText(random, random.nextInt(80));
+                Files.write(file.toPath(), text.getBytes(charset));
+                ScannerSettings.smallWindows(random);
+                boolean ignoreCase = random.nextBoolean();
+
+                assertEquals(text.length(), FileUtils.getTotalChar(file, charsetName));
+                try (FileInputStream inputStream = new FileInputStream(file)) {
+                    assertEquals(chinese(text), FileUtils.getChineseChars(inputStream, charsetName));
+                }
+
+                Map<Character, Long> chars = charCounts(text);
+                try (FileInputStream inputStream = new FileInputStream(file)) {
+                    List<Map.Entry<Character, Long>> list = FileUtils.countChar(inputStream, charsetName);
+                    assertEquals(chars, toMap(list));
+                    assertSorted(list, false);
+                }
+                try (FileInputStream inputStream = new FileInputStream(file)) {
+                    Map<Character, Long> min = FileUtils.findMinPresentCharacter(inputStream, charsetName);
+                    assertExtreme(chars, min, false);
+                }
+                try (FileInputStream inputStream = new FileInputStream(file)) {
+                    Map<Character, Long> max = FileUtils.findMaxPresentCharacter(inputStream, charsetName);
+                    assertExtreme(chars, max, true);
+                }
+                try (FileInputStream inputStream = new FileInputStream(file)) {
+                    Map<Character, Long> present = FileUtils.findCharCountPresent(inputStream, '中', charsetName);
+                    assertEquals(Collections.singletonMap('中', occurrences(text, "中", false)), present);
+                }
+
+                Map<String, Long> words = wordCounts(text, ignoreCase);
+                try (FileInputStream inputStream = new FileInputStream(file)) {
+                    List<Map.Entry<String, Long>> list = FileUtils.countEnglishWord(inputStream, charsetName, FileUtils.ASC, ignoreCase);
+                    assertEquals(words, toMap(list));
+                    assertSorted(list, true);
+                }
+                long total = 0;
+                for (long count : words.values())
+                    total += count;
+                try (FileInputStream inputStream = new FileInputStream(file)) {
+                    assertEquals(Long.valueOf(total), FileUtils.getEnglishWords(inputStream, charsetName));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void searchesMatchDecodedText() throws IOException {
+        Random random = new Random(22);
+        File file = folder.newFile();
+        String[] targets = {"hello", "ab", "aa", "中文", "o w", "a", "-中", "\r\n"};
+        for (int t = 0; t < 200; t++) {
+            String text = randomText(random, random.nextInt(60));
+            Files.write(file.toPath(), text.getBytes("utf-8"));
+            ScannerSettings.smallWindows(random);
+            String word = targets[random.nextInt(targets.length)];
+            long expected = occurrences(text, word, false);
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                assertEquals(expected, FileUtils.findWordCountPresent(inputStream, word, "utf-8"));
+            }
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                assertEquals(expected > 0, FileUtils.isPresent(inputStream, word, "utf-8"));
+            }
+            assertEquals(expected, FileUtils.findWordCount(text, word));
+        }
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        File file = folder.newFile();
+        assertEquals(0, FileUtils.getTotalChar(file, "utf-8"));
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            assertTrue(FileUtils.countChar(inputStream, "utf-8").isEmpty());
+        }
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            assertNull(FileUtils.findMaxPresentCharacter(inputStream, "utf-8"));
+        }
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            assertTrue(FileUtils.countEnglishWord(inputStream, "utf-8").isEmpty());
+        }
+    }
+
+    static String randomText(Random random, int pieces) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < pieces; i++)
+            text.append(PIECES[random.nextInt(PIECES.length)]);
+        return text.toString();
+    }
+
+    static long chinese(String text) {
+        long count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '一' && c <= '龥')
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * 旧实现的统计口径：跳过换行、回车和空格
+     */
+    static Map<Character, Long> charCounts(String text) {
+        Map<Character, Long> counts = new HashMap<>();
+        for (char c : text.toCharArray()) {
+            if (c == '\n' || c == '\r' || c == ' ')
+                continue;
+            Long count = counts.get(c);
+            counts.put(c, count == null ? 1L : count + 1);
+        }
+        return counts;
+    }
+
+    static Map<String, Long> wordCounts(String text, boolean ignoreCase) {
+        Map<String, Long> counts = new HashMap<>();
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            String word = ignoreCase ? matcher.group().toLowerCase() : matcher.group();
+            Long count = counts.get(word);
+            counts.put(word, count == null ? 1L : count + 1);
+        }
+        return counts;
+    }
+
+    /**
+     * @param overlapping 是否统计重叠的出现
+     */
+    static long occurrences(String text, String word, boolean overlapping) {
+        long count = 0;
+        int i = 0;
+        while ((i = text.indexOf(word, i)) >= 0) {
+            count++;
+            i += overlapping ? 1 : word.length();
+        }
+        return count;
+    }
+
+    static <K> Map<K, Long> toMap(List<Map.Entry<K, Long>> list) {
+        Map<K, Long> map = new HashMap<>();
+        for (Map.Entry<K, Long> entry : list)
+            assertNull("duplicate key " + entry.getKey(), map.put(entry.getKey(), entry.getValue()));
+        return map;
+    }
+
+    static <K> void assertSorted(List<Map.Entry<K, Long>> list, boolean ascending) {
+        for (int i = 1; i < list.size(); i++) {
+            int c = Long.compare(list.get(i - 1).getValue(), list.get(i).getValue());
+            assertTrue(list.toString(), ascending ? c <= 0 : c >= 0);
+        }
+    }
+
+    private static void assertExtreme(Map<Character, Long> counts, Map<Character, Long> result, boolean max) {
+        if (counts.isEmpty()) {
+            assertNull(result);
+            return;
+        }
+        long expected = max ? Collections.max(counts.values()) : Collections.min(counts.values());
+        assertEquals(1, result.size());
+        Map.Entry<Character, Long> entry = result.entrySet().iterator().next();
+        assertEquals(expected, entry.getValue().longValue());
+        assertEquals(entry.getValue(), counts.get(entry.getKey()));
+    }
+}
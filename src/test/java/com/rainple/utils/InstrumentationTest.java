@@ -0,0 +1,162 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: Instrumentation 测试，关闭时不计时，开启时每个最外层操作回调一次，监听器的异常不影响操作
+ * @author: rainple
+ * @create: 2026-10-18 10:48
+ **/
+public class InstrumentationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TextAnalyzer analyzer = new TextAnalyzer("utf-8", true, TextAnalyzer.Metric.values());
+
+    @After
+    public void restore() {
+        Instrumentation.setListener(null);
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void noopSkipsTiming() throws IOException {
+        assertSame(OperationListener.NOOP, Instrumentation.getListener());
+        assertFalse(Instrumentation.isEnabled());
+        assertNull(Probe.begin("test"));
+        assertNull(Probe.current());
+        assertEquals(0, Probe.now(null));
+        //没有监听器时操作中也不会创建计数
+        analyzer.analyze(textFile(new Random(151), 1000));
+        assertNull(Probe.current());
+
+        Recorder recorder = new Recorder();
+        Instrumentation.setListener(recorder);
+        assertTrue(Instrumentation.isEnabled());
+        Instrumentation.setListener(null);
+        assertSame(OperationListener.NOOP, Instrumentation.getListener());
+        analyzer.analyze(textFile(new Random(152), 1000));
+        assertTrue(recorder.metrics.isEmpty());
+    }
+
+    @Test
+    public void reportsBytesCharsAndPhases() throws IOException {
+        Random random = new Random(153);
+        Recorder recorder = new Recorder();
+        Instrumentation.setListener(recorder);
+        for (int t = 0; t < 10; t++) {
+            if (t % 2 == 1)
+                ScannerSettings.smallWindows(random);
+            else
+                ScannerSettings.restore();
+            File file = textFile(random, 3000);
+            String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            recorder.metrics.clear();
+            analyzer.analyze(file);
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                FileUtils.countEnglishWord(inputStream, "utf-8", FileUtils.ASC, true);
+            }
+            assertEquals(2, recorder.metrics.size());
+            assertEquals("analyze", recorder.metrics.get(0).getOperation());
+            assertEquals("countEnglishWord", recorder.metrics.get(1).getOperation());
+            for (OperationMetrics metrics : recorder.metrics) {
+                assertEquals(metrics.toString(), file.length(), metrics.getBytesRead());
+                assertEquals(metrics.toString(), text.length(), metrics.getCharsDecoded());
+                assertTrue(metrics.toString(), metrics.getDecodeNanos() > 0);
+                assertTrue(metrics.toString(), metrics.getReadNanos() >= 0 && metrics.getAnalyzeNanos() >= 0 && metrics.getSortNanos() >= 0);
+                //各阶段互不重叠，都在整个操作的时间内
+                assertTrue(metrics.toString(), metrics.getElapsedNanos() >= metrics.getReadNanos() + metrics.getDecodeNanos()
+                        + metrics.getAnalyzeNanos() + metrics.getSortNanos());
+            }
+            assertEquals(0, recorder.metrics.get(0).getSortNanos());
+        }
+    }
+
+    @Test
+    public void nestedOperationsAreMeasuredOnce() throws IOException {
+        Recorder recorder = new Recorder();
+        Instrumentation.setListener(recorder);
+        File first = textFile(new Random(154), 500);
+        File second = textFile(new Random(155), 700);
+        Probe outer = Probe.begin("outer");
+        try {
+            assertSame(outer, Probe.current());
+            //已经在度量外层操作时内层不再开始新的度量
+            assertNull(Probe.begin("inner"));
+            analyzer.analyze(first);
+            analyzer.analyze(second);
+            assertTrue(recorder.metrics.isEmpty());
+        } finally {
+            Probe.end(outer);
+        }
+        assertNull(Probe.current());
+        assertEquals(1, recorder.metrics.size());
+        assertEquals("outer", recorder.metrics.get(0).getOperation());
+        assertEquals(first.length() + second.length(), recorder.metrics.get(0).getBytesRead());
+    }
+
+    @Test
+    public void listenerExceptionsDoNotAffectOperations() throws IOException {
+        Instrumentation.setListener(new OperationListener() {
+            @Override
+            public void onOperation(OperationMetrics metrics) {
+                throw new IllegalStateException("listener");
+            }
+        });
+        File file = folder.newFile();
+        Files.write(file.toPath(), "hello hello world".getBytes(StandardCharsets.UTF_8));
+        assertEquals(Long.valueOf(2), analyzer.analyze(file).getWordCounts().get("hello"));
+        assertNull(Probe.current());
+
+        //操作本身的异常不被监听器的异常覆盖
+        Files.write(file.toPath(), new byte[]{'a', (byte) 0xff});
+        FileScanner.setMalformedInputAction(CodingErrorAction.REPORT);
+        try {
+            analyzer.analyze(file);
+            fail("malformed input accepted");
+        } catch (IOException expected) {
+            //REPORT 时坏字节抛出异常
+        }
+        assertNull(Probe.current());
+    }
+
+    private File textFile(Random random, int pieces) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), FileUtilsTest.randomText(random, pieces).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * 按调用顺序记录度量结果
+     */
+    private static final class Recorder implements OperationListener {
+
+        final List<OperationMetrics> metrics = new ArrayList<>();
+
+        @Override
+        public synchronized void onOperation(OperationMetrics metrics) {
+            this.metrics.add(metrics);
+        }
+    }
+}
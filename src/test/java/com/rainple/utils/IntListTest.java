@@ -0,0 +1,70 @@
+package com.rainple.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: IntList 测试
+ * @author: rainple
+ * @create: 2026-10-18 12:45
+ **/
+public class IntListTest {
+
+    @Test
+    public void wrapSharesArray() {
+        int[] array = {5, 4, 3, 2, 1};
+        IntList list = IntList.wrap(array);
+        assertSame(array, list.array());
+        list.subList(1, 4).sort();
+        assertArrayEquals(new int[]{5, 2, 3, 4, 1}, array);
+        list.subList(1, 4).sortDescending();
+        assertArrayEquals(new int[]{5, 4, 3, 2, 1}, array);
+    }
+
+    @Test
+    public void binarySearchInViews() {
+        Random random = new Random(111);
+        for (int t = 0; t < 200; t++) {
+            int[] values = new int[random.nextInt(40)];
+            for (int i = 0; i < values.length; i++)
+                values[i] = random.nextInt(30);
+            Arrays.sort(values);
+            int from = values.length == 0 ? 0 : random.nextInt(values.length);
+            int to = from + random.nextInt(values.length - from + 1);
+            int[] expected = Arrays.copyOfRange(values, from, to);
+            IntList view = IntList.wrap(values).subList(from, to);
+            for (int key = -1; key <= 31; key++) {
+                int index = view.binarySearch(key);
+                int reference = Arrays.binarySearch(expected, key);
+                if (reference >= 0)
+                    assertEquals(key, view.get(index));
+                else
+                    assertEquals(reference, index);
+            }
+        }
+    }
+
+    @Test
+    public void partitionViewsCannotResize() {
+        IntList list = new IntList(0);
+        for (int i = 0; i < 10; i++)
+            list.add(i);
+        assertEquals(Arrays.asList(IntList.wrap(0, 1, 2, 3), IntList.wrap(4, 5, 6), IntList.wrap(7, 8, 9)), list.partitionInto(3));
+        IntList part = list.partition(4).get(2);
+        assertEquals(IntList.wrap(8, 9), part);
+        try {
+            part.addAll(1, 2);
+            fail("view resized");
+        } catch (UnsupportedOperationException expected) {
+            //视图不能增删元素
+        }
+        assertEquals(45, list.sum());
+    }
+}
@@ -0,0 +1,220 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: IndexBuilder 与 InvertedIndex 测试，查询结果与直接在文本上统计的词项位置比较
+ * @author: rainple
+ * @create: 2026-10-18 10:40
+ **/
+public class InvertedIndexTest {
+
+    private static final Pattern WORD = Pattern.compile("[A-Za-z]+");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void restoreSettings() {
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void queriesMatchTokenizedText() throws IOException {
+        Random random = new Random(131);
+        File indexFile = new File(folder.getRoot(), "index");
+        for (int t = 0; t < 20; t++) {
+            if (t % 2 == 1)
+                ScannerSettings.smallWindows(random);
+            boolean ignoreCase = random.nextBoolean();
+            List<File> files = randomFiles(random, 1 + random.nextInt(6), "t" + t);
+            try (InvertedIndex index = new IndexBuilder("utf-8", ignoreCase).build(files, indexFile)) {
+                assertTrue(index.hasOffsets());
+                assertMatches(index, files, ignoreCase, true);
+            }
+        }
+    }
+
+    @Test
+    public void indexWithoutOffsetsAnswersCounts() throws IOException {
+        Random random = new Random(132);
+        List<File> files = randomFiles(random, 5, "f");
+        File withOffsets = new File(folder.getRoot(), "with");
+        File withoutOffsets = new File(folder.getRoot(), "without");
+        new IndexBuilder("utf-8", true).build(files, withOffsets).close();
+        try (InvertedIndex index = new IndexBuilder("utf-8", true, false).build(files, withoutOffsets)) {
+            assertFalse(index.hasOffsets());
+            assertMatches(index, files, true, false);
+            try {
+                index.offsets("hello", files.get(0));
+                fail("offsets without positions");
+            } catch (UnsupportedOperationException expected) {
+                //没有记录位置
+            }
+        }
+        assertTrue(withoutOffsets.length() < withOffsets.length());
+    }
+
+    @Test
+    public void updateReindexesChangedFilesOnly() throws IOException {
+        Random random = new Random(133);
+        File indexFile = new File(folder.getRoot(), "index");
+        List<File> files = randomFiles(random, 6, "u");
+        IndexBuilder builder = new IndexBuilder("utf-8", false);
+        builder.build(files, indexFile).close();
+
+        //修改一个文件，移除一个文件，加入一个新文件
+        File changed = files.get(2);
+        Files.write(changed.toPath(), "brand new 内容 words".getBytes(StandardCharsets.UTF_8));
+        assertTrue(changed.setLastModified(changed.lastModified() + 5000));
+        files.remove(4);
+        files.addAll(randomFiles(random, 1, "added"));
+        //重复的文件只索引一次
+        files.add(files.get(0));
+        try (InvertedIndex index = builder.update(files, indexFile)) {
+            assertEquals(6, index.fileCount());
+            assertMatches(index, files.subList(0, 6), false, true);
+            assertEquals(1, index.count("brand"));
+        }
+
+        //大小写或位置设置不同时完整重建
+        try (InvertedIndex index = new IndexBuilder("utf-8", true, false).update(files, indexFile)) {
+            assertTrue(index.isIgnoreCase());
+            assertMatches(index, files.subList(0, 6), true, false);
+        }
+        long[] before;
+        try (InvertedIndex index = builder.update(files, indexFile)) {
+            assertMatches(index, files.subList(0, 6), false, true);
+            before = counts(index, files.get(0));
+        }
+
+        //大小和修改时间都没有变化的文件复用旧索引中的记录，不重新读取内容
+        File unchanged = files.get(0);
+        long lastModified = unchanged.lastModified();
+        byte[] blank = new byte[(int) unchanged.length()];
+        Arrays.fill(blank, (byte) ' ');
+        Files.write(unchanged.toPath(), blank);
+        assertTrue(unchanged.setLastModified(lastModified));
+        try (InvertedIndex index = builder.update(files, indexFile)) {
+            assertArrayEquals(before, counts(index, unchanged));
+        }
+        assertTrue(before[0] + before[1] + before[2] > 0);
+    }
+
+    @Test
+    public void rejectsInvalidAndClosedIndexes() throws IOException {
+        File garbage = folder.newFile();
+        Files.write(garbage.toPath(), new byte[100]);
+        try {
+            InvertedIndex.load(garbage);
+            fail("garbage loaded");
+        } catch (IOException expected) {
+            //不是索引文件
+        }
+        InvertedIndex index = new IndexBuilder("utf-8", false).build(randomFiles(new Random(134), 1, "c"), new File(folder.getRoot(), "index"));
+        index.close();
+        try {
+            index.count("hello");
+            fail("closed index queried");
+        } catch (IllegalStateException expected) {
+            //关闭后不能查询
+        }
+    }
+
+    private List<File> randomFiles(Random random, int n, String prefix) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            File file = new File(folder.getRoot(), prefix + "-" + i + ".txt");
+            Files.write(file.toPath(), FileUtilsTest.randomText(random, random.nextInt(200)).getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static void assertMatches(InvertedIndex index, List<File> files, boolean ignoreCase, boolean offsets) throws IOException {
+        //词项 -> 文件路径 -> 位置
+        Map<String, Map<String, List<Long>>> expected = new HashMap<>();
+        for (File file : files) {
+            String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            String path = file.getCanonicalPath();
+            Matcher matcher = WORD.matcher(text);
+            while (matcher.find())
+                positions(expected, ignoreCase ? matcher.group().toLowerCase(Locale.ROOT) : matcher.group(), path).add((long) matcher.start());
+            for (int i = 0; i < text.length(); i++) {
+                if (Tokenizer.isChinese(text.charAt(i)))
+                    positions(expected, String.valueOf(text.charAt(i)), path).add((long) i);
+            }
+        }
+        assertEquals(files.size(), index.fileCount());
+        assertEquals(expected.size(), index.termCount());
+        for (Map.Entry<String, Map<String, List<Long>>> entry : expected.entrySet()) {
+            String term = entry.getKey();
+            //忽略大小写时用大写查询
+            String query = ignoreCase ? term.toUpperCase(Locale.ROOT) : term;
+            assertTrue(term, index.isPresent(query));
+            long total = 0;
+            Map<String, Long> counts = new HashMap<>();
+            for (Map.Entry<String, List<Long>> file : entry.getValue().entrySet()) {
+                counts.put(file.getKey(), (long) file.getValue().size());
+                total += file.getValue().size();
+            }
+            assertEquals(term, total, index.count(query));
+            assertEquals(term, counts, index.counts(query));
+            for (File file : files) {
+                List<Long> positions = entry.getValue().get(file.getCanonicalPath());
+                assertEquals(term, positions == null ? 0 : positions.size(), index.count(query, file));
+                if (offsets) {
+                    long[] array = new long[positions == null ? 0 : positions.size()];
+                    for (int i = 0; i < array.length; i++)
+                        array[i] = positions.get(i);
+                    assertArrayEquals(term, array, index.offsets(query, file));
+                }
+            }
+        }
+        //中文词项只有单个字符
+        assertFalse(index.isPresent("中文"));
+        assertEquals(0, index.count("中文"));
+        assertTrue(index.counts("").isEmpty());
+    }
+
+    private static long[] counts(InvertedIndex index, File file) throws IOException {
+        return new long[]{index.count("Hello", file), index.count("world", file), index.count("中", file)};
+    }
+
+    private static List<Long> positions(Map<String, Map<String, List<Long>>> expected, String term, String path) {
+        Map<String, List<Long>> byFile = expected.get(term);
+        if (byFile == null) {
+            byFile = new HashMap<>();
+            expected.put(term, byFile);
+        }
+        List<Long> positions = byFile.get(path);
+        if (positions == null) {
+            positions = new ArrayList<>();
+            byFile.put(path, positions);
+        }
+        return positions;
+    }
+}
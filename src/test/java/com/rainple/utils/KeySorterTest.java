@@ -0,0 +1,161 @@
+package com.rainple.utils;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: KeySorter 测试，结果与按 FieldComparator 稳定排序的结果逐个元素相同
+ * @author: rainple
+ * @create: 2026-10-18 12:30
+ **/
+public class KeySorterTest {
+
+    private static final String[] FIELDS = {"i", "l", "d", "f", "b", "c", "boxed", "boxedDouble", "name", "date", "amount"};
+
+    private static final double[] DOUBLES = {Double.NaN, -0.0, 0.0, 1.5, -1.5, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+
+    static class Item {
+        int i;
+        long l;
+        double d;
+        float f;
+        boolean b;
+        char c;
+        Integer boxed;
+        Double boxedDouble;
+        String name;
+        Date date;
+        BigDecimal amount;
+    }
+
+    static class SubItem extends Item {
+    }
+
+    @Test
+    public void matchesStableComparatorSort() {
+        Random random = new Random(91);
+        for (int t = 0; t < 300; t++) {
+            List<Item> items = new ArrayList<>();
+            for (int n = random.nextInt(t % 10 == 0 ? 3000 : 60); n > 0; n--)
+                items.add(random.nextInt(20) == 0 ? null : randomItem(random));
+            FieldComparator comparator = FieldComparator.parse(randomOrderBy(random));
+
+            List<Item> expected = new ArrayList<>(items);
+            Collections.sort(expected, comparator);
+            List<Item> actual = t % 2 == 0 ? new ArrayList<>(items) : new LinkedList<>(items);
+            assertTrue(KeySorter.sort(actual, comparator));
+            assertEquals(comparator.toString(), expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++)
+                assertSame(comparator + " at " + i, expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void comparatorMatchesHandWrittenOrder() {
+        Random random = new Random(93);
+        List<Item> items = new ArrayList<>();
+        for (int n = 0; n < 500; n++)
+            items.add(random.nextInt(20) == 0 ? null : randomItem(random));
+        for (final boolean descending : new boolean[]{false, true}) {
+            for (final boolean nullsFirst : new boolean[]{false, true}) {
+                String orderBy = "boxed" + (descending ? " DESC" : " ASC") + (nullsFirst ? " NULLS FIRST" : " NULLS LAST") + ", i";
+                List<Item> expected = new ArrayList<>(items);
+                Collections.sort(expected, new Comparator<Item>() {
+                    @Override
+                    public int compare(Item o1, Item o2) {
+                        //null 元素排在 null 值的外侧
+                        int n1 = o1 == null ? 2 : o1.boxed == null ? 1 : 0;
+                        int n2 = o2 == null ? 2 : o2.boxed == null ? 1 : 0;
+                        if (n1 != 0 || n2 != 0) {
+                            if (n1 != n2)
+                                return nullsFirst ? Integer.compare(n2, n1) : Integer.compare(n1, n2);
+                            if (n1 == 2)
+                                return 0;
+                        } else {
+                            int c = descending ? o2.boxed.compareTo(o1.boxed) : o1.boxed.compareTo(o2.boxed);
+                            if (c != 0)
+                                return c;
+                        }
+                        return Integer.compare(o1.i, o2.i);
+                    }
+                });
+                List<Item> actual = new ArrayList<>(items);
+                Collections.sort(actual, FieldComparator.parse(orderBy));
+                List<Item> keySorted = new ArrayList<>(items);
+                assertTrue(KeySorter.sort(keySorted, FieldComparator.parse(orderBy)));
+                for (int i = 0; i < expected.size(); i++) {
+                    assertSame(orderBy + " at " + i, expected.get(i), actual.get(i));
+                    assertSame(orderBy + " at " + i, expected.get(i), keySorted.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mixedClassesAreLeftForComparator() {
+        List<Item> items = new ArrayList<>(Arrays.asList(new Item(), new SubItem(), new Item()));
+        List<Item> before = new ArrayList<>(items);
+        assertFalse(KeySorter.sort(items, FieldComparator.of("i", false)));
+        assertEquals(before, items);
+    }
+
+    @Test
+    public void largeListThroughListUtils() {
+        Random random = new Random(92);
+        List<Item> items = new ArrayList<>();
+        for (int n = ListUtils.LARGE_SORT_THRESHOLD + 100; n > 0; n--)
+            items.add(randomItem(random));
+        String orderBy = "b DESC, name NULLS FIRST, d";
+        List<Item> expected = new ArrayList<>(items);
+        Collections.sort(expected, FieldComparator.parse(orderBy));
+        ListUtils.sort(items, orderBy);
+        for (int i = 0; i < expected.size(); i++)
+            assertSame(expected.get(i), items.get(i));
+    }
+
+    private static Item randomItem(Random random) {
+        Item item = new Item();
+        item.i = random.nextInt(7) - 3;
+        item.l = random.nextBoolean() ? random.nextLong() : random.nextInt(5);
+        item.d = DOUBLES[random.nextInt(DOUBLES.length)];
+        item.f = (float) DOUBLES[random.nextInt(DOUBLES.length)];
+        item.b = random.nextBoolean();
+        item.c = (char) ('a' + random.nextInt(3));
+        item.boxed = random.nextInt(4) == 0 ? null : random.nextInt(5) - 2;
+        item.boxedDouble = random.nextInt(4) == 0 ? null : DOUBLES[random.nextInt(DOUBLES.length)];
+        item.name = random.nextInt(4) == 0 ? null : String.valueOf((char) ('x' + random.nextInt(3)));
+        item.date = random.nextInt(4) == 0 ? null : new Date(random.nextInt(5) * 1000L - 2000);
+        item.amount = random.nextInt(4) == 0 ? null : new BigDecimal(random.nextInt(5)).movePointLeft(random.nextInt(2));
+        return item;
+    }
+
+    private static String randomOrderBy(Random random) {
+        StringBuilder orderBy = new StringBuilder();
+        for (int k = 1 + random.nextInt(3); k > 0; k--) {
+            if (orderBy.length() > 0)
+                orderBy.append(", ");
+            orderBy.append(FIELDS[random.nextInt(FIELDS.length)]);
+            int direction = random.nextInt(3);
+            if (direction > 0)
+                orderBy.append(direction == 1 ? " ASC" : " DESC");
+            int nulls = random.nextInt(3);
+            if (nulls > 0)
+                orderBy.append(nulls == 1 ? " NULLS FIRST" : " NULLS LAST");
+        }
+        return orderBy.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: KeywordMatcher 测试，结果与逐个关键词 indexOf 统计重叠出现的结果比较
+ * @author: rainple
+ * @create: 2026-10-18 12:14
+ **/
+public class KeywordMatcherTest {
+
+    private static final char[] ALPHABET = {'a', 'b', 'A', 'B', '中', 'İ', 'i'};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void restoreSettings() {
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void sessionMatchesIndexOf() {
+        Random random = new Random(51);
+        for (int t = 0; t < 2000; t++) {
+            boolean ignoreCase = random.nextBoolean();
+            List<String> keywords = new ArrayList<>();
+            for (int i = 1 + random.nextInt(5); i > 0; i--)
+                keywords.add(random(random, 1 + random.nextInt(4)));
+            String text = random(random, random.nextInt(50));
+            KeywordMatcher matcher = KeywordMatcher.compile(keywords, ignoreCase);
+
+            KeywordMatcher.Session session = matcher.newSession();
+            char[] chars = text.toCharArray();
+            int position = 0;
+            while (position < chars.length) {
+                int next = Math.min(chars.length, position + random.nextInt(5));
+                session.feed(chars, position, next);
+                position = next;
+            }
+            KeywordMatcher.Result result = session.result();
+            assertEquals(text + keywords, expectedCounts(text, keywords, ignoreCase), result.counts());
+            assertEquals(text + keywords, expectedOffsets(text, keywords, ignoreCase), result.firstOffsets());
+        }
+    }
+
+    @Test
+    public void scanFileAcrossWindows() throws IOException {
+        Random random = new Random(52);
+        File file = folder.newFile();
+        List<String> keywords = Arrays.asList("hello", "he", "中文", "o w", "ll", "\r\n");
+        KeywordMatcher matcher = KeywordMatcher.compile(keywords, true);
+        for (int t = 0; t < 200; t++) {
+            String text = FileUtilsTest.randomText(random, random.nextInt(60));
+            Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+            ScannerSettings.smallWindows(random);
+            Map<String, Long> expected = expectedCounts(text, keywords, true);
+            assertEquals(expected, matcher.scan(file, "utf-8").counts());
+            assertEquals(expectedCounts(text, keywords, false), FileUtils.findWordsCountPresent(file.getPath(), keywords, "utf-8"));
+            boolean any = false;
+            for (long count : expected.values())
+                any |= count > 0;
+            assertEquals(any, matcher.containsAny(file.getPath(), "utf-8"));
+        }
+    }
+
+    @Test
+    public void duplicateKeywordsFoldTogether() {
+        KeywordMatcher matcher = KeywordMatcher.compile(Arrays.asList("Ab", "aB", "ab"), true);
+        assertEquals(1, matcher.size());
+        assertEquals("ab", matcher.keyword(0));
+        KeywordMatcher.Session session = matcher.newSession();
+        char[] chars = "xABab".toCharArray();
+        session.feed(chars, 0, chars.length);
+        assertEquals(2, session.result().count(0));
+        assertEquals(1, session.result().firstOffset(0));
+        assertTrue(session.result().anyPresent());
+        assertFalse(KeywordMatcher.compile(Arrays.asList("Ab"), false).newSession().result().anyPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyKeyword() {
+        KeywordMatcher.compile(Arrays.asList("a", ""));
+    }
+
+    private static Map<String, Long> expectedCounts(String text, List<String> keywords, boolean ignoreCase) {
+        String haystack = ignoreCase ? fold(text) : text;
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String keyword : keywords) {
+            String key = ignoreCase ? fold(keyword) : keyword;
+            if (!counts.containsKey(key))
+                counts.put(key, FileUtilsTest.occurrences(haystack, key, true));
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> expectedOffsets(String text, List<String> keywords, boolean ignoreCase) {
+        String haystack = ignoreCase ? fold(text) : text;
+        Map<String, Long> offsets = new LinkedHashMap<>();
+        for (String keyword : keywords) {
+            String key = ignoreCase ? fold(keyword) : keyword;
+            int index = haystack.indexOf(key);
+            if (index >= 0)
+                offsets.put(key, (long) index);
+        }
+        return offsets;
+    }
+
+    /**
+     * 逐字符转小写，不使用 String.toLowerCase，'İ' 这样的字符转换后长度不变
+     */
+    private static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = Character.toLowerCase(chars[i]);
+        return new String(chars);
+    }
+
+    private static String random(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        return text.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @description: LineReader 测试，行内容和行首位置与 BufferedReader.readLine 的结果比较
+ * @author: rainple
+ * @create: 2026-10-18 12:23
+ **/
+public class LineReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void restoreSettings() {
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void linesMatchReadLineAcrossWindows() throws IOException {
+        Random random = new Random(61);
+        File file = folder.newFile();
+        for (String charsetName : new String[]{"utf-8", "GBK"}) {
+            Charset charset = Charset.forName(charsetName);
+            for (int t = 0; t < 300; t++) {
+                StringBuilder text = new StringBuilder(FileUtilsTest.randomText(random, random.nextInt(40)));
+                //偶尔放入比窗口更长的行
+                if (random.nextInt(10) == 0) {
+                    for (int i = 0; i < 100; i++)
+                        text.append(i % 7 == 0 ? '中' : 'x');
+                }
+                Files.write(file.toPath(), text.toString().getBytes(charset));
+                ScannerSettings.smallWindows(random);
+
+                final List<String> lines = new ArrayList<>();
+                final List<Long> offsets = new ArrayList<>();
+                try (LineReader reader = new LineReader(file, charsetName)) {
+                    long count = reader.forEach(new LineReader.LineHandler() {
+                        @Override
+                        public boolean handle(LineReader.Line line) {
+                            lines.add(line.toString());
+                            offsets.add(line.offset());
+                            return true;
+                        }
+                    });
+                    assertEquals(lines.size(), count);
+                }
+                assertEquals(readLines(text.toString()), lines);
+                assertEquals(lineOffsets(text.toString(), charset), offsets);
+            }
+        }
+    }
+
+    @Test
+    public void handlerStopsReading() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), "a\nb\nc\n".getBytes("utf-8"));
+        final List<String> lines = new ArrayList<>();
+        try (LineReader reader = new LineReader(file, "utf-8")) {
+            reader.forEach(new LineReader.LineHandler() {
+                @Override
+                public boolean handle(LineReader.Line line) {
+                    lines.add(line.toString());
+                    return lines.size() < 2;
+                }
+            });
+        }
+        assertEquals(readLines("a\nb"), lines);
+    }
+
+    @Test
+    public void parallelStreamSplitsAtLineBoundaries() throws IOException {
+        Random random = new Random(62);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 3 * LineReader.MIN_SPLIT_SIZE)
+            text.append(FileUtilsTest.randomText(random, 50));
+        File file = folder.newFile();
+        Files.write(file.toPath(), text.toString().getBytes("utf-8"));
+        try (LineReader reader = new LineReader(file, "utf-8")) {
+            List<String> lines = reader.lines().parallel().map(new Function<LineReader.Line, String>() {
+                @Override
+                public String apply(LineReader.Line line) {
+                    return line.toString();
+                }
+            }).collect(Collectors.toList());
+            assertEquals(readLines(text.toString()), lines);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUtf16() throws IOException {
+        new LineReader(folder.newFile(), "UTF-16").close();
+    }
+
+    private static List<String> readLines(String text) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+            String line;
+            while ((line = reader.readLine()) != null)
+                lines.add(line);
+        }
+        return lines;
+    }
+
+    private static List<Long> lineOffsets(String text, Charset charset) {
+        List<Long> offsets = new ArrayList<>();
+        long position = 0;
+        boolean lineStart = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (lineStart)
+                offsets.add(position);
+            lineStart = c == '\n' || c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n');
+            position += String.valueOf(c).getBytes(charset).length;
+        }
+        return offsets;
+    }
+}
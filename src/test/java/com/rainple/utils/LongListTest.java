@@ -0,0 +1,197 @@
+package com.rainple.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: LongList 测试，堆中和堆外两种存储的结果都与 long 数组上的操作比较
+ * @author: rainple
+ * @create: 2026-10-18 12:40
+ **/
+public class LongListTest {
+
+    @Test
+    public void wrapSharesArray() {
+        long[] array = {3, 1, 2};
+        LongList list = LongList.wrap(array);
+        assertSame(array, list.array());
+        list.set(0, 7);
+        assertEquals(7, array[0]);
+        array[1] = 9;
+        assertEquals(9, list.get(1));
+        list.sort();
+        assertArrayEquals(new long[]{2, 7, 9}, array);
+
+        long[] backing = {1, 2, 3, 4};
+        LongList prefix = LongList.wrap(backing, 2);
+        assertEquals(2, prefix.size());
+        prefix.add(5);
+        assertEquals(5, backing[2]);
+        //扩容后不再共享
+        prefix.addAll(6, 7, 8);
+        assertEquals(LongList.wrap(1, 2, 5, 6, 7, 8), prefix);
+        assertArrayEquals(new long[]{1, 2, 5, 4}, backing);
+    }
+
+    @Test
+    public void viewsShareStorageAndCannotResize() {
+        for (LongList list : new LongList[]{new LongList(), LongList.offHeap(4)}) {
+            for (int i = 0; i < 10; i++)
+                list.add(i);
+            LongList view = list.subList(2, 8);
+            assertEquals(6, view.size());
+            view.set(0, 100);
+            assertEquals(100, list.get(2));
+            LongList nested = view.subList(1, 3);
+            nested.set(1, 200);
+            assertEquals(200, list.get(4));
+            assertEquals(LongList.wrap(3, 200), nested);
+            try {
+                view.add(1);
+                fail("view resized");
+            } catch (UnsupportedOperationException expected) {
+                //视图不能增删元素
+            }
+            try {
+                view.clear();
+                fail("view cleared");
+            } catch (UnsupportedOperationException expected) {
+                //视图不能增删元素
+            }
+            try {
+                view.array();
+                fail("view exposed its array");
+            } catch (IllegalStateException expected) {
+                //视图没有独立的数组
+            }
+            try {
+                list.subList(5, 11);
+                fail("view out of range");
+            } catch (IndexOutOfBoundsException expected) {
+                //超出范围
+            }
+        }
+    }
+
+    @Test
+    public void partitionsAreViews() {
+        for (LongList list : new LongList[]{new LongList(), LongList.offHeap(0)}) {
+            for (int i = 0; i < 10; i++)
+                list.add(i);
+            List<LongList> parts = list.partition(4);
+            assertEquals(Arrays.asList(LongList.wrap(0, 1, 2, 3), LongList.wrap(4, 5, 6, 7), LongList.wrap(8, 9)), parts);
+            List<LongList> groups = list.partitionInto(3);
+            assertEquals(Arrays.asList(LongList.wrap(0, 1, 2, 3), LongList.wrap(4, 5, 6), LongList.wrap(7, 8, 9)), groups);
+            groups.get(2).set(0, -1);
+            assertEquals(-1, list.get(7));
+            assertEquals(2, LongList.wrap(1, 2).partitionInto(5).size());
+        }
+    }
+
+    @Test
+    public void binarySearchInViews() {
+        Random random = new Random(101);
+        for (int t = 0; t < 200; t++) {
+            long[] values = new long[random.nextInt(40)];
+            for (int i = 0; i < values.length; i++)
+                values[i] = random.nextInt(30);
+            Arrays.sort(values);
+            int from = values.length == 0 ? 0 : random.nextInt(values.length);
+            int to = from + random.nextInt(values.length - from + 1);
+            long[] expected = Arrays.copyOfRange(values, from, to);
+            LongList offHeap = LongList.offHeap(values.length);
+            offHeap.addAll(values);
+            for (LongList list : new LongList[]{LongList.wrap(values), offHeap}) {
+                LongList view = list.subList(from, to);
+                for (long key = -1; key <= 31; key++) {
+                    int index = view.binarySearch(key);
+                    int reference = Arrays.binarySearch(expected, key);
+                    if (reference >= 0)
+                        assertEquals(key, view.get(index));
+                    else
+                        assertEquals(reference, index);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void offHeapGrowthKeepsValues() {
+        Random random = new Random(102);
+        LongList list = LongList.offHeap(0);
+        long[] expected = new long[50000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = random.nextLong();
+            if (i % 3 == 0) {
+                list.add(expected[i]);
+            } else {
+                list.addAll(expected[i]);
+            }
+        }
+        assertTrue(list.isOffHeap());
+        assertArrayEquals(expected, list.toArray());
+        long sum = 0;
+        for (long value : expected)
+            sum += value;
+        assertEquals(sum, list.sum());
+        assertEquals(expected.length, list.summary().getCount());
+    }
+
+    @Test
+    public void viewSurvivesGrowthOfOffHeapList() {
+        LongList list = LongList.offHeap(2);
+        list.addAll(1, 2);
+        LongList view = list.subList(0, 2);
+        for (int i = 0; i < 1000; i++)
+            list.add(i);
+        //扩容后视图仍然指向旧的缓冲区，可以读取
+        assertEquals(LongList.wrap(1, 2), view);
+        assertEquals(1002, list.size());
+    }
+
+    @Test
+    public void sortDescendingMatchesArrays() {
+        Random random = new Random(103);
+        for (int t = 0; t < 100; t++) {
+            long[] values = new long[random.nextInt(t % 10 == 0 ? 3000 : 50)];
+            for (int i = 0; i < values.length; i++)
+                values[i] = random.nextInt(100) - 50;
+            long[] expected = values.clone();
+            Arrays.sort(expected);
+            for (int i = 0, j = expected.length - 1; i < j; i++, j--) {
+                long tmp = expected[i];
+                expected[i] = expected[j];
+                expected[j] = tmp;
+            }
+            LongList offHeap = LongList.offHeap(1);
+            offHeap.addAll(values);
+            for (LongList list : new LongList[]{LongList.wrap(values.clone()), offHeap}) {
+                list.sortDescending();
+                assertArrayEquals(expected, list.toArray());
+            }
+        }
+    }
+
+    @Test
+    public void clearKeepsStorage() {
+        LongList list = new LongList(4);
+        list.addAll(1, 2, 3);
+        long[] array = list.array();
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertFalse(list.isOffHeap());
+        list.add(4);
+        assertSame(array, list.array());
+        assertEquals(Arrays.asList(4L), list.asList());
+    }
+}
@@ -0,0 +1,101 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @description: TextAnalyzer 与 ParallelAnalyzer 测试，单次扫描和分块并行的结果都与解码后统计的结果一致
+ * @author: rainple
+ * @create: 2026-10-18 12:11
+ **/
+public class ParallelAnalyzerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void restoreSettings() {
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void analyzeMatchesDecodedText() throws IOException {
+        Random random = new Random(31);
+        File file = folder.newFile();
+        try (ParallelAnalyzer parallel = new ParallelAnalyzer(4, 16)) {
+            for (String charsetName : new String[]{"utf-8", "GBK"}) {
+                Charset charset = Charset.forName(charsetName);
+                for (int t = 0; t < 60; t++) {
+                    String text = FileUtilsTest.randomText(random, random.nextInt(300));
+                    Files.write(file.toPath(), text.getBytes(charset));
+                    if (t % 2 == 0)
+                        ScannerSettings.smallWindows(random);
+                    else
+                        ScannerSettings.restore();
+                    boolean ignoreCase = random.nextBoolean();
+                    TextAnalyzer analyzer = new TextAnalyzer(charsetName, ignoreCase, TextAnalyzer.Metric.values());
+
+                    assertStats(text, ignoreCase, analyzer.analyze(file));
+                    assertStats(text, ignoreCase, parallel.analyze(file.getPath(), analyzer));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void countersMatchDecodedText() throws IOException {
+        Random random = new Random(32);
+        File file = folder.newFile();
+        String path = file.getPath();
+        try (ParallelAnalyzer parallel = new ParallelAnalyzer(3, 8)) {
+            for (int t = 0; t < 60; t++) {
+                String text = FileUtilsTest.randomText(random, random.nextInt(300));
+                Files.write(file.toPath(), text.getBytes("utf-8"));
+                ScannerSettings.smallWindows(random);
+                boolean ignoreCase = random.nextBoolean();
+
+                assertEquals(text.length(), parallel.getTotalChar(path, "utf-8"));
+                assertEquals(FileUtilsTest.chinese(text), parallel.getChineseChars(path, "utf-8"));
+                assertEquals(FileUtilsTest.charCounts(text), FileUtilsTest.toMap(parallel.countChar(path, "utf-8", FileUtils.DESC)));
+                assertEquals(FileUtilsTest.wordCounts(text, ignoreCase),
+                        FileUtilsTest.toMap(parallel.countEnglishWord(path, "utf-8", FileUtils.DESC, ignoreCase)));
+                for (String word : new String[]{"hello", "中文", "o w", "aa"})
+                    assertEquals(word, FileUtilsTest.occurrences(text, word, false), parallel.findWordCountPresent(path, word, "utf-8"));
+            }
+        }
+    }
+
+    @Test
+    public void selectedMetricsOnly() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), "Hello 中文 hello".getBytes("utf-8"));
+        TextStats stats = new TextAnalyzer("utf-8", true, TextAnalyzer.Metric.ENGLISH_WORDS).analyze(file);
+        assertEquals(Collections.singleton(TextAnalyzer.Metric.ENGLISH_WORDS), stats.getMetrics());
+        assertEquals(Collections.singletonMap("hello", 2L), stats.getWordCounts());
+        assertEquals(2, stats.getEnglishWords());
+    }
+
+    private static void assertStats(String text, boolean ignoreCase, TextStats stats) {
+        Map<String, Long> words = FileUtilsTest.wordCounts(text, ignoreCase);
+        long total = 0;
+        for (long count : words.values())
+            total += count;
+        assertEquals(text.length(), stats.getTotalChars());
+        assertEquals(FileUtilsTest.chinese(text), stats.getChineseChars());
+        assertEquals(words, stats.getWordCounts());
+        assertEquals(total, stats.getEnglishWords());
+        assertEquals(FileUtilsTest.charCounts(text), stats.getCharCounts());
+    }
+}
@@ -0,0 +1,116 @@
+package com.rainple.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: ListUtils.partition 和 partitionInto 测试，分区大小、边界和视图语义
+ * @author: rainple
+ * @create: 2026-10-18 12:58
+ **/
+public class PartitionsTest {
+
+    @Test
+    public void partitionIntoSpreadsRemainderToFirstGroups() {
+        List<Integer> list = range(10);
+        List<List<Integer>> groups = ListUtils.partitionInto(list, 3);
+        assertEquals(Arrays.asList(Arrays.asList(0, 1, 2, 3), Arrays.asList(4, 5, 6), Arrays.asList(7, 8, 9)), groups);
+
+        //元素少于组数时每组一个元素，不产生空组
+        assertEquals(Arrays.asList(Arrays.asList(0), Arrays.asList(1)), ListUtils.partitionInto(range(2), 5));
+        assertTrue(ListUtils.partitionInto(range(0), 4).isEmpty());
+    }
+
+    @Test
+    public void partitionLeavesShortLastBatch() {
+        assertEquals(Arrays.asList(Arrays.asList(0, 1, 2, 3), Arrays.asList(4, 5, 6, 7), Arrays.asList(8, 9)),
+                ListUtils.partition(range(10), 4));
+        assertEquals(Arrays.asList(range(3)), ListUtils.partition(range(3), 100));
+        assertTrue(ListUtils.partition(range(0), 4).isEmpty());
+    }
+
+    @Test
+    public void groupsCoverListWithSizesDifferingByOne() {
+        Random random = new Random(111);
+        for (int t = 0; t < 500; t++) {
+            List<Integer> list = range(random.nextInt(100));
+            int n = 1 + random.nextInt(20);
+            List<List<Integer>> groups = ListUtils.partitionInto(list, n);
+            assertEquals(Math.min(n, list.size()), groups.size());
+            List<Integer> joined = new ArrayList<>();
+            int previous = Integer.MAX_VALUE;
+            for (List<Integer> group : groups) {
+                assertTrue(group.size() <= previous);
+                assertTrue(group.size() >= groups.get(0).size() - 1);
+                previous = group.size();
+                joined.addAll(group);
+            }
+            assertEquals(list, joined);
+
+            List<List<Integer>> batches = ListUtils.partition(list, n);
+            assertEquals((list.size() + n - 1) / n, batches.size());
+            joined.clear();
+            for (int i = 0; i < batches.size(); i++) {
+                if (i < batches.size() - 1)
+                    assertEquals(n, batches.get(i).size());
+                joined.addAll(batches.get(i));
+            }
+            assertEquals(list, joined);
+        }
+    }
+
+    @Test
+    public void partitionsAreViews() {
+        List<Integer> list = range(10);
+        List<List<Integer>> groups = ListUtils.partitionInto(list, 3);
+        groups.get(1).set(0, -4);
+        assertEquals(-4, (int) list.get(4));
+        list.set(9, -9);
+        assertEquals(Arrays.asList(7, 8, -9), groups.get(2));
+    }
+
+    @Test
+    public void rejectsInvalidArguments() {
+        try {
+            ListUtils.partitionInto(range(3), 0);
+            fail("zero groups accepted");
+        } catch (IllegalArgumentException expected) {
+            //组数必须为正数
+        }
+        try {
+            ListUtils.partition(range(3), -1);
+            fail("negative size accepted");
+        } catch (IllegalArgumentException expected) {
+            //分区大小必须为正数
+        }
+        try {
+            ListUtils.partition(null, 2);
+            fail("null list accepted");
+        } catch (IllegalArgumentException expected) {
+            //集合不能为空
+        }
+        try {
+            ListUtils.partitionInto(range(10), 3).get(3);
+            fail("index out of range");
+        } catch (IndexOutOfBoundsException expected) {
+            //超出范围
+        }
+        assertEquals(Collections.emptyList(), ListUtils.partition(range(0), 1));
+    }
+
+    private static List<Integer> range(int n) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < n; i++)
+            list.add(i);
+        return list;
+    }
+}
@@ -0,0 +1,83 @@
+package com.rainple.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @description: RecordWriter 测试
+ * @author: rainple
+ * @create: 2026-10-18 10:34
+ **/
+public class RecordWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesRecordsAndLines() throws IOException {
+        File file = folder.newFile();
+        try (RecordWriter writer = new RecordWriter(file, "utf-8", false)) {
+            writer.write("a,");
+            writer.writeLine("中文");
+            writer.writeLine(CharBuffer.wrap("b"));
+        }
+        assertEquals("a,中文\nb\n", read(file));
+    }
+
+    @Test
+    public void keepsSurrogatePairSplitAcrossWrites() throws IOException {
+        String text = "a😀b";
+        File file = folder.newFile();
+        try (RecordWriter writer = new RecordWriter(file, "utf-8", false)) {
+            writer.write(text.substring(0, 2));
+            writer.write(text.substring(2));
+        }
+        assertEquals(text, read(file));
+    }
+
+    @Test
+    public void keepsSurrogatePairSplitAcrossFlush() throws IOException {
+        File file = folder.newFile();
+        try (RecordWriter writer = new RecordWriter(file, "utf-8", false, 16, RecordWriter.FlushPolicy.everyRecords(1))) {
+            writer.write("x\uD83D");
+            writer.write("\uDE00");
+        }
+        assertEquals("x😀", read(file));
+    }
+
+    @Test
+    public void replacesUnpairedHighSurrogate() throws IOException {
+        File file = folder.newFile();
+        try (RecordWriter writer = new RecordWriter(file, "utf-8", false)) {
+            writer.writeLine("a\uD83D");
+            writer.write("b\uD83D");
+        }
+        assertEquals("a?\nb?", read(file));
+    }
+
+    @Test
+    public void writesThroughSmallBuffer() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            text.append(i).append("中😀");
+        File file = folder.newFile();
+        try (RecordWriter writer = new RecordWriter(file, "utf-8", false, 7, RecordWriter.FlushPolicy.onBufferFull())) {
+            for (int i = 0; i < text.length(); i += 3)
+                writer.write(text.subSequence(i, Math.min(text.length(), i + 3)));
+        }
+        assertEquals(text.toString(), read(file));
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,37 @@
+package com.rainple.utils;
+
+import java.nio.charset.CodingErrorAction;
+import java.util.Random;
+
+/**
+ * @description: 测试用的 FileScanner 全局设置，用很小的窗口和缓冲区制造大量的块边界
+ * @author: rainple
+ * @create: 2026-10-18 12:05
+ **/
+final class ScannerSettings {
+
+    private ScannerSettings() {
+    }
+
+    /**
+     * 随机选择映射窗口或直接缓冲区，窗口和缓冲区只有几个到几十个字节
+     */
+    static void smallWindows(Random random) {
+        if (random.nextBoolean()) {
+            FileScanner.setMappingEnabled(true);
+            FileScanner.setMappingThreshold(0);
+            FileScanner.setWindowSize(8 + random.nextInt(56));
+        } else {
+            FileScanner.setMappingEnabled(false);
+            FileScanner.setBufferSize(1 + random.nextInt(31));
+        }
+    }
+
+    static void restore() {
+        FileScanner.setMappingEnabled(true);
+        FileScanner.setMappingThreshold(FileScanner.DEFAULT_MAPPING_THRESHOLD);
+        FileScanner.setWindowSize(FileScanner.DEFAULT_WINDOW_SIZE);
+        FileScanner.setBufferSize(FileScanner.DEFAULT_BUFFER_SIZE);
+        FileScanner.setMalformedInputAction(CodingErrorAction.REPLACE);
+    }
+}
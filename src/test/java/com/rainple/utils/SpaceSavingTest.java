@@ -0,0 +1,123 @@
+package com.rainple.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: SpaceSaving 测试，估计次数不小于真实次数，偏大的部分不超过 getError 和 总数/容量，
+ * 真实次数超过 总数/容量 的单词一定在结果中
+ * @author: rainple
+ * @create: 2026-10-18 10:33
+ **/
+public class SpaceSavingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void estimatesStayWithinErrorBound() {
+        Random random = new Random(161);
+        for (int t = 0; t < 50; t++) {
+            int capacity = 1 + random.nextInt(40);
+            int distinct = 1 + random.nextInt(300);
+            SpaceSaving summary = new SpaceSaving(capacity, false);
+            Map<String, Long> exact = new HashMap<>();
+            for (int n = random.nextInt(5000); n > 0; n--) {
+                String word = "w" + skewed(random, distinct);
+                summary.offer(word);
+                increment(exact, word);
+            }
+            long total = 0;
+            for (long count : exact.values())
+                total += count;
+            assertEquals(total, summary.getTotal());
+
+            List<Map.Entry<String, Long>> all = summary.top(capacity);
+            assertEquals(Math.min(capacity, exact.size()), all.size());
+            long sum = 0;
+            for (Map.Entry<String, Long> entry : all) {
+                long real = exact.get(entry.getKey());
+                long error = summary.getError(entry.getKey());
+                assertTrue(entry + " real " + real, entry.getValue() >= real);
+                assertTrue(entry + " real " + real + " error " + error, entry.getValue() - real <= error);
+                assertTrue(entry + " error " + error, error <= total / capacity);
+                //不同单词不超过容量时结果是精确的
+                if (exact.size() <= capacity)
+                    assertEquals(0, error);
+                sum += entry.getValue();
+            }
+            //每次出现正好加到一个计数器上
+            assertEquals(total, sum);
+            for (Map.Entry<String, Long> entry : exact.entrySet()) {
+                if (entry.getValue() > total / capacity)
+                    assertTrue(entry.toString(), summary.getError(entry.getKey()) >= 0);
+            }
+            assertEquals(-1, summary.getError("absent"));
+            FileUtilsTest.assertSorted(all, false);
+        }
+    }
+
+    @Test
+    public void approximateTopWordsFromFile() throws IOException {
+        Random random = new Random(162);
+        File file = folder.newFile();
+        for (int t = 0; t < 20; t++) {
+            StringBuilder text = new StringBuilder();
+            for (int n = random.nextInt(3000); n > 0; n--)
+                text.append(random.nextInt(3) == 0 ? "Word" : "word").append((char) ('a' + skewed(random, 26))).append(random.nextBoolean() ? ' ' : '\n');
+            Files.write(file.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+            boolean ignoreCase = random.nextBoolean();
+            Map<String, Long> exact = FileUtilsTest.wordCounts(text.toString(), ignoreCase);
+            long total = 0;
+            for (long count : exact.values())
+                total += count;
+            int k = 1 + random.nextInt(5);
+            int capacity = k + random.nextInt(20);
+
+            List<Map.Entry<String, Long>> top;
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                top = FileUtils.findTopEnglishWordsApproximately(inputStream, "utf-8", k, capacity, ignoreCase);
+            }
+            assertEquals(Math.min(k, exact.size()), top.size());
+            FileUtilsTest.assertSorted(top, false);
+            for (Map.Entry<String, Long> entry : top) {
+                long real = exact.get(entry.getKey());
+                assertTrue(entry + " real " + real, entry.getValue() >= real && entry.getValue() - real <= total / capacity);
+            }
+            //真实次数比第K个估计值还多出误差上限的单词一定在前K项中
+            if (top.size() == k) {
+                long kth = top.get(k - 1).getValue();
+                for (Map.Entry<String, Long> entry : exact.entrySet()) {
+                    if (entry.getValue() > kth && entry.getValue() > total / capacity)
+                        assertTrue(entry.toString(), FileUtilsTest.toMap(top).containsKey(entry.getKey()));
+                }
+            }
+        }
+    }
+
+    /**
+     * 下标越小出现的概率越大
+     */
+    private static int skewed(Random random, int n) {
+        return (int) (n * Math.pow(random.nextDouble(), 3));
+    }
+
+    private static void increment(Map<String, Long> counts, String key) {
+        Long count = counts.get(key);
+        counts.put(key, count == null ? 1L : count + 1);
+    }
+}
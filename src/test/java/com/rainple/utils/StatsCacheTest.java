@@ -0,0 +1,106 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: StatsCache 测试
+ * @author: rainple
+ * @create: 2026-10-18 10:38
+ **/
+public class StatsCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TextAnalyzer analyzer = new TextAnalyzer("utf-8", true, TextAnalyzer.Metric.values());
+
+    @After
+    public void resetAction() {
+        FileScanner.setMalformedInputAction(CodingErrorAction.REPLACE);
+    }
+
+    @Test
+    public void reportThrowsAfterReplacedResultWasCached() throws IOException {
+        File file = write(new byte[]{'a', (byte) 0xFF, 'b'});
+        StatsCache cache = new StatsCache(16);
+        assertEquals(3, cache.analyze(file, analyzer).getTotalChars());
+        FileScanner.setMalformedInputAction(CodingErrorAction.REPORT);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.analyze(file, analyzer);
+                fail("malformed input not reported");
+            } catch (CharacterCodingException expected) {
+                //每次都重新分析并报告
+            }
+        }
+        assertEquals(1, cache.size());
+        FileScanner.setMalformedInputAction(CodingErrorAction.IGNORE);
+        assertEquals(2, cache.analyze(file, analyzer).getTotalChars());
+        FileScanner.setMalformedInputAction(CodingErrorAction.REPLACE);
+        assertEquals(3, cache.analyze(file, analyzer).getTotalChars());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void reportHitsForValidFile() throws IOException {
+        File file = write("Hello 中文 hello".getBytes(StandardCharsets.UTF_8));
+        FileScanner.setMalformedInputAction(CodingErrorAction.REPORT);
+        StatsCache cache = new StatsCache(16);
+        cache.analyze(file, analyzer);
+        cache.analyze(file, analyzer);
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void sidecarKeepsStatsAndAction() throws IOException {
+        File file = write("Hello world 中文 hello\n汉字 abc".getBytes(StandardCharsets.UTF_8));
+        File sidecar = new File(folder.getRoot(), "stats.cache");
+        StatsCache cache = new StatsCache(16, sidecar);
+        TextStats stats = cache.analyze(file, analyzer);
+        cache.save();
+
+        StatsCache loaded = new StatsCache(16, sidecar);
+        assertEquals(1, loaded.size());
+        TextStats cached = loaded.analyze(file, analyzer);
+        assertEquals(1, loaded.hitCount());
+        assertEquals(stats.getMetrics(), cached.getMetrics());
+        assertEquals(stats.getTotalChars(), cached.getTotalChars());
+        assertEquals(stats.getChineseChars(), cached.getChineseChars());
+        assertEquals(stats.getEnglishWords(), cached.getEnglishWords());
+        assertEquals(stats.getWordCounts(), cached.getWordCounts());
+        assertEquals(stats.getCharCounts(), cached.getCharCounts());
+        assertEquals(stats.getMaxPresentCharacter(), cached.getMaxPresentCharacter());
+        assertEquals(stats.getMinPresentCharacter(), cached.getMinPresentCharacter());
+
+        FileScanner.setMalformedInputAction(CodingErrorAction.IGNORE);
+        loaded.analyze(file, analyzer);
+        assertEquals(1, loaded.missCount());
+    }
+
+    @Test
+    public void corruptSidecarStartsEmpty() throws IOException {
+        File sidecar = folder.newFile();
+        Files.write(sidecar.toPath(), new byte[]{0, 0, 0, 3, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1, 2});
+        assertEquals(0, new StatsCache(16, sidecar).size());
+    }
+
+    private File write(byte[] bytes) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), bytes);
+        return file;
+    }
+}
@@ -0,0 +1,140 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: TailAnalyzer 测试
+ * @author: rainple
+ * @create: 2026-10-18 10:45
+ **/
+public class TailAnalyzerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TextAnalyzer analyzer = new TextAnalyzer("utf-8", true, TextAnalyzer.Metric.values());
+
+    @After
+    public void restoreSettings() {
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void appendsMatchFullAnalysis() throws IOException {
+        byte[] all = "Hello wor中文ld abc\n你好 hello HELLO\nxyz".getBytes(StandardCharsets.UTF_8);
+        File file = folder.newFile();
+        TailAnalyzer tail = new TailAnalyzer(file, analyzer);
+        Random random = new Random(1);
+        int position = 0;
+        while (position < all.length) {
+            int next = Math.min(all.length, position + 1 + random.nextInt(4));
+            append(file, all, position, next);
+            assertEquals(next - position, tail.update());
+            position = next;
+            //末尾的多字节字符不完整时完整分析会替换它，增量分析等待后续字节，不比较
+            if (next < all.length && (all[next] & 0xC0) == 0x80)
+                continue;
+            //每一步的结果都包含末尾尚未结束的单词
+            TextStats stats = tail.stats();
+            TextStats full = analyzer.analyze(file);
+            assertEquals(full.getWordCounts(), stats.getWordCounts());
+            assertEquals(full.getCharCounts(), stats.getCharCounts());
+            assertEquals(full.getTotalChars(), tail.getTotalChars());
+            assertEquals(full.getChineseChars(), tail.getChineseChars());
+        }
+    }
+
+    @Test
+    public void reusesStatsUntilNewData() throws IOException {
+        File file = folder.newFile();
+        TailAnalyzer tail = new TailAnalyzer(file, analyzer);
+        append(file, "abc def".getBytes(StandardCharsets.UTF_8));
+        tail.update();
+        TextStats stats = tail.stats();
+        assertEquals(0, tail.update());
+        assertSame(stats, tail.stats());
+        append(file, " def".getBytes(StandardCharsets.UTF_8));
+        assertEquals(4, tail.update());
+        assertEquals(Long.valueOf(2), tail.stats().getWordCounts().get("def"));
+    }
+
+    @Test
+    public void restartsAfterTruncation() throws IOException {
+        File file = folder.newFile();
+        TailAnalyzer tail = new TailAnalyzer(file, analyzer);
+        append(file, "hello world hello".getBytes(StandardCharsets.UTF_8));
+        tail.update();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("foo".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(3, tail.update());
+        assertEquals(Collections.singletonMap("foo", 1L), tail.stats().getWordCounts());
+        assertEquals(1, tail.getResets());
+    }
+
+    @Test
+    public void failedUpdateKeepsCounts() throws IOException {
+        Random random = new Random(2);
+        File file = folder.newFile();
+        for (int t = 0; t < 50; t++) {
+            ScannerSettings.smallWindows(random);
+            FileScanner.setMalformedInputAction(CodingErrorAction.REPORT);
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write("abc 中文 def".getBytes(StandardCharsets.UTF_8));
+            }
+            TailAnalyzer tail = new TailAnalyzer(file, analyzer);
+            tail.update();
+            TextStats before = tail.stats();
+            long offset = tail.getOffset();
+            //坏字节前面的数据已经解码，失败后不能留在结果中
+            append(file, " gh 你好 ij xyz ".getBytes(StandardCharsets.UTF_8));
+            append(file, new byte[]{(byte) 0xff, (byte) 0xfe});
+            try {
+                tail.update();
+                fail("malformed input accepted");
+            } catch (IOException expected) {
+                //REPORT 时坏字节抛出异常
+            }
+            assertEquals(offset, tail.getOffset());
+            assertEquals(before.getWordCounts(), tail.stats().getWordCounts());
+            assertEquals(before.getCharCounts(), tail.stats().getCharCounts());
+            assertEquals(before.getTotalChars(), tail.getTotalChars());
+            assertEquals(before.getChineseChars(), tail.getChineseChars());
+
+            //修正文件后从原来的位置继续，末尾未结束的单词仍然接得上
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write("abc 中文 defg hi".getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(4, tail.update());
+            TextStats full = analyzer.analyze(file);
+            assertEquals(full.getWordCounts(), tail.stats().getWordCounts());
+            assertEquals(full.getCharCounts(), tail.stats().getCharCounts());
+            assertEquals(0, tail.getResets());
+        }
+    }
+
+    private static void append(File file, byte[] bytes) throws IOException {
+        append(file, bytes, 0, bytes.length);
+    }
+
+    private static void append(File file, byte[] bytes, int from, int to) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(bytes, from, to - from);
+        }
+    }
+}
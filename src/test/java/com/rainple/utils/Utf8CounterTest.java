@@ -0,0 +1,107 @@
+package com.rainple.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @description: Utf8Counter 测试，字节级计数与整体解码后逐字符统计的结果比较
+ * @author: rainple
+ * @create: 2026-10-18 12:20
+ **/
+public class Utf8CounterTest {
+
+    private static final String[] PIECES = {"a", "bc ", "中文", "\n", "é", "😀", "一龥", "abcdefghijklmnopqrstuvwxyz ", "ü", "\r\n"};
+
+    /**
+     * 非法或被截断的序列：单独的续字节、缺少续字节、过长编码、编码的代理字符、超出范围的码点
+     */
+    private static final byte[][] MALFORMED = {
+            {(byte) 0x80}, {(byte) 0xFF}, {(byte) 0xC3}, {(byte) 0xE4, (byte) 0xB8}, {(byte) 0xC0, (byte) 0xAF},
+            {(byte) 0xED, (byte) 0xA0, (byte) 0x80}, {(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80},
+            {(byte) 0xF0, (byte) 0x9F, (byte) 0x98}
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void restoreSettings() {
+        ScannerSettings.restore();
+    }
+
+    @Test
+    public void matchesDecodedCountsAcrossWindows() throws IOException {
+        Random random = new Random(15);
+        File file = folder.newFile();
+        for (int t = 0; t < 300; t++) {
+            byte[] bytes = randomText(random, t % 3 == 0);
+            Files.write(file.toPath(), bytes);
+            ScannerSettings.smallWindows(random);
+            String decoded = new String(bytes, StandardCharsets.UTF_8);
+            assertEquals(decoded.length(), FileUtils.getTotalChar(file.getPath(), "utf-8"));
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                assertEquals(FileUtilsTest.chinese(decoded), FileUtils.getChineseChars(inputStream, "utf-8"));
+            }
+        }
+    }
+
+    @Test
+    public void matchesDecodedCountsWithDefaultSettings() throws IOException {
+        Random random = new Random(16);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 2000; i++)
+            out.write(randomText(random, i % 50 == 0));
+        byte[] bytes = out.toByteArray();
+        File file = folder.newFile();
+        Files.write(file.toPath(), bytes);
+        String decoded = new String(bytes, StandardCharsets.UTF_8);
+        assertEquals(decoded.length(), FileUtils.getTotalChar(file.getPath(), "utf-8"));
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            assertEquals(FileUtilsTest.chinese(decoded), FileUtils.getChineseChars(inputStream, "utf-8"));
+        }
+    }
+
+    @Test
+    public void decoderPathMatchesForGbk() throws IOException {
+        Charset gbk = Charset.forName("GBK");
+        Random random = new Random(17);
+        File file = folder.newFile();
+        for (int t = 0; t < 100; t++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(40); i > 0; i--)
+                text.append(PIECES[random.nextInt(PIECES.length)]);
+            byte[] bytes = text.toString().getBytes(gbk);
+            Files.write(file.toPath(), bytes);
+            ScannerSettings.smallWindows(random);
+            String decoded = new String(bytes, gbk);
+            assertEquals(decoded.length(), FileUtils.getTotalChar(file.getPath(), "GBK"));
+            try (FileInputStream inputStream = new FileInputStream(file)) {
+                assertEquals(FileUtilsTest.chinese(decoded), FileUtils.getChineseChars(inputStream, "GBK"));
+            }
+        }
+    }
+
+    static byte[] randomText(Random random, boolean malformed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = random.nextInt(60); i > 0; i--) {
+            if (malformed && random.nextInt(8) == 0)
+                out.write(MALFORMED[random.nextInt(MALFORMED.length)]);
+            else
+                out.write(PIECES[random.nextInt(PIECES.length)].getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
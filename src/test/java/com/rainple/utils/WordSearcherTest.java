@@ -0,0 +1,77 @@
+package com.rainple.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @description: WordSearcher 测试，任意切分输入时跨越边界的出现也只统计一次且不重叠
+ * @author: rainple
+ * @create: 2026-10-18 12:17
+ **/
+public class WordSearcherTest {
+
+    /**
+     * 字母表很小，容易产生自重叠的出现；'中'(0x4E2D) 与 '-'(0x2D) 在跳转表中落在同一个槽位
+     */
+    private static final char[] ALPHABET = {'a', 'b', '中', '-', 'ｍ', 'm'};
+
+    @Test
+    public void arrayMatchesIndexOf() {
+        Random random = new Random(41);
+        for (int t = 0; t < 2000; t++) {
+            String text = random(random, random.nextInt(40));
+            String word = random(random, 1 + random.nextInt(4));
+            char[] chars = ("xyz" + text + "xyz").toCharArray();
+            WordSearcher searcher = WordSearcher.compile(word);
+            int expected = text.indexOf(word);
+            int actual = searcher.indexOf(chars, 3, chars.length - 3);
+            assertEquals(text + "/" + word, expected < 0 ? -1 : expected + 3, actual);
+            assertEquals(text + "/" + word, FileUtilsTest.occurrences(text, word, false), searcher.count(chars, 3, chars.length - 3));
+        }
+    }
+
+    @Test
+    public void sessionBridgesChunks() {
+        Random random = new Random(42);
+        for (int t = 0; t < 3000; t++) {
+            String text = random(random, random.nextInt(60));
+            String word = random(random, 1 + random.nextInt(5));
+            char[] chars = text.toCharArray();
+            WordSearcher.Session session = WordSearcher.compile(word).newSession();
+            long fed = 0;
+            int position = 0;
+            while (position < chars.length) {
+                int next = Math.min(chars.length, position + random.nextInt(4));
+                fed += session.feed(chars, position, next);
+                position = next;
+            }
+            long expected = FileUtilsTest.occurrences(text, word, false);
+            assertEquals(text + "/" + word, expected, session.count());
+            assertEquals(expected, fed);
+        }
+    }
+
+    @Test
+    public void selfOverlappingWord() {
+        WordSearcher.Session session = WordSearcher.compile("aaa").newSession();
+        char[] chars = "aaaaaaa".toCharArray();
+        for (int i = 0; i < chars.length; i++)
+            session.feed(chars, i, i + 1);
+        assertEquals(2, session.count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyWord() {
+        WordSearcher.compile("");
+    }
+
+    private static String random(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            text.append(ALPHABET[random.nextInt(random.nextBoolean() ? 2 : ALPHABET.length)]);
+        return text.toString();
+    }
+}
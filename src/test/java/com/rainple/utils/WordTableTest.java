@@ -0,0 +1,122 @@
+package com.rainple.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: WordTable 测试，结果与 HashMap 计数比较，覆盖扩容、长单词、合并和清空后复用
+ * @author: rainple
+ * @create: 2026-10-18 12:50
+ **/
+public class WordTableTest {
+
+    @Test
+    public void countsMatchHashMap() {
+        Random random = new Random(71);
+        WordTable table = new WordTable();
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 50000; i++) {
+            String word = randomWord(random);
+            boolean lowerCase = random.nextBoolean();
+            char[] chars = ("#" + word + "#").toCharArray();
+            table.add(chars, 1, word.length(), lowerCase);
+            increment(expected, lowerCase ? word.toLowerCase() : word, 1);
+        }
+        assertEquals(expected.size(), table.size());
+        assertEquals(expected, table.toMap());
+        for (Map.Entry<String, Long> entry : expected.entrySet())
+            assertEquals(entry.getValue().longValue(), table.get(entry.getKey()));
+        assertEquals(0, table.get("notaword"));
+    }
+
+    @Test
+    public void longWordsSpanArenaPages() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100000; i++)
+            builder.append(i % 3 == 0 ? '中' : (char) ('a' + i % 26));
+        String huge = builder.toString();
+        WordTable table = new WordTable(1);
+        for (int i = 0; i < 3; i++) {
+            table.add(huge.toCharArray(), 0, huge.length(), false);
+            table.add(huge.toCharArray(), 0, 100 + i, false);
+        }
+        assertEquals(4, table.size());
+        assertEquals(3, table.get(huge));
+        assertEquals(1, table.get(huge.substring(0, 102)));
+    }
+
+    @Test
+    public void mergeAndClear() {
+        Random random = new Random(72);
+        WordTable left = new WordTable();
+        WordTable right = new WordTable(1000);
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String word = randomWord(random);
+            (i % 2 == 0 ? left : right).add(word.toCharArray(), 0, word.length(), false);
+            increment(expected, word, 1);
+        }
+        WordTable empty = new WordTable();
+        empty.merge(right);
+        left.merge(empty);
+        assertEquals(expected, left.toMap());
+
+        left.clear();
+        assertEquals(0, left.size());
+        assertEquals(0, left.get("abc"));
+        assertTrue(left.toMap().isEmpty());
+        left.add("abc".toCharArray(), 0, 3, false);
+        assertEquals(Collections.singletonMap("abc", 1L), left.toMap());
+    }
+
+    @Test
+    public void topOrdersByCountThenUtf8Bytes() {
+        Random random = new Random(73);
+        WordTable table = new WordTable();
+        Map<String, Long> counts = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            String word = randomWord(random);
+            word = word.substring(0, Math.min(word.length(), 1 + random.nextInt(2)));
+            table.add(word.toCharArray(), 0, word.length(), false);
+            increment(counts, word, 1);
+        }
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(counts.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                int c = Long.compare(o2.getValue(), o1.getValue());
+                //BMP 内没有代理字符时，UTF-8 字节序与 String 的字符序相同
+                return c != 0 ? c : o1.getKey().compareTo(o2.getKey());
+            }
+        });
+        for (int k : new int[]{0, 1, 10, 100, sorted.size(), sorted.size() + 5}) {
+            List<Map.Entry<String, Long>> top = table.top(k);
+            assertEquals(sorted.subList(0, Math.min(k, sorted.size())), top);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        int length = 1 + random.nextInt(random.nextInt(10) == 0 ? 80 : 8);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            int r = random.nextInt(10);
+            word.append(r < 6 ? (char) ('a' + random.nextInt(4)) : r < 9 ? (char) ('A' + random.nextInt(4)) : '中');
+        }
+        return word.toString();
+    }
+
+    private static void increment(Map<String, Long> counts, String word, long delta) {
+        Long count = counts.get(word);
+        counts.put(word, count == null ? delta : count + delta);
+    }
+}